@@ -0,0 +1,194 @@
+package com.hotelbooking.cache;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/**
+ * Small size-bounded LRU cache whose entries also expire after a time-to-live.
+ *
+ * Kept deliberately simple: one lock around an access-ordered LinkedHashMap. Callers only
+ * put cheap, already-computed values in here, so the critical section is a few map operations.
+ * Hit, miss and eviction counts are tracked for monitoring.
+ */
+public class BoundedTtlCache<K, V> {
+
+    private final String name;
+    private final int maxSize;
+    private final long ttlMillis;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<K, Entry<V>> entries;
+    // Bumped by every invalidation (under the lock) so computeIfAbsent can tell its load went stale
+    private volatile long generation;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+
+    public BoundedTtlCache(String name, int maxSize, long ttlMillis) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    public V get(K key) {
+        lock.lock();
+        try {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && entry.expiresAt() > System.currentTimeMillis()) {
+                hits.increment();
+                return entry.value();
+            }
+            if (entry != null) {
+                entries.remove(key);
+                evictions.increment();
+            }
+            misses.increment();
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void put(K key, V value) {
+        put(key, value, System.currentTimeMillis() + ttlMillis);
+    }
+
+    /** Stores a value that must not outlive {@code expiresAt} (epoch millis), capped by the cache TTL. */
+    public void put(K key, V value, long expiresAt) {
+        long deadline = Math.min(expiresAt, System.currentTimeMillis() + ttlMillis);
+        lock.lock();
+        try {
+            entries.put(key, new Entry<>(value, deadline));
+            Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+            while (entries.size() > maxSize && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+                evictions.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stores the value unless a live entry exists, atomically. Returns the existing value, or
+     * null when this call stored it.
+     */
+    public V putIfAbsent(K key, V value) {
+        lock.lock();
+        try {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && entry.expiresAt() > System.currentTimeMillis()) {
+                hits.increment();
+                return entry.value();
+            }
+            misses.increment();
+            put(key, value);
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the cached value or computes it outside the lock. Two callers missing at the
+     * same time may both compute; the last one wins, which is fine for idempotent loaders.
+     * A value whose load overlapped any invalidation is returned but not stored, since it may
+     * have been read before the change the invalidation announced.
+     */
+    public V computeIfAbsent(K key, Function<K, V> loader) {
+        long seen = generation;
+        V value = get(key);
+        if (value == null) {
+            value = loader.apply(key);
+            if (value != null) {
+                putUnlessInvalidatedSince(key, value, seen);
+            }
+        }
+        return value;
+    }
+
+    private void putUnlessInvalidatedSince(K key, V value, long seen) {
+        lock.lock();
+        try {
+            if (generation == seen) {
+                put(key, value);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidate(K key) {
+        lock.lock();
+        try {
+            generation++;
+            entries.remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Drops every entry whose key and value match; returns how many were removed. */
+    public int invalidateIf(BiPredicate<K, V> predicate) {
+        lock.lock();
+        try {
+            List<K> doomed = new ArrayList<>();
+            entries.forEach((k, e) -> {
+                if (predicate.test(k, e.value())) {
+                    doomed.add(k);
+                }
+            });
+            generation++;
+            doomed.forEach(entries::remove);
+            return doomed.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            generation++;
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String getName() { return name; }
+    public long getHits() { return hits.sum(); }
+    public long getMisses() { return misses.sum(); }
+    public long getEvictions() { return evictions.sum(); }
+
+    public Map<String, Object> stats() {
+        return Map.of(
+                "name", name,
+                "size", size(),
+                "maxSize", maxSize,
+                "hits", getHits(),
+                "misses", getMisses(),
+                "evictions", getEvictions());
+    }
+}
@@ -0,0 +1,43 @@
+package com.hotelbooking.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.List;
+
+/**
+ * Publishes hit, miss and eviction counts and the size of each cache under Micrometer's usual
+ * cache meter names (cache.gets, cache.evictions, cache.size), tagged with the cache name.
+ */
+public class BoundedTtlCacheMetrics implements MeterBinder {
+
+    private final List<BoundedTtlCache<?, ?>> caches;
+
+    public BoundedTtlCacheMetrics(List<BoundedTtlCache<?, ?>> caches) {
+        this.caches = caches;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (BoundedTtlCache<?, ?> cache : caches) {
+            FunctionCounter.builder("cache.gets", cache, BoundedTtlCache::getHits)
+                    .tags("cache", cache.getName(), "result", "hit")
+                    .description("Cache lookups that found a live entry")
+                    .register(registry);
+            FunctionCounter.builder("cache.gets", cache, BoundedTtlCache::getMisses)
+                    .tags("cache", cache.getName(), "result", "miss")
+                    .description("Cache lookups that found nothing or an expired entry")
+                    .register(registry);
+            FunctionCounter.builder("cache.evictions", cache, BoundedTtlCache::getEvictions)
+                    .tags("cache", cache.getName())
+                    .description("Entries dropped for size or expiry")
+                    .register(registry);
+            Gauge.builder("cache.size", cache, BoundedTtlCache::size)
+                    .tags("cache", cache.getName())
+                    .description("Entries currently held")
+                    .register(registry);
+        }
+    }
+}
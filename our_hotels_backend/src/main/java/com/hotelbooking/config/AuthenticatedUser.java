@@ -0,0 +1,28 @@
+package com.hotelbooking.config;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Principal placed in the SecurityContext by JwtAuthenticationFilter.
+ * Carries the user id so controllers and services do not have to look the user up again.
+ */
+public record AuthenticatedUser(Long userId, String email, String role) {
+
+    public List<GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role));
+    }
+
+    public static Optional<AuthenticatedUser> current() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof AuthenticatedUser user) {
+            return Optional.of(user);
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,127 @@
+package com.hotelbooking.config;
+
+import com.hotelbooking.dto.HotelDTO;
+import com.hotelbooking.dto.RoomDTO;
+import com.hotelbooking.entity.User;
+import com.hotelbooking.repository.UserRepository;
+import com.hotelbooking.service.HotelService;
+import com.hotelbooking.service.RoomService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Fills the in-memory database of the "embedded" profile with hotels, rooms and accounts.
+ *
+ * Runs before ApplicationReadyEvent, so the search indexes and caches warm up from seeded data.
+ * Accounts are loadtest-admin@ourhotels.test and loadtest-user-N@ourhotels.test (N from 1),
+ * all with the password from embedded.seed.password.
+ */
+@Component
+@Profile("embedded")
+public class EmbeddedDataSeeder implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmbeddedDataSeeder.class);
+
+    public static final String ADMIN_EMAIL = "loadtest-admin@ourhotels.test";
+    public static final String USER_EMAIL_FORMAT = "loadtest-user-%d@ourhotels.test";
+
+    // City, latitude, longitude
+    private static final Object[][] CITIES = {
+            {"Goa", 15.50, 73.83}, {"Mumbai", 19.07, 72.87}, {"Delhi", 28.61, 77.21},
+            {"Bengaluru", 12.97, 77.59}, {"Jaipur", 26.91, 75.79}, {"Chennai", 13.08, 80.27},
+            {"Kolkata", 22.57, 88.36}, {"Hyderabad", 17.38, 78.48}
+    };
+    private static final String[] ROOM_TYPES = {"single", "double", "suite"};
+    private static final String[] NAMES = {"Grand", "Residency", "Palace", "Inn", "Retreat", "Suites", "Plaza"};
+
+    @Autowired
+    private HotelService hotelService;
+
+    @Autowired
+    private RoomService roomService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Value("${embedded.seed.hotels:200}")
+    private int hotels;
+
+    @Value("${embedded.seed.rooms-per-hotel:10}")
+    private int roomsPerHotel;
+
+    @Value("${embedded.seed.users:50}")
+    private int users;
+
+    @Value("${embedded.seed.password:loadtest}")
+    private String password;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (userRepository.findByEmail(ADMIN_EMAIL).isPresent()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        // Fixed seed: every run of a load test sees the same catalogue
+        Random random = new Random(1805);
+
+        for (int h = 0; h < hotels; h++) {
+            Object[] city = CITIES[h % CITIES.length];
+            HotelDTO hotel = new HotelDTO();
+            hotel.setName(city[0] + " " + NAMES[random.nextInt(NAMES.length)] + " " + (h + 1));
+            hotel.setLocation((String) city[0]);
+            hotel.setDescription("Seeded hotel " + (h + 1) + " in " + city[0] + " for load testing.");
+            hotel.setRating(3.0 + random.nextInt(5) * 0.5);
+            hotel.setPrice(60.0 + random.nextInt(240));
+            hotel.setRoomType(ROOM_TYPES[random.nextInt(ROOM_TYPES.length)]);
+            hotel.setLatitude((Double) city[1] + (random.nextDouble() - 0.5) * 0.2);
+            hotel.setLongitude((Double) city[2] + (random.nextDouble() - 0.5) * 0.2);
+            hotel.setHotelImages(List.of("https://picsum.photos/seed/hotel" + (h + 1) + "/640/400"));
+            Long hotelId = hotelService.add(hotel).getHotelId();
+
+            for (int r = 0; r < roomsPerHotel; r++) {
+                RoomDTO room = new RoomDTO();
+                room.setHotelId(hotelId);
+                room.setRoomType(ROOM_TYPES[r % ROOM_TYPES.length]);
+                room.setPricePerNight(hotel.getPrice() * (1 + r % ROOM_TYPES.length * 0.5));
+                room.setAmenities("WiFi,AC");
+                room.setAvailabilityStatus(true);
+                roomService.add(room);
+            }
+        }
+
+        // BCrypt is deliberately slow; one hash serves every seeded account
+        String hash = passwordEncoder.encode(password);
+        List<User> accounts = new ArrayList<>(users + 1);
+        accounts.add(account("Load Test Admin", ADMIN_EMAIL, hash, "ADMIN"));
+        for (int u = 1; u <= users; u++) {
+            accounts.add(account("Load Test User " + u, String.format(USER_EMAIL_FORMAT, u), hash, "USER"));
+        }
+        userRepository.saveAll(accounts);
+
+        logger.info("Seeded {} hotels, {} rooms and {} accounts in {} ms",
+                hotels, hotels * roomsPerHotel, accounts.size(), System.currentTimeMillis() - start);
+    }
+
+    private static User account(String name, String email, String hash, String role) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        user.setPassword(hash);
+        user.setRole(role);
+        return user;
+    }
+}
@@ -1,13 +1,16 @@
 package com.hotelbooking.config;
 
+import com.hotelbooking.entity.User;
+import com.hotelbooking.service.UserService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -17,12 +20,16 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider jwtTokenProvider;
-    private final UserDetailsService userDetailsService;
+    private final UserService userService;
+
+    // "stateless": trust the signed role/uid claims; "lookup": re-check the user (through the user cache)
+    @Value("${jwt.auth-mode:stateless}")
+    private String authMode;
 
     public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider,
-                                  UserDetailsService userDetailsService) {
+                                  UserService userService) {
         this.jwtTokenProvider = jwtTokenProvider;
-        this.userDetailsService = userDetailsService;
+        this.userService = userService;
     }
 
     @Override
@@ -36,16 +43,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (header != null && header.startsWith("Bearer ")) {
             String token = header.substring(7);
 
-            if (jwtTokenProvider.validateToken(token)) {
-                String email = jwtTokenProvider.getEmailFromToken(token);
+            // One signature verification per request (or none when the token is cached)
+            Claims claims = jwtTokenProvider.parseClaims(token);
 
-                // Only set auth if not already set
-                if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+            // Only set auth if not already set
+            if (claims != null && claims.getSubject() != null
+                    && SecurityContextHolder.getContext().getAuthentication() == null) {
+                AuthenticatedUser principal = resolvePrincipal(claims);
 
+                if (principal != null) {
                     UsernamePasswordAuthenticationToken auth =
                             new UsernamePasswordAuthenticationToken(
-                                    userDetails, null, userDetails.getAuthorities());
+                                    principal, null, principal.getAuthorities());
 
                     SecurityContextHolder.getContext().setAuthentication(auth);
                 }
@@ -54,4 +63,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    private AuthenticatedUser resolvePrincipal(Claims claims) {
+        if ("stateless".equalsIgnoreCase(authMode)) {
+            AuthenticatedUser principal = jwtTokenProvider.toPrincipal(claims);
+            if (principal != null) {
+                return principal;
+            }
+            // Tokens issued before the uid claim existed fall through to a lookup
+        }
+        try {
+            User user = userService.findByEmailCached(claims.getSubject());
+            return new AuthenticatedUser(user.getUserId(), user.getEmail(), user.getRole());
+        } catch (UsernameNotFoundException e) {
+            return null;
+        }
+    }
 }
@@ -1,9 +1,13 @@
 package com.hotelbooking.config;
 
+import com.hotelbooking.cache.BoundedTtlCache;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -22,42 +26,80 @@ public class JwtTokenProvider {
     @Value("${jwt.expiration}")
     private Long expiration;
 
-    private SecretKey getSigningKey() {
+    @Value("${jwt.cache.max-size:10000}")
+    private int cacheMaxSize;
+
+    @Value("${jwt.cache.ttl-ms:300000}")
+    private long cacheTtlMs;
+
+    // Derived once: the key and parser are immutable and thread-safe
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    // Recently verified tokens; an entry never outlives the token's own expiry
+    private BoundedTtlCache<String, Claims> verifiedTokens;
+
+    @PostConstruct
+    void init() {
         // HS512 needs a strong key (>= 64 bytes). Make sure your secret is long enough.
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser().verifyWith(signingKey).build();
+        verifiedTokens = new BoundedTtlCache<>("jwt-claims", cacheMaxSize, cacheTtlMs);
     }
 
-    public String generateToken(String email, String role) {
+    public String generateToken(String email, String role, Long userId) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("role", role);
+        claims.put("uid", userId);
 
         return Jwts.builder()
                 .claims(claims)
                 .subject(email)
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
 
+    /**
+     * Verifies the token once and returns its claims, or null when the token is invalid or expired.
+     * Repeat calls with the same token are answered from the cache without re-verifying.
+     */
+    public Claims parseClaims(String token) {
+        Claims cached = verifiedTokens.get(token);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            Date expiresAt = claims.getExpiration();
+            verifiedTokens.put(token, claims, expiresAt != null ? expiresAt.getTime() : Long.MAX_VALUE);
+            return claims;
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /** Builds the principal straight from the claims; null for tokens issued without a user id. */
+    public AuthenticatedUser toPrincipal(Claims claims) {
+        Long userId = claims.get("uid", Long.class);
+        String role = claims.get("role", String.class);
+        if (userId == null || role == null) {
+            return null;
+        }
+        return new AuthenticatedUser(userId, claims.getSubject(), role);
+    }
+
     public String getEmailFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        return claims.getSubject();
+        Claims claims = parseClaims(token);
+        return claims != null ? claims.getSubject() : null;
     }
 
     public boolean validateToken(String token) {
-        try {
-            Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token);
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
+        return parseClaims(token) != null;
+    }
+
+    public BoundedTtlCache<String, Claims> getVerifiedTokenCache() {
+        return verifiedTokens;
     }
 }
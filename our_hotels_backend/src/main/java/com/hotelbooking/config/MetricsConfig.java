@@ -0,0 +1,30 @@
+package com.hotelbooking.config;
+
+import com.hotelbooking.cache.BoundedTtlCacheMetrics;
+import com.hotelbooking.service.HotelService;
+import com.hotelbooking.service.UserService;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+public class MetricsConfig {
+
+    // Makes @Timed on service methods record timers
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    @Bean
+    public MeterBinder cacheMetrics(HotelService hotelService, UserService userService, JwtTokenProvider jwtTokenProvider) {
+        return new BoundedTtlCacheMetrics(List.of(
+                hotelService.getSearchCache(),
+                userService.getUserCache(),
+                jwtTokenProvider.getVerifiedTokenCache()));
+    }
+}
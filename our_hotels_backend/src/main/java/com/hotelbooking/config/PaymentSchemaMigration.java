@@ -0,0 +1,117 @@
+package com.hotelbooking.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Brings the payments table of databases created before payments were idempotent up to the
+ * one-payment-per-booking rule.
+ *
+ * Client retries used to insert several rows per booking, and ddl-auto=update cannot add the
+ * unique key on booking_id while those exist (it only logs the failure). This keeps one row per
+ * booking (the COMPLETED one, otherwise the latest) and moves the rest to payments_superseded,
+ * then adds the key. Payment rows are never deleted outright: a booking with more than one
+ * COMPLETED row was charged more than once, and the archived row is the record of it, so those
+ * bookings are also logged as errors for someone to refund by hand. It runs while the context starts: after Hibernate's schema update (it depends on the entity
+ * manager factory) and before the server accepts requests. On an up-to-date table it only reads
+ * the index metadata.
+ */
+@Component
+public class PaymentSchemaMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentSchemaMigration.class);
+
+    static final String BOOKING_KEY = "uk_payments_booking";
+    static final String ARCHIVE_TABLE = "payments_superseded";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    // Not used directly: injecting it makes Hibernate's schema update run first
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PostConstruct
+    public void migrate() {
+        int archived = archiveDuplicatePayments();
+        if (archived > 0) {
+            logger.warn("Moved {} duplicate payment rows left by retried submissions to {}", archived, ARCHIVE_TABLE);
+        }
+        if (!hasUniqueBookingKey()) {
+            jdbcTemplate.execute("ALTER TABLE payments ADD CONSTRAINT " + BOOKING_KEY + " UNIQUE (booking_id)");
+            logger.info("Added unique key {} on payments.booking_id", BOOKING_KEY);
+        }
+    }
+
+    private int archiveDuplicatePayments() {
+        List<Long> bookingIds = jdbcTemplate.queryForList(
+                "SELECT booking_id FROM payments WHERE booking_id IS NOT NULL GROUP BY booking_id HAVING COUNT(*) > 1",
+                Long.class);
+        if (bookingIds.isEmpty()) {
+            return 0;
+        }
+        // Same columns, no keys: it has to hold several rows per booking
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + ARCHIVE_TABLE + " AS SELECT * FROM payments WHERE 1 = 0");
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int archived = 0;
+        for (Long bookingId : bookingIds) {
+            List<Map<String, Object>> payments = jdbcTemplate.queryForList(
+                    "SELECT payment_id, status FROM payments WHERE booking_id = ? " +
+                    "ORDER BY CASE WHEN status = 'COMPLETED' THEN 0 ELSE 1 END, payment_id DESC",
+                    bookingId);
+            List<Object> extra = payments.subList(1, payments.size()).stream().map(p -> p.get("payment_id")).toList();
+            long completed = payments.stream().filter(p -> "COMPLETED".equals(p.get("status"))).count();
+            if (completed > 1) {
+                logger.error("Booking {} has {} COMPLETED payments and was charged more than once; kept payment {}, " +
+                        "the others are in {} and need a refund", bookingId, completed, payments.get(0).get("payment_id"), ARCHIVE_TABLE);
+            }
+            // Copy and delete together so a row is never in neither table
+            archived += transaction.execute(status -> {
+                int moved = 0;
+                for (Object paymentId : extra) {
+                    jdbcTemplate.update("INSERT INTO " + ARCHIVE_TABLE + " SELECT * FROM payments WHERE payment_id = ?", paymentId);
+                    moved += jdbcTemplate.update("DELETE FROM payments WHERE payment_id = ?", paymentId);
+                }
+                return moved;
+            });
+        }
+        return archived;
+    }
+
+    // Any unique index on exactly booking_id counts, whatever Hibernate or this class named it
+    private boolean hasUniqueBookingKey() {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            String table = metaData.storesUpperCaseIdentifiers() ? "PAYMENTS" : "payments";
+            Map<String, Integer> columns = new HashMap<>();
+            Map<String, Boolean> onBooking = new HashMap<>();
+            try (ResultSet index = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(), table, true, false)) {
+                while (index.next()) {
+                    String name = index.getString("INDEX_NAME");
+                    if (name == null) {
+                        continue;
+                    }
+                    columns.merge(name, 1, Integer::sum);
+                    onBooking.merge(name, "booking_id".equalsIgnoreCase(index.getString("COLUMN_NAME")), Boolean::logicalOr);
+                }
+            }
+            return columns.entrySet().stream().anyMatch(e -> e.getValue() == 1 && onBooking.get(e.getKey()));
+        }));
+    }
+}
@@ -0,0 +1,54 @@
+package com.hotelbooking.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records how many SQL statements each request issued, as a histogram per method and URI template
+ * (http.server.requests.queries), so an endpoint that starts issuing N+1 queries shows up in metrics.
+ * The count comes from SqlTracer, so it covers Hibernate and JdbcTemplate statements alike and
+ * needs sql.trace.enabled (otherwise every request records 0).
+ */
+// Ahead of Spring Security, so user lookups during authentication are counted too
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class QueryMetricsFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private SqlTracer sqlTracer;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        sqlTracer.startCounting();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            int statements = sqlTracer.stopCounting();
+            // URI template, not the raw path, keeps the number of series bounded
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder("http.server.requests.queries")
+                    .description("SQL statements issued per HTTP request")
+                    .baseUnit("statements")
+                    .tags("method", request.getMethod(), "uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(statements);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.hotelbooking.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the single auto-configured pool with a primary and one pool per replica URL when
+ * datasource.replicas.enabled=true. Every pool takes the spring.datasource.hikari settings and the
+ * primary's credentials. The pools are not beans of their own: the application, the SQL tracer
+ * and the health endpoint all see one DataSource.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.replicas.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    public ReadReplicas readReplicas(DataSourceProperties properties, Environment environment,
+                                     ObjectProvider<MeterRegistry> meterRegistry,
+                                     @Value("${datasource.replicas.urls}") List<String> urls,
+                                     @Value("${datasource.replicas.connection-timeout-ms:1000}") long replicaTimeoutMs,
+                                     @Value("${datasource.replicas.health-check-ms:5000}") long healthCheckMs,
+                                     @Value("${datasource.replicas.pin-ms:5000}") long pinMs) {
+        Binder binder = Binder.get(environment);
+        HikariDataSource primary = pool(properties, binder, meterRegistry, null, "primary");
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : urls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariDataSource replica = pool(properties, binder, meterRegistry, url.trim(), "replica-" + replicas.size());
+            // Fail over to the primary quickly instead of queueing reads behind a dead replica
+            replica.setConnectionTimeout(replicaTimeoutMs);
+            replicas.add(replica);
+        }
+        return new ReadReplicas(primary, replicas, healthCheckMs, pinMs);
+    }
+
+    // Lazy: the routing decision needs the transaction's read-only flag, which is set after begin
+    @Bean
+    public DataSource dataSource(ReadReplicas readReplicas) {
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(readReplicas));
+    }
+
+    // Informational: a replica being down never takes the instance out of rotation
+    @Bean
+    public HealthIndicator replicasHealthIndicator(ReadReplicas readReplicas) {
+        return () -> Health.up().withDetails(readReplicas.status()).build();
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, Binder binder,
+                                         ObjectProvider<MeterRegistry> meterRegistry, String url, String name) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        if (url != null) {
+            pool.setJdbcUrl(url);
+        }
+        pool.setPoolName(name);
+        meterRegistry.ifAvailable(registry -> pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+        return pool;
+    }
+}
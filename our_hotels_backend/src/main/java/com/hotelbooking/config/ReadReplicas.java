@@ -0,0 +1,165 @@
+package com.hotelbooking.config;
+
+import com.hotelbooking.cache.BoundedTtlCache;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.sql.Connection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The primary and replica pools behind ReplicaRoutingDataSource, the replicas' health and the
+ * read-your-writes pins.
+ *
+ * A background check validates one connection per replica every health-check interval; a
+ * replica that fails it, or fails to hand out a connection, gets no reads until a check passes
+ * again. After a read-write transaction commits, reads of the same user (or, for anonymous
+ * requests, the same client address) stay on the primary for the pin window, and so do the
+ * remaining reads of the request that wrote.
+ */
+public class ReadReplicas implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadReplicas.class);
+
+    private static final String PINNED_ATTRIBUTE = ReadReplicas.class.getName() + ".pinned";
+
+    private final HikariDataSource primary;
+    private final List<HikariDataSource> replicas;
+    private final List<AtomicBoolean> healthy;
+    private final AtomicInteger next = new AtomicInteger();
+    private final BoundedTtlCache<String, Boolean> pins;
+    private final ScheduledExecutorService healthChecks;
+
+    public ReadReplicas(HikariDataSource primary, List<HikariDataSource> replicas, long healthCheckMs, long pinMs) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.healthy = replicas.stream().map(r -> new AtomicBoolean(true)).toList();
+        this.pins = new BoundedTtlCache<>("replica-pins", 100_000, pinMs);
+        this.healthChecks = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "replica-health");
+            thread.setDaemon(true);
+            return thread;
+        });
+        healthChecks.scheduleWithFixedDelay(this::checkHealth, 0, healthCheckMs, TimeUnit.MILLISECONDS);
+    }
+
+    public HikariDataSource getPrimary() {
+        return primary;
+    }
+
+    public List<HikariDataSource> getReplicas() {
+        return replicas;
+    }
+
+    /** Index of the next healthy replica in round-robin order, or -1 when none is. */
+    int pickHealthy() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(1, size));
+        for (int i = 0; i < size; i++) {
+            int candidate = (start + i) % size;
+            if (healthy.get(candidate).get()) {
+                return candidate;
+            }
+        }
+        return -1;
+    }
+
+    void markDown(int replica, Exception cause) {
+        if (healthy.get(replica).getAndSet(false)) {
+            logger.warn("Replica {} is unavailable, reading from the primary: {}", replicas.get(replica).getPoolName(), cause.toString());
+        }
+    }
+
+    public void checkHealth() {
+        for (int i = 0; i < replicas.size(); i++) {
+            HikariDataSource replica = replicas.get(i);
+            boolean up;
+            try (Connection connection = replica.getConnection()) {
+                up = connection.isValid(1);
+            } catch (Exception e) {
+                up = false;
+            }
+            if (!up) {
+                markDown(i, new IllegalStateException("health check failed"));
+            } else if (!healthy.get(i).getAndSet(true)) {
+                logger.info("Replica {} is healthy again", replica.getPoolName());
+            }
+        }
+    }
+
+    /** Pool name -> UP/DOWN, for the health endpoint. */
+    public Map<String, String> status() {
+        Map<String, String> status = new LinkedHashMap<>();
+        for (int i = 0; i < replicas.size(); i++) {
+            status.put(replicas.get(i).getPoolName(), healthy.get(i).get() ? "UP" : "DOWN");
+        }
+        return status;
+    }
+
+    boolean isPinned() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null && request.getAttribute(PINNED_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null) {
+            return true;
+        }
+        String client = currentClient();
+        return client != null && pins.get(client) != null;
+    }
+
+    // The write is only on the primary once it commits; the window starts from there
+    void pinAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        String client = currentClient();
+        if (request == null && client == null) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                if (request != null) {
+                    request.setAttribute(PINNED_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+                }
+                if (client != null) {
+                    pins.put(client, Boolean.TRUE);
+                }
+            }
+        });
+    }
+
+    // "user:42" when signed in, "ip:10.0.0.7" for anonymous requests, null for background work
+    private static String currentClient() {
+        Long userId = AuthenticatedUser.current().map(AuthenticatedUser::userId).orElse(null);
+        if (userId != null) {
+            return "user:" + userId;
+        }
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes servlet) {
+            HttpServletRequest request = servlet.getRequest();
+            return "ip:" + request.getRemoteAddr();
+        }
+        return null;
+    }
+
+    @Override
+    public void destroy() {
+        healthChecks.shutdownNow();
+        replicas.forEach(HikariDataSource::close);
+        primary.close();
+    }
+}
@@ -0,0 +1,68 @@
+package com.hotelbooking.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to a healthy replica and everything else (read-write
+ * transactions, work outside a transaction, pinned reads) to the primary.
+ *
+ * The read-only flag is only known once the transaction has started, so this must sit behind a
+ * LazyConnectionDataSourceProxy that defers fetching the connection to the first statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String PRIMARY = "primary";
+
+    private final ReadReplicas replicas;
+
+    public ReplicaRoutingDataSource(ReadReplicas replicas) {
+        this.replicas = replicas;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, replicas.getPrimary());
+        for (int i = 0; i < replicas.getReplicas().size(); i++) {
+            targets.put(i, replicas.getReplicas().get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(replicas.getPrimary());
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                replicas.pinAfterCommit();
+            }
+            return PRIMARY;
+        }
+        if (replicas.isPinned()) {
+            return PRIMARY;
+        }
+        int replica = replicas.pickHealthy();
+        return replica < 0 ? PRIMARY : replica;
+    }
+
+    // A replica that cannot hand out a connection is taken out of rotation and the read goes to the primary
+    @Override
+    public Connection getConnection() throws SQLException {
+        Object key = determineCurrentLookupKey();
+        DataSource target = getResolvedDataSources().get(key);
+        if (PRIMARY.equals(key)) {
+            return target.getConnection();
+        }
+        try {
+            return target.getConnection();
+        } catch (SQLException e) {
+            replicas.markDown((Integer) key, e);
+            return replicas.getPrimary().getConnection();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.hotelbooking.config;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -41,13 +42,22 @@ public class SecurityConfig {
             .cors(cors -> cors.configurationSource(corsConfigurationSource)) // use explicit configuration source
             .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                // Streaming responses finish on an async dispatch; the original request was already authorized
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                 // Public endpoints
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/api/hotels/search/**").permitAll()
                 .requestMatchers("/api/hotels/**").permitAll()
+                .requestMatchers("/api/rooms/*/availability").permitAll()
                 .requestMatchers("/api/contact/**").permitAll()
                 .requestMatchers("/api/payments/**").permitAll()
 
+                // Probes and the Prometheus scrape, served only on the unpublished management port;
+                // other actuator endpoints are admin-only
+                .requestMatchers("/actuator/health/**", "/actuator/prometheus").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
+
                 // Admin-only endpoints
                 .requestMatchers("/api/admin/**").hasRole("ADMIN")
 
@@ -85,11 +95,15 @@ public class SecurityConfig {
                 "Origin",
                 "X-Requested-With",
                 "Access-Control-Request-Method",
-                "Access-Control-Request-Headers"
+                "Access-Control-Request-Headers",
+                "If-None-Match",
+                "If-Modified-Since",
+                "Cache-Control",
+                "Idempotency-Key"
         ));
 
         // Expose Authorization header to front-end if you return it
-        config.setExposedHeaders(Arrays.asList("Authorization", "Content-Disposition"));
+        config.setExposedHeaders(Arrays.asList("Authorization", "Content-Disposition", "ETag", "Last-Modified", "Location"));
 
         // Optional: set how long the preflight response can be cached (in seconds)
         config.setMaxAge(3600L);
@@ -0,0 +1,29 @@
+package com.hotelbooking.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class SqlTraceConfig {
+
+    // Static: post-processors are created before ordinary beans. The tracer is looked up lazily
+    // so it does not have to exist when the post-processor does.
+    @Bean
+    @ConditionalOnProperty(name = "sql.trace.enabled", havingValue = "true", matchIfMissing = true)
+    public static BeanPostProcessor tracingDataSourcePostProcessor(ObjectProvider<SqlTracer> tracer) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof TracingDataSource)) {
+                    return new TracingDataSource(dataSource, tracer.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,211 @@
+package com.hotelbooking.config;
+
+import com.hotelbooking.cache.BoundedTtlCache;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Aggregates JDBC statement timings by query shape (the SQL with literals and IN-lists folded)
+ * and by the endpoint that issued them. TracingDataSource reports every execution here.
+ *
+ * Statements slower than sql.trace.slow-threshold-ms are always logged at WARN; a random
+ * sql.trace.sample-rate fraction of the rest is logged at INFO. Bind values are never logged.
+ * Timings cover execute* calls only, not reading the rows of a result set.
+ *
+ * It is also the one statement counter: between startCounting() and stopCounting() every
+ * statement the thread executes, Hibernate or plain JDBC, is counted (QueryMetricsFilter uses
+ * this per request). Shapes are memoized per SQL string, since the same few hundred strings
+ * repeat and folding them costs four regex passes.
+ */
+@Component
+public class SqlTracer {
+
+    private static final Logger logger = LoggerFactory.getLogger("com.hotelbooking.sql");
+
+    static final String OTHER_SHAPE = "<other shapes>";
+    private static final String BACKGROUND = "background";
+    private static final int MAX_ENDPOINTS_PER_SHAPE = 10;
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    @Value("${sql.trace.sample-rate:0.001}")
+    private double sampleRate;
+
+    @Value("${sql.trace.slow-threshold-ms:250}")
+    private long slowThresholdMs;
+
+    @Value("${sql.trace.max-shapes:2000}")
+    private int maxShapes;
+
+    @Value("${sql.trace.shape-cache-size:5000}")
+    private int shapeCacheSize;
+
+    private static final ThreadLocal<int[]> STATEMENTS = new ThreadLocal<>();
+
+    private final Map<String, ShapeStats> shapes = new ConcurrentHashMap<>();
+
+    // SQL string -> shape; LRU-bounded so ad-hoc SQL with inlined literals cannot grow it
+    private BoundedTtlCache<String, String> shapeCache;
+
+    @PostConstruct
+    void init() {
+        // A shape never goes stale: size is the only bound
+        shapeCache = new BoundedTtlCache<>("sql-shapes", shapeCacheSize, Long.MAX_VALUE / 2);
+    }
+
+    public void record(String sql, long elapsedNanos, boolean failed) {
+        int[] statements = STATEMENTS.get();
+        if (statements != null) {
+            statements[0]++;
+        }
+        String endpoint = currentEndpoint();
+        String shape = sql == null ? shapeOf(null) : shapeCache.computeIfAbsent(sql, SqlTracer::shapeOf);
+        ShapeStats stats = shapes.get(shape);
+        if (stats == null) {
+            // Past the cap, new shapes share one bucket so ad-hoc SQL cannot grow the map without bound
+            stats = shapes.size() < maxShapes
+                    ? shapes.computeIfAbsent(shape, ShapeStats::new)
+                    : shapes.computeIfAbsent(OTHER_SHAPE, ShapeStats::new);
+        }
+        stats.add(endpoint, elapsedNanos, failed);
+
+        long elapsedMs = elapsedNanos / 1_000_000;
+        if (elapsedMs >= slowThresholdMs) {
+            stats.slow.increment();
+            logger.warn("Slow SQL {} ms [{}]{}: {}", elapsedMs, endpoint, failed ? " (failed)" : "", shape);
+        } else if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            logger.info("SQL {} ms [{}]{}: {}", elapsedMs, endpoint, failed ? " (failed)" : "", shape);
+        }
+    }
+
+    /**
+     * The {@code limit} shapes with the highest {@code by}: "total" time (default), "max" time,
+     * "avg" time or execution "count".
+     */
+    public List<Map<String, Object>> top(String by, int limit) {
+        Comparator<ShapeStats> order = switch (by == null ? "total" : by) {
+            case "total" -> Comparator.comparingLong(ShapeStats::totalNanos);
+            case "max" -> Comparator.comparingLong(s -> s.maxNanos.get());
+            case "avg" -> Comparator.comparingDouble(ShapeStats::avgNanos);
+            case "count" -> Comparator.comparingLong(ShapeStats::count);
+            default -> throw new IllegalArgumentException("Unknown order '" + by + "'; use total, max, avg or count");
+        };
+        return shapes.values().stream()
+                .sorted(order.reversed())
+                .limit(Math.max(1, limit))
+                .map(ShapeStats::toMap)
+                .toList();
+    }
+
+    public void reset() {
+        shapes.clear();
+    }
+
+    public void startCounting() {
+        STATEMENTS.set(new int[1]);
+    }
+
+    /** Statements executed on this thread since startCounting(); the thread stops counting. */
+    public int stopCounting() {
+        int[] count = STATEMENTS.get();
+        STATEMENTS.remove();
+        return count == null ? 0 : count[0];
+    }
+
+    BoundedTtlCache<String, String> getShapeCache() {
+        return shapeCache;
+    }
+
+    // "GET /api/hotels/{id}" while serving a request, "background" for startup and scheduled work
+    private static String currentEndpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servlet)) {
+            return BACKGROUND;
+        }
+        HttpServletRequest request = servlet.getRequest();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : "UNKNOWN");
+    }
+
+    static String shapeOf(String sql) {
+        if (sql == null) {
+            return "<batch>";
+        }
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("(?...)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+
+    private static final class ShapeStats {
+        private final String shape;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder total = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final LongAdder slow = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final Map<String, LongAdder> endpoints = new ConcurrentHashMap<>();
+
+        ShapeStats(String shape) {
+            this.shape = shape;
+        }
+
+        void add(String endpoint, long nanos, boolean failed) {
+            count.increment();
+            total.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+            if (failed) {
+                failures.increment();
+            }
+            LongAdder perEndpoint = endpoints.get(endpoint);
+            if (perEndpoint == null && endpoints.size() < MAX_ENDPOINTS_PER_SHAPE) {
+                perEndpoint = endpoints.computeIfAbsent(endpoint, e -> new LongAdder());
+            }
+            if (perEndpoint != null) {
+                perEndpoint.increment();
+            }
+        }
+
+        long count() { return count.sum(); }
+        long totalNanos() { return total.sum(); }
+        double avgNanos() { return count() == 0 ? 0 : (double) totalNanos() / count(); }
+
+        Map<String, Object> toMap() {
+            Map<String, Long> byEndpoint = new LinkedHashMap<>();
+            endpoints.entrySet().stream()
+                    .sorted(Map.Entry.<String, LongAdder>comparingByValue(Comparator.comparingLong(LongAdder::sum)).reversed())
+                    .forEach(e -> byEndpoint.put(e.getKey(), e.getValue().sum()));
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("sql", shape);
+            map.put("count", count());
+            map.put("totalMs", totalNanos() / 1e6);
+            map.put("avgMs", avgNanos() / 1e6);
+            map.put("maxMs", maxNanos.get() / 1e6);
+            map.put("slow", slow.sum());
+            map.put("failures", failures.sum());
+            map.put("endpoints", byEndpoint);
+            return map;
+        }
+    }
+}
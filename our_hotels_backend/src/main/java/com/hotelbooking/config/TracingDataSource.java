@@ -0,0 +1,98 @@
+package com.hotelbooking.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Times every statement executed through the wrapped pool and reports it to SqlTracer.
+ *
+ * Connections and statements are JDK proxies, so this works for Hibernate, JdbcTemplate and
+ * plain JDBC alike. unwrap() still reaches the pool and driver objects underneath.
+ */
+public class TracingDataSource extends DelegatingDataSource {
+
+    private final SqlTracer tracer;
+
+    public TracingDataSource(DataSource target, SqlTracer tracer) {
+        super(target);
+        this.tracer = tracer;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return trace(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return trace(super.getConnection(username, password));
+    }
+
+    private Connection trace(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    if (isIdentityMethod(method)) {
+                        return identity(proxy, method, args);
+                    }
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof Statement statement) {
+                        // prepareStatement/prepareCall carry their SQL; plain statements get it on execute
+                        String sql = method.getName().startsWith("prepare") ? (String) args[0] : null;
+                        return trace(statement, sql);
+                    }
+                    return result;
+                });
+    }
+
+    private Statement trace(Statement statement, String preparedSql) {
+        Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+                : statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+        return (Statement) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+                (proxy, method, args) -> {
+                    if (isIdentityMethod(method)) {
+                        return identity(proxy, method, args);
+                    }
+                    if (!method.getName().startsWith("execute")) {
+                        return invoke(statement, method, args);
+                    }
+                    String sql = preparedSql != null ? preparedSql
+                            : args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                    long start = System.nanoTime();
+                    boolean failed = true;
+                    try {
+                        Object result = invoke(statement, method, args);
+                        failed = false;
+                        return result;
+                    } finally {
+                        tracer.record(sql, System.nanoTime() - start, failed);
+                    }
+                });
+    }
+
+    // Hibernate keys open statements by identity; a proxy must equal itself, not its target
+    private static boolean isIdentityMethod(Method method) {
+        return method.getName().equals("equals") && method.getParameterCount() == 1
+                || method.getName().equals("hashCode") && method.getParameterCount() == 0;
+    }
+
+    private static Object identity(Object proxy, Method method, Object[] args) {
+        return method.getName().equals("equals") ? proxy == args[0] : System.identityHashCode(proxy);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -1,12 +1,21 @@
 package com.hotelbooking.controller;
 
+import com.hotelbooking.config.AuthenticatedUser;
 import com.hotelbooking.dto.BookingDTO;
+import com.hotelbooking.dto.GroupBookingDTO;
+import com.hotelbooking.service.BookingExportService;
 import com.hotelbooking.service.BookingService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -15,12 +24,30 @@ public class BookingController {
     @Autowired
     private BookingService bookingService;
 
+    @Autowired
+    private BookingExportService exportService;
+
     @PostMapping
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<BookingDTO> book(@RequestBody BookingDTO bookingDTO) {
+    public ResponseEntity<BookingDTO> book(@RequestBody BookingDTO bookingDTO,
+                                           @AuthenticationPrincipal AuthenticatedUser principal) {
+        // Book for the caller named in the token; the body's userId is only a fallback
+        if (principal != null) {
+            bookingDTO.setUserId(principal.userId());
+        }
         return ResponseEntity.ok(bookingService.book(bookingDTO));
     }
 
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<List<BookingDTO>> bookGroup(@RequestBody GroupBookingDTO request,
+                                                      @AuthenticationPrincipal AuthenticatedUser principal) {
+        if (principal != null) {
+            request.setUserId(principal.userId());
+        }
+        return ResponseEntity.ok(bookingService.bookGroup(request));
+    }
+
     @GetMapping("/user/{userId}")
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<List<BookingDTO>> getByUser(@PathVariable Long userId) {
@@ -34,6 +61,29 @@ public class BookingController {
         return ResponseEntity.ok().build();
     }
 
+    /**
+     * Streams bookings as NDJSON (default) or CSV without materializing them. The optional
+     * from/to range matches stays that overlap it; status filters e.g. CONFIRMED.
+     */
+    @GetMapping("/admin/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) LocalDate from,
+            @RequestParam(required = false) LocalDate to,
+            @RequestParam(required = false) String status) {
+        BookingExportService.Format exportFormat = BookingExportService.Format.fromParam(format);
+        BookingExportService.validateRange(from, to);
+        boolean csv = exportFormat == BookingExportService.Format.CSV;
+        StreamingResponseBody body = out -> exportService.export(out, exportFormat, from, to, status);
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                                 : new MediaType("application", "x-ndjson", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"bookings." + (csv ? "csv" : "ndjson") + "\"")
+                .body(body);
+    }
+
     @GetMapping("/admin/all")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<List<BookingDTO>> getAllBookings() {
@@ -0,0 +1,38 @@
+package com.hotelbooking.controller;
+
+import com.hotelbooking.config.JwtTokenProvider;
+import com.hotelbooking.service.HotelService;
+import com.hotelbooking.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/cache")
+@PreAuthorize("hasRole('ADMIN')")
+public class CacheController {
+
+    @Autowired
+    private HotelService hotelService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @GetMapping("/stats")
+    public ResponseEntity<List<Map<String, Object>>> getStats() {
+        return ResponseEntity.ok(List.of(
+                hotelService.getSearchCache().stats(),
+                userService.getUserCache().stats(),
+                jwtTokenProvider.getVerifiedTokenCache().stats()
+        ));
+    }
+}
@@ -1,15 +1,24 @@
 package com.hotelbooking.controller;
 
 import com.hotelbooking.dto.HotelDTO;
+import com.hotelbooking.dto.HotelPage;
+import com.hotelbooking.dto.HotelSummaryDTO;
+import com.hotelbooking.dto.NearbyHotel;
 import com.hotelbooking.entity.Hotel;
+import com.hotelbooking.service.CatalogVersions;
 import com.hotelbooking.service.HotelService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/hotels")
@@ -18,21 +27,78 @@ public class HotelController {
     @Autowired
     private HotelService hotelService;
 
+    @Autowired
+    private CatalogVersions catalogVersions;
+
+    @Value("${hotel.http-cache.max-age-seconds:60}")
+    private long maxAgeSeconds;
+
     @GetMapping("/search")
-    public ResponseEntity<List<Hotel>> search(
+    public ResponseEntity<HotelPage> search(
             @RequestParam(required = false) String location,
             @RequestParam(required = false) Double priceMin,
             @RequestParam(required = false) Double priceMax,
-            @RequestParam(required = false) String roomType
+            @RequestParam(required = false) String roomType,
+            @RequestParam(required = false) LocalDate checkIn,
+            @RequestParam(required = false) LocalDate checkOut,
+            @RequestParam(required = false) String sort,     // price, price_desc, rating, name
+            @RequestParam(required = false) String cursor,   // nextCursor from the previous page
+            @RequestParam(required = false) Integer size
     ) {
         return ResponseEntity.ok(
-            hotelService.searchHotels(location, priceMin, priceMax, roomType)
+            hotelService.searchHotels(location, priceMin, priceMax, roomType, checkIn, checkOut, sort, cursor, size)
         );
     }
 
+    @GetMapping("/search/text")
+    public ResponseEntity<List<HotelSummaryDTO>> searchText(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return ResponseEntity.ok(hotelService.searchText(q, limit));
+    }
+
+    @GetMapping("/search/suggest")
+    public ResponseEntity<List<String>> suggest(
+            @RequestParam String prefix,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return ResponseEntity.ok(hotelService.suggest(prefix, limit));
+    }
+
+    // Map viewport; minLng > maxLng when the box crosses the antimeridian
+    @GetMapping("/search/within")
+    public ResponseEntity<List<HotelSummaryDTO>> searchWithin(
+            @RequestParam double minLat,
+            @RequestParam double minLng,
+            @RequestParam double maxLat,
+            @RequestParam double maxLng,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return ResponseEntity.ok(hotelService.searchWithin(minLat, minLng, maxLat, maxLng, limit));
+    }
+
+    @GetMapping("/search/nearby")
+    public ResponseEntity<List<NearbyHotel>> searchNearby(
+            @RequestParam double lat,
+            @RequestParam double lng,
+            @RequestParam(defaultValue = "10") double radiusKm,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return ResponseEntity.ok(hotelService.searchNearby(lat, lng, radiusKm, limit));
+    }
+
+    // Revalidated by version: a matching If-None-Match/If-Modified-Since gets 304 without a query.
+    // The version is read before loading, so a concurrent edit can only make the tag older, not the body.
     @GetMapping("/{id}")
-    public ResponseEntity<Hotel> getById(@PathVariable Long id) {
-        return ResponseEntity.ok(hotelService.getById(id));
+    public ResponseEntity<Hotel> getById(@PathVariable Long id, WebRequest request) {
+        CatalogVersions.Version version = catalogVersions.hotel(id);
+        if (request.checkNotModified(version.etag(), version.lastModified())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS).cachePublic())
+                .body(hotelService.getById(id));
     }
 
     @PostMapping
@@ -0,0 +1,39 @@
+package com.hotelbooking.controller;
+
+import com.hotelbooking.dto.ImportResult;
+import com.hotelbooking.service.BulkImportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.InputStream;
+
+/**
+ * Bulk onboarding. The request body is the raw file (CSV with a header row, or NDJSON)
+ * and is read as a stream, e.g.
+ * {@code curl -H 'Content-Type: text/csv' --data-binary @rooms.csv '.../api/admin/import/rooms?format=csv'}.
+ */
+@RestController
+@RequestMapping("/api/admin/import")
+@PreAuthorize("hasRole('ADMIN')")
+public class ImportController {
+
+    @Autowired
+    private BulkImportService importService;
+
+    @PostMapping("/hotels")
+    public ResponseEntity<ImportResult> importHotels(InputStream body,
+                                                     @RequestParam(defaultValue = "csv") String format) {
+        return ResponseEntity.ok(importService.importHotels(body, format));
+    }
+
+    @PostMapping("/rooms")
+    public ResponseEntity<ImportResult> importRooms(InputStream body,
+                                                    @RequestParam(defaultValue = "csv") String format) {
+        return ResponseEntity.ok(importService.importRooms(body, format));
+    }
+}
@@ -1,28 +1,43 @@
 package com.hotelbooking.controller;
 
 import com.hotelbooking.dto.PaymentDTO;
-import com.hotelbooking.entity.Payment;
 import com.hotelbooking.service.PaymentService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
+
 @RestController
 @RequestMapping("/api/payments")
 public class PaymentController {
     @Autowired
     private PaymentService paymentService;
 
+    // 202 with a Location to poll while the gateway has not answered; 200 once the payment is final
     @PostMapping
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<Payment> process(@RequestBody PaymentDTO paymentDTO) {
-        return ResponseEntity.ok(paymentService.process(paymentDTO));
+    public ResponseEntity<PaymentDTO> process(@RequestBody PaymentDTO paymentDTO,
+                                              @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        PaymentDTO payment = paymentService.toDTO(paymentService.process(paymentDTO, idempotencyKey));
+        if (PaymentService.inFlight(payment.getStatus())) {
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/payments/" + payment.getPaymentId() + "/status"))
+                    .body(payment);
+        }
+        return ResponseEntity.ok(payment);
+    }
+
+    @GetMapping("/{paymentId}/status")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<PaymentDTO> getStatus(@PathVariable Long paymentId) {
+        return ResponseEntity.ok(paymentService.toDTO(paymentService.getOwnedById(paymentId)));
     }
 
     @GetMapping("/{bookingId}")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<Payment> getByBooking(@PathVariable Long bookingId) {
-        return ResponseEntity.ok(paymentService.getByBooking(bookingId));
+    public ResponseEntity<PaymentDTO> getByBooking(@PathVariable Long bookingId) {
+        return ResponseEntity.ok(paymentService.toDTO(paymentService.getOwnedByBooking(bookingId)));
     }
-}
\ No newline at end of file
+}
@@ -1,10 +1,12 @@
 package com.hotelbooking.controller;
 
+import com.hotelbooking.service.BookingRollupService;
 import com.hotelbooking.service.BookingService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -20,6 +22,9 @@ public class ReportController {
     @Autowired
     private BookingService bookingService;
 
+    @Autowired
+    private BookingRollupService rollupService;
+
     @GetMapping("/revenue")
     public ResponseEntity<Map<String, Double>> getRevenueReport(
             @RequestParam LocalDate startDate,
@@ -33,4 +38,9 @@ public class ReportController {
             @RequestParam LocalDate endDate) {
         return ResponseEntity.ok(bookingService.getOccupancyReport(startDate, endDate));
     }
+
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<Map<String, Long>> rebuildRollups() {
+        return ResponseEntity.ok(rollupService.rebuild());
+    }
 }
@@ -1,37 +1,85 @@
 package com.hotelbooking.controller;
 
 import com.hotelbooking.dto.RoomDTO;
-import com.hotelbooking.entity.Room;
+import com.hotelbooking.dto.RoomsByHotelPage;
+import com.hotelbooking.service.BookingService;
+import com.hotelbooking.service.CatalogVersions;
 import com.hotelbooking.service.RoomService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api")
 public class RoomController {
+    private static final Logger logger = LoggerFactory.getLogger(RoomController.class);
+
     @Autowired
     private RoomService roomService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private CatalogVersions catalogVersions;
 
+    @Value("${hotel.http-cache.max-age-seconds:60}")
+    private long maxAgeSeconds;
+
+    // Conditional like GET /api/hotels/{id}; bookings do not change this list, so it stays cacheable
     @GetMapping("/hotels/{id}/rooms")
-    public ResponseEntity<List<Room>> getRoomsByHotel(@PathVariable Long id) {
-        return ResponseEntity.ok(roomService.getRoomsByHotel(id));
+    public ResponseEntity<List<RoomDTO>> getRoomsByHotel(@PathVariable Long id, WebRequest request) {
+        CatalogVersions.Version version = catalogVersions.rooms(id);
+        if (request.checkNotModified(version.etag(), version.lastModified())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS).cachePublic())
+                .body(roomService.getRoomsByHotel(id));
+    }
+
+    // Room lists for many hotels in one round trip, e.g. ?hotelIds=1,2,3 (capped at room.batch.max-hotels)
+    @GetMapping("/hotels/rooms")
+    public ResponseEntity<Map<Long, List<RoomDTO>>> getRoomsByHotels(@RequestParam List<Long> hotelIds) {
+        return ResponseEntity.ok(roomService.getRoomsByHotels(hotelIds));
+    }
+
+    // Every hotel's rooms, a page of hotels at a time; pass nextAfterHotelId back until it is null
+    @GetMapping("/admin/rooms")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RoomsByHotelPage> getRoomsPage(@RequestParam(required = false) Long afterHotelId,
+                                                         @RequestParam(required = false) Integer hotels) {
+        return ResponseEntity.ok(roomService.getRoomsPage(afterHotelId, hotels));
+    }
+
+    @GetMapping("/rooms/{id}/availability")
+    public ResponseEntity<Map<String, Object>> getAvailability(@PathVariable Long id,
+                                                               @RequestParam LocalDate checkIn,
+                                                               @RequestParam LocalDate checkOut) {
+        boolean available = bookingService.isRoomAvailable(id, checkIn, checkOut);
+        return ResponseEntity.ok(Map.of("roomId", id, "available", available));
     }
 
     @PostMapping("/admin/rooms")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Room> add(@RequestBody RoomDTO roomDTO) {
-        System.out.println("Adding room: " + roomDTO);
+    public ResponseEntity<RoomDTO> add(@RequestBody RoomDTO roomDTO) {
+        logger.debug("Adding {} room to hotel {}", roomDTO.getRoomType(), roomDTO.getHotelId());
         return ResponseEntity.ok(roomService.add(roomDTO));
     }
 
 
     @PutMapping("/admin/rooms/{id}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Room> update(@PathVariable Long id, @RequestBody RoomDTO roomDTO) {
+    public ResponseEntity<RoomDTO> update(@PathVariable Long id, @RequestBody RoomDTO roomDTO) {
         return ResponseEntity.ok(roomService.update(id, roomDTO));
     }
 
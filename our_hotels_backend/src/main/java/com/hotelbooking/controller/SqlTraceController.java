@@ -0,0 +1,36 @@
+package com.hotelbooking.controller;
+
+import com.hotelbooking.config.SqlTracer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/sql")
+@PreAuthorize("hasRole('ADMIN')")
+public class SqlTraceController {
+
+    @Autowired
+    private SqlTracer sqlTracer;
+
+    // Query shapes since startup (or the last reset), by total, max or avg time, or by count
+    @GetMapping("/top")
+    public ResponseEntity<List<Map<String, Object>>> top(@RequestParam(defaultValue = "total") String by,
+                                                         @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(sqlTracer.top(by, limit));
+    }
+
+    @DeleteMapping("/stats")
+    public ResponseEntity<Void> reset() {
+        sqlTracer.reset();
+        return ResponseEntity.noContent().build();
+    }
+}
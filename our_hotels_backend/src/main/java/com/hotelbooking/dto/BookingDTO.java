@@ -1,9 +1,13 @@
 package com.hotelbooking.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import java.time.LocalDate;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor   // used by the JPQL constructor expressions in BookingRepository
 public class BookingDTO {
     private Long bookingId;
     private Long userId;
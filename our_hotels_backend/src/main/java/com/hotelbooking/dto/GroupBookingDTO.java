@@ -0,0 +1,15 @@
+package com.hotelbooking.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/** Several rooms booked together for the same stay, all or nothing. */
+@Data
+public class GroupBookingDTO {
+    private Long userId;
+    private List<Long> roomIds;
+    private LocalDate checkInDate;
+    private LocalDate checkOutDate;
+}
@@ -0,0 +1,35 @@
+package com.hotelbooking.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position: the sort value and id of the last hotel on the previous page.
+ * Hotels whose sort column is null are paged after all others, by id; {@code value == null}
+ * marks a cursor inside that group.
+ */
+public record HotelCursor(Long hotelId, String value) {
+
+    public boolean inNullGroup() {
+        return value == null;
+    }
+
+    public String encode() {
+        String raw = value == null ? "n|" + hotelId : "v|" + hotelId + "|" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static HotelCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 3);
+            Long id = Long.valueOf(parts[1]);
+            return "n".equals(parts[0]) ? new HotelCursor(id, null) : new HotelCursor(id, parts[2]);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -11,5 +11,7 @@ public class HotelDTO {
     private Double rating;
     private Double price;
     private String roomType;
+    private Double latitude;
+    private Double longitude;
     private List<String> hotelImages; // multiple images
 }
@@ -0,0 +1,19 @@
+package com.hotelbooking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class HotelPage {
+    private List<HotelSummaryDTO> items;
+    private String nextCursor;  // null on the last page
+    private String sort;
+    private int size;
+    private Map<Long, Long> freeRooms;  // hotelId -> free rooms; only for date-range searches
+}
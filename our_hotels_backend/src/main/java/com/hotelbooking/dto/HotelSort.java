@@ -0,0 +1,47 @@
+package com.hotelbooking.dto;
+
+import com.hotelbooking.entity.Hotel;
+
+import java.util.Locale;
+import java.util.function.Function;
+
+/** Stable sort orders for hotel search. Ties are always broken by hotelId. */
+public enum HotelSort {
+    PRICE("price", true, Hotel::getPrice),
+    PRICE_DESC("price", false, Hotel::getPrice),
+    RATING("rating", false, Hotel::getRating),
+    NAME("name", true, Hotel::getName);
+
+    private final String property;
+    private final boolean ascending;
+    private final Function<Hotel, Object> accessor;
+
+    HotelSort(String property, boolean ascending, Function<Hotel, Object> accessor) {
+        this.property = property;
+        this.ascending = ascending;
+        this.accessor = accessor;
+    }
+
+    public String getProperty() { return property; }
+    public boolean isAscending() { return ascending; }
+
+    public Object valueOf(Hotel hotel) {
+        return accessor.apply(hotel);
+    }
+
+    /** Converts a cursor's string value back to the type of the sort column. */
+    public Object parseValue(String raw) {
+        return this == NAME ? raw : Double.valueOf(raw);
+    }
+
+    public static HotelSort fromParam(String value) {
+        if (value == null || value.isBlank()) {
+            return NAME;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported sort: " + value + " (use price, price_desc, rating or name)");
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.hotelbooking.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+/**
+ * List/search view of a hotel: summary columns and one thumbnail instead of the full image list.
+ * Unset fields are left out of the JSON; most hotels have no coordinates or room type.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class HotelSummaryDTO {
+    private Long hotelId;
+    private String name;
+    private String location;
+    private String description;
+    private Double rating;
+    private Double price;
+    private String roomType;
+    private Double latitude;
+    private Double longitude;
+    private String thumbnail;   // null when the hotel has no images
+}
@@ -0,0 +1,18 @@
+package com.hotelbooking.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ImportResult {
+    private String type;            // hotels or rooms
+    private long rowsRead;
+    private long imported;
+    private long failed;
+    private List<ImportRowError> errors = new ArrayList<>();
+    private boolean errorsTruncated; // more rows failed than are listed in errors
+    private long elapsedMs;
+    private double rowsPerSecond;
+}
@@ -0,0 +1,13 @@
+package com.hotelbooking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportRowError {
+    private int line;       // 1-based line in the uploaded file
+    private String message;
+}
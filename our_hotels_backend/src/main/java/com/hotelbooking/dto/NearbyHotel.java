@@ -0,0 +1,13 @@
+package com.hotelbooking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class NearbyHotel {
+    private HotelSummaryDTO hotel;
+    private double distanceKm;
+}
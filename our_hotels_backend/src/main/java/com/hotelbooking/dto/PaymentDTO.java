@@ -4,7 +4,9 @@ import lombok.Data;
 
 @Data
 public class PaymentDTO {
+    private Long paymentId;    // ignored on submit; set in responses
     private Long bookingId;
-    private Double amount;
+    private Double amount;     // defaults to the booking's total price
     private String status;
+    private String failureReason;
 }
\ No newline at end of file
@@ -1,9 +1,14 @@
 package com.hotelbooking.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor   // used by the listing projection in RoomRepository
 public class RoomDTO {
+    private Long roomId;    // ignored on create/update; set in responses
     private Long hotelId;
     private String roomType;
     private Double pricePerNight;
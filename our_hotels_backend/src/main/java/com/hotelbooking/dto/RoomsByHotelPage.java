@@ -0,0 +1,16 @@
+package com.hotelbooking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RoomsByHotelPage {
+    private Map<Long, List<RoomDTO>> rooms;  // hotelId -> rooms; hotels without rooms map to []
+    private Long nextAfterHotelId;  // null on the last page
+}
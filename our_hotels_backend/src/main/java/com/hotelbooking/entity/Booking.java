@@ -6,7 +6,10 @@ import java.time.LocalDate;
 
 @Data
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings", indexes = {
+        @Index(name = "idx_bookings_status_dates", columnList = "status, check_in_date, check_out_date"),
+        @Index(name = "idx_bookings_room_dates", columnList = "room_id, check_in_date, check_out_date")
+})
 public class Booking {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -24,4 +27,10 @@ public class Booking {
     private LocalDate checkOutDate;
     private Double totalPrice;
     private String status; // CONFIRMED, CANCELED, COMPLETED
+
+    // The room's hotel and type when it was booked. Rollups are keyed on these, so moving or
+    // retyping the room later leaves the booking's totals (and its cancellation) where they were.
+    @Column(name = "hotel_id")
+    private Long hotelId;
+    private String roomType;
 }
@@ -0,0 +1,33 @@
+package com.hotelbooking.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * Pre-aggregated booking totals per hotel, room type and night.
+ * Maintained by BookingRollupService; reports sum these rows instead of scanning bookings.
+ */
+@Data
+@Entity
+@Table(name = "daily_booking_rollups", uniqueConstraints =
+        @UniqueConstraint(name = "uk_rollup_hotel_type_day", columnNames = {"hotel_id", "room_type", "stay_date"}))
+public class DailyBookingRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long rollupId;
+
+    @Column(name = "hotel_id", nullable = false)
+    private Long hotelId;
+
+    @Column(name = "room_type", nullable = false)
+    private String roomType;
+
+    @Column(name = "stay_date", nullable = false)
+    private LocalDate stayDate;
+
+    private Long roomNights;     // confirmed nights on this date
+    private Double revenue;      // booking price spread evenly over its nights
+    private Long cancellations;  // cancellations counted on the check-in date
+}
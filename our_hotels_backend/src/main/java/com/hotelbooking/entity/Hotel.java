@@ -2,12 +2,17 @@ package com.hotelbooking.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.BatchSize;
 
 import java.util.List;
 
 @Data
 @Entity
-@Table(name = "hotels")
+@Table(name = "hotels", indexes = {
+        @Index(name = "idx_hotels_price_id", columnList = "price, hotel_id"),
+        @Index(name = "idx_hotels_rating_id", columnList = "rating, hotel_id"),
+        @Index(name = "idx_hotels_name_id", columnList = "name, hotel_id")
+})
 public class Hotel {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -20,7 +25,13 @@ public class Hotel {
     private Double price;
     private String roomType;
 
-    @ElementCollection(fetch = FetchType.EAGER) // Store list of image URLs
+    // WGS84 degrees; hotels without coordinates are simply left off the map
+    private Double latitude;
+    private Double longitude;
+
+    // Lazy: lists use a thumbnail query; when several hotels do need images they load in batches
+    @ElementCollection(fetch = FetchType.LAZY) // Store list of image URLs
+    @BatchSize(size = 50)
     @CollectionTable(name = "hotel_images", joinColumns = @JoinColumn(name = "hotel_id"))
     @Column(name = "image_url")
     private List<String> hotelImages; 
@@ -13,9 +13,15 @@ public class Payment {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long paymentId;
     @OneToOne
-    @JoinColumn(name = "booking_id")
+    @JoinColumn(name = "booking_id", unique = true)  // one payment per booking; retries reuse it
     private Booking booking;
     private Double amount;
-    private String status;
+    private String status;  // PENDING, PROCESSING while a worker charges it, then COMPLETED or FAILED
     private LocalDateTime paymentDate;
+    // Client-supplied key: resubmissions with the same key return this payment instead of charging again
+    @Column(unique = true, length = 100)
+    private String idempotencyKey;
+    private String gatewayReference;
+    private String failureReason;
+    private LocalDateTime claimedAt;  // when a worker moved it to PROCESSING
 }
\ No newline at end of file
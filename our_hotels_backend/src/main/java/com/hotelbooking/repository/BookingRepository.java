@@ -1,5 +1,6 @@
 package com.hotelbooking.repository;
 
+import com.hotelbooking.dto.BookingDTO;
 import com.hotelbooking.entity.Booking;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -7,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -15,6 +17,18 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     // Correct property path through the relation: user.userId
     List<Booking> findByUser_UserId(Long userId);
 
+    // Listings are projected straight into BookingDTO: one statement, no lazy user/room/hotel loads per row
+    String BOOKING_DTO_SELECT = "SELECT new com.hotelbooking.dto.BookingDTO(" +
+            "b.bookingId, b.user.userId, r.roomId, h.name, r.roomType, " +
+            "b.checkInDate, b.checkOutDate, b.totalPrice, b.status) " +
+            "FROM Booking b JOIN b.room r LEFT JOIN r.hotel h ";
+
+    @Query(BOOKING_DTO_SELECT + "WHERE b.user.userId = :userId ORDER BY b.bookingId")
+    List<BookingDTO> findDtosByUserId(@Param("userId") Long userId);
+
+    @Query(BOOKING_DTO_SELECT + "ORDER BY b.bookingId")
+    List<BookingDTO> findAllDtos();
+
     @Query("SELECT b FROM Booking b " +
            "WHERE b.room.roomId = :roomId " +
            "AND b.status = 'CONFIRMED' " +
@@ -22,4 +36,18 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     List<Booking> findOverlappingBookings(@Param("roomId") Long roomId,
                                           @Param("checkInDate") LocalDate checkInDate,
                                           @Param("checkOutDate") LocalDate checkOutDate);
-}
+
+    // One overlap check for a whole group booking: (roomId, checkIn, checkOut) of every conflict
+    @Query("SELECT b.room.roomId, b.checkInDate, b.checkOutDate FROM Booking b " +
+           "WHERE b.room.roomId IN :roomIds " +
+           "AND b.status = 'CONFIRMED' " +
+           "AND (b.checkInDate < :checkOutDate AND b.checkOutDate > :checkInDate)")
+    List<Object[]> findOverlappingStays(@Param("roomIds") Collection<Long> roomIds,
+                                        @Param("checkInDate") LocalDate checkInDate,
+                                        @Param("checkOutDate") LocalDate checkOutDate);
+
+    // Lightweight (roomId, checkIn, checkOut) rows used to warm the availability index
+    @Query("SELECT b.room.roomId, b.checkInDate, b.checkOutDate FROM Booking b " +
+           "WHERE b.status = 'CONFIRMED' AND b.checkOutDate > :from")
+    List<Object[]> findConfirmedStaysEndingAfter(@Param("from") LocalDate from);
+}
\ No newline at end of file
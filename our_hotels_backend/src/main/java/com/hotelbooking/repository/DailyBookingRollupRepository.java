@@ -0,0 +1,22 @@
+package com.hotelbooking.repository;
+
+import com.hotelbooking.entity.DailyBookingRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+
+public interface DailyBookingRollupRepository extends JpaRepository<DailyBookingRollup, Long> {
+
+    // Nights in [startDate, endDate)
+    @Query("SELECT COALESCE(SUM(r.revenue), 0) FROM DailyBookingRollup r " +
+           "WHERE r.stayDate >= :startDate AND r.stayDate < :endDate")
+    Double sumRevenue(@Param("startDate") LocalDate startDate,
+                      @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT COALESCE(SUM(r.roomNights), 0) FROM DailyBookingRollup r " +
+           "WHERE r.stayDate >= :startDate AND r.stayDate < :endDate")
+    Long sumRoomNights(@Param("startDate") LocalDate startDate,
+                       @Param("endDate") LocalDate endDate);
+}
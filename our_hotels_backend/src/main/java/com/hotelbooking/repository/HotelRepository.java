@@ -1,24 +1,35 @@
 package com.hotelbooking.repository;
 
 import com.hotelbooking.entity.Hotel;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface HotelRepository extends JpaRepository<Hotel, Long> {
+public interface HotelRepository extends JpaRepository<Hotel, Long>, HotelRepositoryCustom {
     List<Hotel> findByLocation(String location);
 
-    @Query("SELECT h FROM Hotel h " +
-           "WHERE (:location IS NULL OR h.location = :location) " +
-           "AND (:priceMin IS NULL OR h.price >= :priceMin) " +
-           "AND (:priceMax IS NULL OR h.price <= :priceMax) " +
-           "AND (:roomType IS NULL OR h.roomType = :roomType)")
-    List<Hotel> findWithFilters(
-            @Param("location") String location,
-            @Param("priceMin") Double priceMin,
-            @Param("priceMax") Double priceMax,
-            @Param("roomType") String roomType
-    );
-}
\ No newline at end of file
+    // Detail view: the hotel and its images in one statement
+    @EntityGraph(attributePaths = "hotelImages")
+    Optional<Hotel> findWithImagesByHotelId(Long hotelId);
+
+    // (hotelId, first image) for a page of hotels; MIN gives a stable pick without an order column
+    @Query("SELECT h.hotelId, MIN(i) FROM Hotel h JOIN h.hotelImages i WHERE h.hotelId IN :ids GROUP BY h.hotelId")
+    List<Object[]> findThumbnails(@Param("ids") Collection<Long> ids);
+
+    // Just the indexed text columns, without materializing entities or their image collections
+    @Query("SELECT h.hotelId, h.name, h.location, h.description FROM Hotel h")
+    List<Object[]> findAllForTextIndex();
+
+    // Keyset page of ids for walking the whole catalog (after = 0 for the first page)
+    @Query("SELECT h.hotelId FROM Hotel h WHERE h.hotelId > :after ORDER BY h.hotelId")
+    List<Long> findIdsAfter(@Param("after") Long after, Pageable page);
+
+    @Query("SELECT h.hotelId, h.latitude, h.longitude FROM Hotel h WHERE h.latitude IS NOT NULL AND h.longitude IS NOT NULL")
+    List<Object[]> findAllCoordinates();
+}
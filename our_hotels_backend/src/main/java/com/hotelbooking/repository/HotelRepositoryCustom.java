@@ -0,0 +1,25 @@
+package com.hotelbooking.repository;
+
+import com.hotelbooking.dto.HotelCursor;
+import com.hotelbooking.dto.HotelSort;
+import com.hotelbooking.entity.Hotel;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface HotelRepositoryCustom {
+
+    /**
+     * Up to {@code limit} hotels strictly after {@code after} in {@code sort} order (null = first page).
+     * With a stay ({@code checkIn}/{@code checkOut} non-null) only hotels with a free room of
+     * {@code roomType} for those nights are returned, and {@code roomType} applies to rooms.
+     */
+    List<Hotel> findPage(String location, Double priceMin, Double priceMax, String roomType,
+                         LocalDate checkIn, LocalDate checkOut,
+                         HotelSort sort, HotelCursor after, int limit);
+
+    /** hotelId -> rooms of {@code roomType} (any type when null) with no confirmed booking overlapping the stay. */
+    Map<Long, Long> countFreeRooms(Collection<Long> hotelIds, String roomType, LocalDate checkIn, LocalDate checkOut);
+}
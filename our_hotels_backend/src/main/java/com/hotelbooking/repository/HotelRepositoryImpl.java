@@ -0,0 +1,139 @@
+package com.hotelbooking.repository;
+
+import com.hotelbooking.dto.HotelCursor;
+import com.hotelbooking.dto.HotelSort;
+import com.hotelbooking.entity.Hotel;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keyset pagination for hotel search.
+ *
+ * Each page is one index range scan on (sort column, hotel_id) that starts right after the
+ * cursor, so page 500 costs the same as page 1. Rows with a null sort value are served in a
+ * second phase ordered by id, which keeps both predicates index-friendly on every database.
+ *
+ * Date-range searches add one correlated EXISTS / NOT EXISTS pair, so "has a free room" is
+ * decided by the database in the same statement (rooms by hotel, bookings by room and dates)
+ * instead of one overlap query per room.
+ */
+class HotelRepositoryImpl implements HotelRepositoryCustom {
+
+    // Same overlap rule as BookingRepository.findOverlappingBookings, for room alias r
+    private static final String NO_OVERLAPPING_BOOKING =
+            "NOT EXISTS (SELECT 1 FROM Booking b WHERE b.room = r AND b.status = 'CONFIRMED'"
+                    + " AND b.checkInDate < :checkOut AND b.checkOutDate > :checkIn)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Hotel> findPage(String location, Double priceMin, Double priceMax, String roomType,
+                                LocalDate checkIn, LocalDate checkOut,
+                                HotelSort sort, HotelCursor after, int limit) {
+        List<Hotel> rows = new ArrayList<>(limit);
+        if (after == null || !after.inNullGroup()) {
+            rows.addAll(query(location, priceMin, priceMax, roomType, checkIn, checkOut, sort, after, false, limit));
+        }
+        if (rows.size() < limit) {
+            HotelCursor nullAfter = after != null && after.inNullGroup() ? after : null;
+            rows.addAll(query(location, priceMin, priceMax, roomType, checkIn, checkOut,
+                    sort, nullAfter, true, limit - rows.size()));
+        }
+        return rows;
+    }
+
+    @Override
+    public Map<Long, Long> countFreeRooms(Collection<Long> hotelIds, String roomType,
+                                          LocalDate checkIn, LocalDate checkOut) {
+        Map<Long, Long> counts = new HashMap<>();
+        if (hotelIds.isEmpty()) {
+            return counts;
+        }
+        StringBuilder jpql = new StringBuilder(
+                "SELECT r.hotel.hotelId, COUNT(r) FROM Room r WHERE r.hotel.hotelId IN :hotelIds");
+        if (roomType != null) {
+            jpql.append(" AND r.roomType = :roomType");
+        }
+        jpql.append(" AND ").append(NO_OVERLAPPING_BOOKING).append(" GROUP BY r.hotel.hotelId");
+
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql.toString(), Object[].class)
+                .setParameter("hotelIds", hotelIds)
+                .setParameter("checkIn", checkIn)
+                .setParameter("checkOut", checkOut);
+        if (roomType != null) {
+            query.setParameter("roomType", roomType);
+        }
+        for (Object[] row : query.getResultList()) {
+            counts.put((Long) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+
+    private List<Hotel> query(String location, Double priceMin, Double priceMax, String roomType,
+                              LocalDate checkIn, LocalDate checkOut,
+                              HotelSort sort, HotelCursor after, boolean nullGroup, int limit) {
+        boolean dated = checkIn != null && checkOut != null;
+        StringBuilder jpql = new StringBuilder("SELECT h FROM Hotel h WHERE 1 = 1");
+        Map<String, Object> params = new HashMap<>();
+
+        if (location != null) {
+            jpql.append(" AND h.location = :location");
+            params.put("location", location);
+        }
+        if (priceMin != null) {
+            jpql.append(" AND h.price >= :priceMin");
+            params.put("priceMin", priceMin);
+        }
+        if (priceMax != null) {
+            jpql.append(" AND h.price <= :priceMax");
+            params.put("priceMax", priceMax);
+        }
+        if (dated) {
+            jpql.append(" AND EXISTS (SELECT 1 FROM Room r WHERE r.hotel = h");
+            if (roomType != null) {
+                jpql.append(" AND r.roomType = :roomType");
+                params.put("roomType", roomType);
+            }
+            jpql.append(" AND ").append(NO_OVERLAPPING_BOOKING).append(")");
+            params.put("checkIn", checkIn);
+            params.put("checkOut", checkOut);
+        } else if (roomType != null) {
+            jpql.append(" AND h.roomType = :roomType");
+            params.put("roomType", roomType);
+        }
+
+        String column = "h." + sort.getProperty();
+        if (nullGroup) {
+            jpql.append(" AND ").append(column).append(" IS NULL");
+            if (after != null) {
+                jpql.append(" AND h.hotelId > :afterId");
+                params.put("afterId", after.hotelId());
+            }
+            jpql.append(" ORDER BY h.hotelId ASC");
+        } else {
+            String cmp = sort.isAscending() ? ">" : "<";
+            String dir = sort.isAscending() ? "ASC" : "DESC";
+            jpql.append(" AND ").append(column).append(" IS NOT NULL");
+            if (after != null) {
+                jpql.append(" AND (").append(column).append(" ").append(cmp).append(" :afterValue")
+                    .append(" OR (").append(column).append(" = :afterValue AND h.hotelId ").append(cmp).append(" :afterId))");
+                params.put("afterValue", sort.parseValue(after.value()));
+                params.put("afterId", after.hotelId());
+            }
+            jpql.append(" ORDER BY ").append(column).append(" ").append(dir).append(", h.hotelId ").append(dir);
+        }
+
+        TypedQuery<Hotel> query = entityManager.createQuery(jpql.toString(), Hotel.class);
+        params.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+}
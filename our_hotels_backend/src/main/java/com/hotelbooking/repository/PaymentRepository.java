@@ -1,8 +1,67 @@
 package com.hotelbooking.repository;
 
 import com.hotelbooking.entity.Payment;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
-    Payment findByBookingBookingId(Long bookingId);
-}
\ No newline at end of file
+    // Tables from before booking_id was unique can hold several rows per booking (PaymentSchemaMigration
+    // removes them at startup): the COMPLETED one wins, then the latest. Pass a page of size 1.
+    @Query("SELECT p FROM Payment p WHERE p.booking.bookingId = :bookingId " +
+           "ORDER BY CASE WHEN p.status = 'COMPLETED' THEN 0 ELSE 1 END, p.paymentId DESC")
+    List<Payment> findForBooking(@Param("bookingId") Long bookingId, Pageable page);
+
+    default Payment findForBooking(Long bookingId) {
+        return findForBooking(bookingId, PageRequest.ofSize(1)).stream().findFirst().orElse(null);
+    }
+
+    Optional<Payment> findByIdempotencyKey(String idempotencyKey);
+
+    Optional<Payment> findByPaymentIdAndBookingUserUserId(Long paymentId, Long userId);
+
+    List<Payment> findByStatus(String status);
+
+    // Reopens a FAILED payment for another attempt; 0 when a concurrent resubmission reopened it first
+    @Modifying
+    @Transactional
+    @Query("UPDATE Payment p SET p.status = 'PENDING', p.idempotencyKey = :key, p.amount = :amount, " +
+           "p.gatewayReference = NULL, p.failureReason = NULL, p.paymentDate = NULL " +
+           "WHERE p.paymentId = :paymentId AND p.status = 'FAILED'")
+    int reopenFailed(@Param("paymentId") Long paymentId, @Param("key") String key, @Param("amount") Double amount);
+
+    // A worker charges a payment only after moving it PENDING -> PROCESSING; 0 when another worker
+    // (possibly on another instance) claimed it first
+    @Modifying
+    @Transactional
+    @Query("UPDATE Payment p SET p.status = 'PROCESSING', p.claimedAt = :now " +
+           "WHERE p.paymentId = :paymentId AND p.status = 'PENDING'")
+    int claim(@Param("paymentId") Long paymentId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Payment p SET p.status = 'PENDING', p.claimedAt = NULL " +
+           "WHERE p.paymentId = :paymentId AND p.status = 'PROCESSING'")
+    int release(@Param("paymentId") Long paymentId);
+
+    // Claims left behind by an instance that stopped mid-charge
+    @Modifying
+    @Transactional
+    @Query("UPDATE Payment p SET p.status = 'PENDING', p.claimedAt = NULL " +
+           "WHERE p.status = 'PROCESSING' AND p.claimedAt < :before")
+    int releaseStale(@Param("before") LocalDateTime before);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Payment p SET p.status = 'FAILED', p.failureReason = :reason, p.paymentDate = :now " +
+           "WHERE p.paymentId = :paymentId AND p.status = 'PENDING'")
+    int failPending(@Param("paymentId") Long paymentId, @Param("reason") String reason, @Param("now") LocalDateTime now);
+}
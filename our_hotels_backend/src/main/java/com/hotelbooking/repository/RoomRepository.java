@@ -1,9 +1,38 @@
 package com.hotelbooking.repository;
 
+import com.hotelbooking.dto.RoomDTO;
 import com.hotelbooking.entity.Room;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface RoomRepository extends JpaRepository<Room, Long> {
     List<Room> findByHotelHotelId(Long hotelId);
+
+    // Room listings: flat rows with the hotel id only, never the embedded hotel
+    @Query("SELECT new com.hotelbooking.dto.RoomDTO(r.roomId, r.hotel.hotelId, r.roomType, r.pricePerNight, " +
+           "r.amenities, r.availabilityStatus) FROM Room r WHERE r.hotel.hotelId = :hotelId ORDER BY r.roomId")
+    List<RoomDTO> findDtosByHotelId(@Param("hotelId") Long hotelId);
+
+    // The same rows for many hotels in one IN-list statement, grouped by the caller
+    @Query("SELECT new com.hotelbooking.dto.RoomDTO(r.roomId, r.hotel.hotelId, r.roomType, r.pricePerNight, " +
+           "r.amenities, r.availabilityStatus) FROM Room r WHERE r.hotel.hotelId IN :hotelIds " +
+           "ORDER BY r.hotel.hotelId, r.roomId")
+    List<RoomDTO> findDtosByHotelIds(@Param("hotelIds") Collection<Long> hotelIds);
+
+    // SELECT ... FOR UPDATE on the room row: serializes bookings per room across instances
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Room r WHERE r.roomId = :roomId")
+    Optional<Room> findByIdForUpdate(@Param("roomId") Long roomId);
+
+    // Group bookings: lock every room row in one statement, in id order like RoomLocks
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Room r WHERE r.roomId IN :roomIds ORDER BY r.roomId")
+    List<Room> findAllByIdForUpdate(@Param("roomIds") Collection<Long> roomIds);
 }
\ No newline at end of file
@@ -0,0 +1,215 @@
+package com.hotelbooking.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Writes bookings straight from a forward-only JDBC cursor to the response, one row at a time.
+ *
+ * Nothing is collected in memory: no entities, no DTO list. With MySQL the driver only streams
+ * when the connection has useCursorFetch=true (set in the default and docker-compose URLs) and the
+ * statement has a fetch size; otherwise Connector/J reads the whole result set up front.
+ */
+@Service
+public class BookingExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingExportService.class);
+
+    private static final String[] COLUMNS = {
+            "bookingId", "userId", "roomId", "hotelName", "roomType",
+            "checkInDate", "checkOutDate", "totalPrice", "status"
+    };
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${export.fetch-size:1000}")
+    private int fetchSize;
+
+    // Own template so the fetch size doesn't leak into the shared JdbcTemplate
+    private JdbcTemplate cursorTemplate;
+
+    @PostConstruct
+    void init() {
+        cursorTemplate = new JdbcTemplate(dataSource);
+        cursorTemplate.setFetchSize(fetchSize);
+    }
+
+    public enum Format {
+        NDJSON, CSV;
+
+        public static Format fromParam(String value) {
+            try {
+                return value == null ? NDJSON : valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported export format: " + value + " (use ndjson or csv)");
+            }
+        }
+    }
+
+    // Call before committing the response: once streaming has started the status is already 200
+    public static void validateRange(LocalDate from, LocalDate to) {
+        if (from != null && to != null && !to.isAfter(from)) {
+            throw new IllegalArgumentException("'to' must be after 'from'");
+        }
+    }
+
+    /**
+     * Streams bookings whose stay overlaps [from, to) (either bound optional) and, if given,
+     * have the given status, in booking id order. Returns the number of rows written.
+     */
+    public long export(OutputStream out, Format format, LocalDate from, LocalDate to, String status) {
+        validateRange(from, to);
+
+        StringBuilder sql = new StringBuilder(
+                "SELECT b.booking_id, b.user_id, b.room_id, h.name, r.room_type, " +
+                "b.check_in_date, b.check_out_date, b.total_price, b.status " +
+                "FROM bookings b JOIN rooms r ON r.room_id = b.room_id " +
+                "LEFT JOIN hotels h ON h.hotel_id = r.hotel_id WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (from != null) {
+            sql.append(" AND b.check_out_date > ?");
+            args.add(Date.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND b.check_in_date < ?");
+            args.add(Date.valueOf(to));
+        }
+        if (status != null && !status.isBlank()) {
+            sql.append(" AND b.status = ?");
+            args.add(status.trim().toUpperCase(Locale.ROOT));
+        }
+        sql.append(" ORDER BY b.booking_id");
+
+        long start = System.currentTimeMillis();
+        try {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            RowWriter rows = format == Format.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+            // Headers (and the CSV header row) go out before the query runs
+            writer.flush();
+
+            long[] count = {0};
+            cursorTemplate.query(sql.toString(), rs -> {
+                try {
+                    rows.write(rs);
+                    if (++count[0] == 1) {
+                        writer.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, args.toArray());
+            rows.finish();
+            writer.flush();
+
+            logger.info("Exported {} bookings as {} in {} ms", count[0], format, System.currentTimeMillis() - start);
+            return count[0];
+        } catch (IOException e) {
+            throw new UncheckedIOException("Booking export failed", e);
+        }
+    }
+
+    private interface RowWriter {
+        void write(ResultSet rs) throws SQLException, IOException;
+
+        default void finish() throws IOException {
+        }
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator json;
+
+        NdjsonRowWriter(Writer writer) throws IOException {
+            json = objectMapper.getFactory().createGenerator(writer);
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            json.writeStartObject();
+            json.writeNumberField(COLUMNS[0], rs.getLong(1));
+            json.writeNumberField(COLUMNS[1], rs.getLong(2));
+            json.writeNumberField(COLUMNS[2], rs.getLong(3));
+            json.writeStringField(COLUMNS[3], rs.getString(4));
+            json.writeStringField(COLUMNS[4], rs.getString(5));
+            json.writeStringField(COLUMNS[5], isoDate(rs.getDate(6)));
+            json.writeStringField(COLUMNS[6], isoDate(rs.getDate(7)));
+            double price = rs.getDouble(8);
+            if (rs.wasNull()) {
+                json.writeNullField(COLUMNS[7]);
+            } else {
+                json.writeNumberField(COLUMNS[7], price);
+            }
+            json.writeStringField(COLUMNS[8], rs.getString(9));
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            json.flush();
+        }
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer out;
+
+        CsvRowWriter(Writer out) throws IOException {
+            this.out = out;
+            out.write(String.join(",", COLUMNS));
+            out.write('\n');
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            for (int i = 1; i <= COLUMNS.length; i++) {
+                if (i > 1) {
+                    out.write(',');
+                }
+                Object value = i == 6 || i == 7 ? isoDate(rs.getDate(i)) : rs.getObject(i);
+                if (value != null) {
+                    out.write(escape(value.toString()));
+                }
+            }
+            out.write('\n');
+        }
+
+        private static String escape(String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    private static String isoDate(Date date) {
+        return date == null ? null : date.toLocalDate().toString();
+    }
+}
@@ -0,0 +1,189 @@
+package com.hotelbooking.service;
+
+import com.hotelbooking.entity.Booking;
+import com.hotelbooking.entity.Room;
+import com.hotelbooking.repository.BookingRepository;
+import com.hotelbooking.repository.DailyBookingRollupRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps daily_booking_rollups in step with bookings.
+ *
+ * Writes join the caller's transaction, so a booking and its rollup rows commit or roll back
+ * together. Rows are upserted, which lets concurrent bookings for the same hotel/day add up
+ * without reading the row first. Rows are keyed by the hotel and room type stored on the booking,
+ * so a cancellation always reverses the row its booking added even if the room has since been
+ * edited.
+ */
+@Service
+public class BookingRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingRollupService.class);
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO daily_booking_rollups (hotel_id, room_type, stay_date, room_nights, revenue, cancellations) " +
+            "VALUES (?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE room_nights = room_nights + VALUES(room_nights), " +
+            "revenue = revenue + VALUES(revenue), cancellations = cancellations + VALUES(cancellations)";
+
+    private static final String REBUILD_SOURCE_SQL =
+            "SELECT COALESCE(b.hotel_id, r.hotel_id), COALESCE(b.room_type, r.room_type), " +
+            "b.check_in_date, b.check_out_date, b.total_price, b.status " +
+            "FROM bookings b JOIN rooms r ON r.room_id = b.room_id " +
+            "WHERE b.status IN ('CONFIRMED', 'CANCELED')";
+
+    // Bookings from before hotel_id/room_type were stored take the room's current values once
+    private static final String BACKFILL_BOOKING_KEYS_SQL =
+            "UPDATE bookings SET " +
+            "hotel_id = (SELECT r.hotel_id FROM rooms r WHERE r.room_id = bookings.room_id), " +
+            "room_type = (SELECT r.room_type FROM rooms r WHERE r.room_id = bookings.room_id) " +
+            "WHERE hotel_id IS NULL";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DailyBookingRollupRepository rollupRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Own transaction at REPEATABLE READ whatever the caller runs in: see rebuild()
+    private TransactionTemplate rebuildTransaction;
+
+    @PostConstruct
+    void init() {
+        rebuildTransaction = new TransactionTemplate(transactionManager);
+        rebuildTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        rebuildTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    @Transactional
+    public void recordBooking(Booking booking) {
+        recordBookings(List.of(booking));
+    }
+
+    /** Group bookings: all stays are summed first, then written as one upsert batch. */
+    @Transactional
+    public void recordBookings(List<Booking> bookings) {
+        DailyRollupAccumulator accumulator = new DailyRollupAccumulator();
+        for (Booking booking : bookings) {
+            accumulator.addStay(hotelIdOf(booking), roomTypeOf(booking),
+                    booking.getCheckInDate(), booking.getCheckOutDate(), booking.getTotalPrice(), 1);
+        }
+        upsert(accumulator);
+    }
+
+    @Transactional
+    public void recordCancellation(Booking booking) {
+        DailyRollupAccumulator accumulator = new DailyRollupAccumulator();
+        Long hotelId = hotelIdOf(booking);
+        String roomType = roomTypeOf(booking);
+        accumulator.addStay(hotelId, roomType,
+                booking.getCheckInDate(), booking.getCheckOutDate(), booking.getTotalPrice(), -1);
+        accumulator.addCancellation(hotelId, roomType, booking.getCheckInDate());
+        upsert(accumulator);
+    }
+
+    /**
+     * Recomputes every rollup row from the bookings table. Bookings are streamed row by row,
+     * so memory grows with the number of (hotel, room type, night) cells, not with bookings.
+     *
+     * The DELETE runs first, in a fresh REPEATABLE READ transaction: it locks the whole rollup
+     * table (rows and gaps), so every booking or cancellation that has not yet written its rollup
+     * rows waits until the rebuild commits and then adds on top of it, while everything committed
+     * before is in the bookings read that follows. Nothing is lost or counted twice, but booking
+     * writes stall for the duration; run it off-peak.
+     */
+    public Map<String, Long> rebuild() {
+        return rebuildTransaction.execute(status -> rebuildLocked());
+    }
+
+    private Map<String, Long> rebuildLocked() {
+        long start = System.currentTimeMillis();
+        DailyRollupAccumulator accumulator = new DailyRollupAccumulator();
+        long[] bookings = {0};
+
+        jdbcTemplate.update("DELETE FROM daily_booking_rollups");
+
+        jdbcTemplate.query(REBUILD_SOURCE_SQL, rs -> {
+            Long hotelId = rs.getObject(1, Long.class);
+            String roomType = rs.getString(2);
+            var checkIn = rs.getDate(3).toLocalDate();
+            var checkOut = rs.getDate(4).toLocalDate();
+            Double totalPrice = rs.getObject(5, Double.class);
+            if ("CONFIRMED".equals(rs.getString(6))) {
+                accumulator.addStay(hotelId, roomType, checkIn, checkOut, totalPrice, 1);
+            } else {
+                accumulator.addCancellation(hotelId, roomType, checkIn);
+            }
+            bookings[0]++;
+        });
+
+        upsert(accumulator);
+
+        long elapsed = System.currentTimeMillis() - start;
+        logger.info("Rebuilt {} rollup rows from {} bookings in {} ms", accumulator.size(), bookings[0], elapsed);
+        return Map.of("bookings", bookings[0], "rows", (long) accumulator.size(), "elapsedMs", elapsed);
+    }
+
+    // Existing deployments start with an empty rollup table and bookings without a stored hotel
+    // and room type; backfill both once
+    // (read-write, so the counts come from the primary; rebuild() runs in its own transaction)
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillIfEmpty() {
+        int keyed = jdbcTemplate.update(BACKFILL_BOOKING_KEYS_SQL);
+        if (keyed > 0) {
+            logger.info("Stored hotel and room type on {} existing bookings", keyed);
+        }
+        if (rollupRepository.count() == 0 && bookingRepository.count() > 0) {
+            rebuild();
+        }
+    }
+
+    private void upsert(DailyRollupAccumulator accumulator) {
+        List<Object[]> args = new ArrayList<>(accumulator.size());
+        for (DailyRollupAccumulator.Totals t : accumulator.rows()) {
+            args.add(new Object[] {
+                    t.getKey().hotelId(), t.getKey().roomType(), Date.valueOf(t.getKey().stayDate()),
+                    t.getRoomNights(), t.getRevenue(), t.getCancellations()
+            });
+        }
+        if (!args.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, args);
+        }
+    }
+
+    // Bookings saved without the stored key (older rows not yet backfilled) fall back to the room
+    private Long hotelIdOf(Booking booking) {
+        if (booking.getHotelId() != null) {
+            return booking.getHotelId();
+        }
+        Room room = booking.getRoom();
+        return room.getHotel() != null ? room.getHotel().getHotelId() : null;
+    }
+
+    private String roomTypeOf(Booking booking) {
+        return booking.getRoomType() != null ? booking.getRoomType() : booking.getRoom().getRoomType();
+    }
+}
@@ -1,17 +1,30 @@
 package com.hotelbooking.service;
 
+import com.hotelbooking.config.AuthenticatedUser;
 import com.hotelbooking.dto.BookingDTO;
+import com.hotelbooking.dto.GroupBookingDTO;
 import com.hotelbooking.entity.Booking;
 import com.hotelbooking.entity.Room;
 import com.hotelbooking.entity.User;
 import com.hotelbooking.exception.ResourceNotFoundException;
 import com.hotelbooking.repository.BookingRepository;
+import com.hotelbooking.repository.DailyBookingRollupRepository;
 import com.hotelbooking.repository.RoomRepository;
 import com.hotelbooking.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
@@ -29,7 +42,41 @@ public class BookingService {
     @Autowired
     private RoomRepository roomRepository;
 
-    @Transactional
+    @Autowired
+    private RoomAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private RoomLocks roomLocks;
+
+    @Autowired
+    private BookingRollupService rollupService;
+
+    @Autowired
+    private DailyBookingRollupRepository rollupRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${booking.batch.max-rooms:50}")
+    private int maxGroupRooms;
+
+    // Bookings.bookingId stays IDENTITY for existing rows; group inserts batch over JDBC
+    // and read the generated ids back instead of going through Hibernate one row at a time
+    private static final String INSERT_BOOKING_SQL =
+            "INSERT INTO bookings (user_id, room_id, check_in_date, check_out_date, total_price, status, hotel_id, room_type) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    /**
+     * Books a room without a global lock: the room's own lock is held across the whole
+     * transaction, and the room row is locked FOR UPDATE so other instances serialize too.
+     */
+    @Timed(value = "bookings.book", histogram = true)
     public BookingDTO book(BookingDTO bookingDTO) {
         if (bookingDTO.getCheckInDate() == null || bookingDTO.getCheckOutDate() == null) {
             throw new IllegalArgumentException("Check-in and check-out dates are required");
@@ -37,19 +84,59 @@ public class BookingService {
         if (!bookingDTO.getCheckOutDate().isAfter(bookingDTO.getCheckInDate())) {
             throw new IllegalArgumentException("Check-out must be after check-in");
         }
+        if (bookingDTO.getRoomId() == null) {
+            throw new IllegalArgumentException("Room is required");
+        }
 
-        User user = userRepository.findById(bookingDTO.getUserId())
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        // Fast path: a conflict seen by the in-memory index never reaches the lock
+        if (availabilityIndex.covers(bookingDTO.getCheckInDate())
+                && !confirmedTaken(List.of(bookingDTO.getRoomId()), bookingDTO.getCheckInDate(), bookingDTO.getCheckOutDate()).isEmpty()) {
+            throw conflict("single", "index", "Room is already booked for the selected dates");
+        }
+
+        return roomLocks.withRoomLock(bookingDTO.getRoomId(),
+                () -> transactionTemplate.execute(status -> createBooking(bookingDTO)));
+    }
+
+    /**
+     * Rooms the index shows as taken for the stay, confirmed by one unlocked query. The index
+     * can be stale (a cancellation committed on another instance never reaches it), so only the
+     * database may reject; rooms it shows free are cleared in the index and go on to the locked path.
+     */
+    private List<Long> confirmedTaken(List<Long> roomIds, LocalDate checkIn, LocalDate checkOut) {
+        List<Long> flagged = roomIds.stream()
+                .filter(id -> !availabilityIndex.isFree(id, checkIn, checkOut))
+                .toList();
+        if (flagged.isEmpty()) {
+            return flagged;
+        }
+        Set<Long> taken = new TreeSet<>();
+        for (Object[] stay : bookingRepository.findOverlappingStays(flagged, checkIn, checkOut)) {
+            taken.add((Long) stay[0]);
+        }
+        flagged.stream().filter(id -> !taken.contains(id)).forEach(id -> availabilityIndex.release(id, checkIn, checkOut));
+        return new ArrayList<>(taken);
+    }
+
+    // Counted by where the overlap was caught: the in-memory index or the locked database check
+    private RuntimeException conflict(String type, String source, String message) {
+        meterRegistry.counter("bookings.conflicts", "type", type, "source", source).increment();
+        return new RuntimeException(message);
+    }
 
-        Room room = roomRepository.findById(bookingDTO.getRoomId())
+    private BookingDTO createBooking(BookingDTO bookingDTO) {
+        User user = resolveUser(bookingDTO.getUserId());
+
+        Room room = roomRepository.findByIdForUpdate(bookingDTO.getRoomId())
                 .orElseThrow(() -> new ResourceNotFoundException("Room not found"));
 
-        // Check overlaps
+        // The database stays the final consistency check
         var overlapping = bookingRepository.findOverlappingBookings(
                 room.getRoomId(), bookingDTO.getCheckInDate(), bookingDTO.getCheckOutDate()
         );
         if (!overlapping.isEmpty()) {
-            throw new RuntimeException("Room is already booked for the selected dates");
+            overlapping.forEach(b -> availabilityIndex.markBooked(room.getRoomId(), b.getCheckInDate(), b.getCheckOutDate()));
+            throw conflict("single", "database", "Room is already booked for the selected dates");
         }
 
         long nights = ChronoUnit.DAYS.between(bookingDTO.getCheckInDate(), bookingDTO.getCheckOutDate());
@@ -61,46 +148,189 @@ public class BookingService {
         booking.setCheckOutDate(bookingDTO.getCheckOutDate());
         booking.setTotalPrice(nights * room.getPricePerNight());
         booking.setStatus("CONFIRMED");
+        asBooked(booking, room);
 
         Booking saved = bookingRepository.save(booking);
+        rollupService.recordBooking(saved);
+        availabilityIndex.markBookedAfterCommit(room.getRoomId(), saved.getCheckInDate(), saved.getCheckOutDate());
         return toDTO(saved);
     }
 
+    /**
+     * Books several rooms for the same stay in one transaction: every room is locked (in id
+     * order), overlaps for all rooms are checked with one query and the bookings are inserted
+     * as one JDBC batch. Either every room is booked or none is.
+     */
+    public List<BookingDTO> bookGroup(GroupBookingDTO request) {
+        if (request.getCheckInDate() == null || request.getCheckOutDate() == null) {
+            throw new IllegalArgumentException("Check-in and check-out dates are required");
+        }
+        if (!request.getCheckOutDate().isAfter(request.getCheckInDate())) {
+            throw new IllegalArgumentException("Check-out must be after check-in");
+        }
+        List<Long> roomIds = request.getRoomIds();
+        if (roomIds == null || roomIds.isEmpty() || roomIds.contains(null)) {
+            throw new IllegalArgumentException("At least one room is required");
+        }
+        if (roomIds.size() > maxGroupRooms) {
+            throw new IllegalArgumentException("A group booking can include at most " + maxGroupRooms + " rooms");
+        }
+        if (new HashSet<>(roomIds).size() != roomIds.size()) {
+            throw new IllegalArgumentException("Each room can only be booked once per group booking");
+        }
+
+        if (availabilityIndex.covers(request.getCheckInDate())) {
+            List<Long> taken = confirmedTaken(roomIds, request.getCheckInDate(), request.getCheckOutDate());
+            if (!taken.isEmpty()) {
+                throw conflict("group", "index", "Rooms already booked for the selected dates: " + taken);
+            }
+        }
+
+        return roomLocks.withRoomLocks(roomIds,
+                () -> transactionTemplate.execute(status -> createGroupBooking(request)));
+    }
+
+    private List<BookingDTO> createGroupBooking(GroupBookingDTO request) {
+        User user = resolveUser(request.getUserId());
+        LocalDate checkIn = request.getCheckInDate();
+        LocalDate checkOut = request.getCheckOutDate();
+
+        List<Room> rooms = roomRepository.findAllByIdForUpdate(request.getRoomIds());
+        if (rooms.size() != request.getRoomIds().size()) {
+            Set<Long> found = rooms.stream().map(Room::getRoomId).collect(Collectors.toSet());
+            List<Long> missing = request.getRoomIds().stream().filter(id -> !found.contains(id)).toList();
+            throw new ResourceNotFoundException("Rooms not found: " + missing);
+        }
+
+        List<Object[]> overlapping = bookingRepository.findOverlappingStays(request.getRoomIds(), checkIn, checkOut);
+        if (!overlapping.isEmpty()) {
+            Set<Long> taken = new TreeSet<>();
+            for (Object[] stay : overlapping) {
+                taken.add((Long) stay[0]);
+                availabilityIndex.markBooked((Long) stay[0], (LocalDate) stay[1], (LocalDate) stay[2]);
+            }
+            throw conflict("group", "database", "Rooms already booked for the selected dates: " + taken);
+        }
+
+        long nights = ChronoUnit.DAYS.between(checkIn, checkOut);
+        List<Booking> bookings = new ArrayList<>(rooms.size());
+        for (Room room : rooms) {
+            Booking booking = new Booking();
+            booking.setUser(user);
+            booking.setRoom(room);
+            booking.setCheckInDate(checkIn);
+            booking.setCheckOutDate(checkOut);
+            booking.setTotalPrice(nights * room.getPricePerNight());
+            booking.setStatus("CONFIRMED");
+            asBooked(booking, room);
+            bookings.add(booking);
+        }
+
+        insertBatch(bookings);
+        rollupService.recordBookings(bookings);
+        bookings.forEach(b -> availabilityIndex.markBookedAfterCommit(b.getRoom().getRoomId(), checkIn, checkOut));
+        return bookings.stream().map(this::toDTO).collect(Collectors.toList());
+    }
+
+    // Rollups key on the room's hotel and type at booking time, not whatever the room says later
+    private static void asBooked(Booking booking, Room room) {
+        booking.setHotelId(room.getHotel() != null ? room.getHotel().getHotelId() : null);
+        booking.setRoomType(room.getRoomType());
+    }
+
+    private void insertBatch(List<Booking> bookings) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(INSERT_BOOKING_SQL, new String[] {"booking_id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Booking b = bookings.get(i);
+                        ps.setLong(1, b.getUser().getUserId());
+                        ps.setLong(2, b.getRoom().getRoomId());
+                        ps.setDate(3, java.sql.Date.valueOf(b.getCheckInDate()));
+                        ps.setDate(4, java.sql.Date.valueOf(b.getCheckOutDate()));
+                        ps.setDouble(5, b.getTotalPrice());
+                        ps.setString(6, b.getStatus());
+                        ps.setObject(7, b.getHotelId());
+                        ps.setString(8, b.getRoomType());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return bookings.size();
+                    }
+                },
+                keys);
+
+        List<Map<String, Object>> generated = keys.getKeyList();
+        if (generated.size() != bookings.size()) {
+            throw new IllegalStateException("Expected " + bookings.size() + " booking ids, got " + generated.size());
+        }
+        for (int i = 0; i < bookings.size(); i++) {
+            Number id = (Number) generated.get(i).values().iterator().next();
+            bookings.get(i).setBookingId(id.longValue());
+        }
+    }
+
+    // The signed token already proved the caller's id exists; only other ids need a SELECT
+    private User resolveUser(Long userId) {
+        boolean isCaller = AuthenticatedUser.current()
+                .map(principal -> principal.userId().equals(userId))
+                .orElse(false);
+        if (isCaller) {
+            return userRepository.getReferenceById(userId);
+        }
+        return userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+    }
+
+    /**
+     * A "taken" from the index is confirmed against the database like on the booking paths, so a
+     * cancellation made on another instance never hides a free room. A "free" is not: a booking
+     * made on another instance can be missing here until restart, and book() rejects it then.
+     */
+    @Transactional(readOnly = true)
+    public boolean isRoomAvailable(Long roomId, LocalDate checkIn, LocalDate checkOut) {
+        if (checkIn == null || checkOut == null || !checkOut.isAfter(checkIn)) {
+            throw new IllegalArgumentException("Check-out must be after check-in");
+        }
+        if (availabilityIndex.covers(checkIn)) {
+            return confirmedTaken(List.of(roomId), checkIn, checkOut).isEmpty();
+        }
+        return bookingRepository.findOverlappingBookings(roomId, checkIn, checkOut).isEmpty();
+    }
+
     @Transactional(readOnly = true)
     public List<BookingDTO> getByUser(Long userId) {
-        return bookingRepository.findByUser_UserId(userId)
-                .stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return bookingRepository.findDtosByUserId(userId);
     }
 
     @Transactional
     public void cancel(Long id) {
         Booking booking = bookingRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Booking not found"));
+        boolean wasConfirmed = "CONFIRMED".equals(booking.getStatus());
         booking.setStatus("CANCELED");
         bookingRepository.save(booking);
+
+        // Only a confirmed stay holds nights; releasing twice could free someone else's booking
+        if (wasConfirmed) {
+            rollupService.recordCancellation(booking);
+            availabilityIndex.releaseAfterCommit(booking.getRoom().getRoomId(),
+                    booking.getCheckInDate(), booking.getCheckOutDate());
+        }
     }
 
     @Transactional(readOnly = true)
     public List<BookingDTO> getAllBookings() {
-        return bookingRepository.findAll()
-                .stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return bookingRepository.findAllDtos();
     }
 
     /** ✅ NEW METHOD: Revenue Report */
     @Transactional(readOnly = true)
     public Map<String, Double> getRevenueReport(LocalDate startDate, LocalDate endDate) {
-        List<Booking> bookings = bookingRepository.findAll();
-
-        double totalRevenue = bookings.stream()
-                .filter(b -> !b.getCheckInDate().isAfter(endDate) &&
-                             !b.getCheckOutDate().isBefore(startDate) &&
-                             "CONFIRMED".equalsIgnoreCase(b.getStatus()))
-                .mapToDouble(Booking::getTotalPrice)
-                .sum();
+        double totalRevenue = rollupRepository.sumRevenue(startDate, endDate);
 
         Map<String, Double> report = new HashMap<>();
         report.put("totalRevenue", totalRevenue);
@@ -110,19 +340,8 @@ public class BookingService {
     /** ✅ NEW METHOD: Occupancy Report */
     @Transactional(readOnly = true)
     public Map<String, Double> getOccupancyReport(LocalDate startDate, LocalDate endDate) {
-        List<Booking> bookings = bookingRepository.findAll();
-        List<Room> rooms = roomRepository.findAll();
-
-        long totalRoomNights = rooms.size() * ChronoUnit.DAYS.between(startDate, endDate);
-        long bookedRoomNights = bookings.stream()
-                .filter(b -> !b.getCheckInDate().isAfter(endDate) &&
-                             !b.getCheckOutDate().isBefore(startDate) &&
-                             "CONFIRMED".equalsIgnoreCase(b.getStatus()))
-                .mapToLong(b -> ChronoUnit.DAYS.between(
-                        b.getCheckInDate().isBefore(startDate) ? startDate : b.getCheckInDate(),
-                        b.getCheckOutDate().isAfter(endDate) ? endDate : b.getCheckOutDate()
-                ))
-                .sum();
+        long totalRoomNights = roomRepository.count() * ChronoUnit.DAYS.between(startDate, endDate);
+        long bookedRoomNights = rollupRepository.sumRoomNights(startDate, endDate);
 
         double occupancyRate = totalRoomNights == 0 ? 0.0 :
                 ((double) bookedRoomNights / totalRoomNights) * 100.0;
@@ -132,7 +351,8 @@ public class BookingService {
         return report;
     }
 
-    private BookingDTO toDTO(Booking booking) {
+    // Package-private for the mapping benchmark in our_hotels_benchmarks
+    BookingDTO toDTO(Booking booking) {
         BookingDTO dto = new BookingDTO();
         dto.setBookingId(booking.getBookingId());
         dto.setUserId(booking.getUser().getUserId());
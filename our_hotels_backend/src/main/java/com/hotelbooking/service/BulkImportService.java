@@ -0,0 +1,422 @@
+package com.hotelbooking.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotelbooking.dto.HotelDTO;
+import com.hotelbooking.dto.ImportResult;
+import com.hotelbooking.dto.ImportRowError;
+import com.hotelbooking.dto.RoomDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Streams hotels or rooms from CSV or NDJSON into the database.
+ *
+ * Rows are parsed one at a time and written in chunks: each chunk is one transaction and one
+ * JDBC batch, so memory stays flat and a bad chunk never rolls back rows that were already
+ * committed. Invalid rows are reported by line number and skipped.
+ *
+ * CSV files need a header row naming HotelDTO / RoomDTO properties; hotelImages are
+ * separated by '|'. NDJSON files hold one DTO object per line.
+ */
+@Service
+public class BulkImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkImportService.class);
+
+    private static final String INSERT_HOTEL_SQL =
+            "INSERT INTO hotels (name, location, description, rating, price, room_type, latitude, longitude) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_HOTEL_IMAGE_SQL =
+            "INSERT INTO hotel_images (hotel_id, image_url) VALUES (?, ?)";
+
+    private static final String INSERT_ROOM_SQL =
+            "INSERT INTO rooms (hotel_id, room_type, price_per_night, amenities, availability_status) " +
+            "VALUES (?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private HotelService hotelService;
+
+    @Autowired
+    private HotelTextIndex textIndex;
+
+    @Autowired
+    private HotelGeoIndex geoIndex;
+
+    @Autowired
+    private CatalogVersions catalogVersions;
+
+    @Value("${import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    private record Row<T>(int line, T value) {
+    }
+
+    public ImportResult importHotels(InputStream body, String format) {
+        ImportResult result = newResult("hotels");
+        long start = System.nanoTime();
+
+        stream(body, format, HotelDTO.class, result, this::validateHotel, chunk -> {
+            List<Long> ids;
+            try {
+                ids = transactionTemplate.execute(status -> insertHotels(chunk));
+            } catch (DataAccessException e) {
+                failChunk(result, chunk, e);
+                return 0;
+            }
+            for (int i = 0; i < chunk.size(); i++) {
+                HotelDTO dto = chunk.get(i).value();
+                textIndex.index(ids.get(i), dto.getName(), dto.getLocation(), dto.getDescription());
+                geoIndex.put(ids.get(i), dto.getLatitude(), dto.getLongitude());
+            }
+            // New hotels can fall into any cached search; dropping it per committed chunk means
+            // a read error later in the body cannot leave these hidden
+            hotelService.getSearchCache().invalidateAll();
+            return chunk.size();
+        });
+
+        return finish(result, start);
+    }
+
+    public ImportResult importRooms(InputStream body, String format) {
+        ImportResult result = newResult("rooms");
+        long start = System.nanoTime();
+        // Hotels already confirmed to exist; bounded by the size of the catalogue, not the file
+        Set<Long> knownHotels = new HashSet<>();
+
+        stream(body, format, RoomDTO.class, result, this::validateRoom, chunk -> {
+            List<Row<RoomDTO>> valid = dropRoomsOfUnknownHotels(chunk, knownHotels, result);
+            if (valid.isEmpty()) {
+                return 0;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> insertRooms(valid));
+            } catch (DataAccessException e) {
+                failChunk(result, valid, e);
+                return 0;
+            }
+            valid.stream().map(row -> row.value().getHotelId()).distinct().forEach(catalogVersions::roomsChanged);
+            return valid.size();
+        });
+
+        return finish(result, start);
+    }
+
+    /** Writes one chunk in its own transaction and returns how many rows were stored. */
+    private interface ChunkWriter<T> {
+        int write(List<Row<T>> chunk);
+    }
+
+    private <T> void stream(InputStream body, String format, Class<T> type, ImportResult result,
+                            Validator<T> validator, ChunkWriter<T> writer) {
+        List<Row<T>> chunk = new ArrayList<>(chunkSize);
+        Consumer<Row<T>> accept = row -> {
+            String problem = validator.validate(row.value());
+            if (problem != null) {
+                fail(result, row.line(), problem);
+                return;
+            }
+            chunk.add(row);
+            if (chunk.size() >= chunkSize) {
+                flush(chunk, writer, result);
+            }
+        };
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            if ("ndjson".equalsIgnoreCase(format) || "jsonl".equalsIgnoreCase(format)) {
+                readNdjson(reader, type, result, accept);
+            } else if ("csv".equalsIgnoreCase(format)) {
+                readCsv(reader, type, result, accept);
+            } else {
+                throw new IllegalArgumentException("Unsupported import format: " + format + " (use csv or ndjson)");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read import body", e);
+        }
+        flush(chunk, writer, result);
+    }
+
+    private <T> void readNdjson(BufferedReader reader, Class<T> type, ImportResult result,
+                                Consumer<Row<T>> accept) throws IOException {
+        String line;
+        int lineNo = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            if (line.isBlank()) {
+                continue;
+            }
+            result.setRowsRead(result.getRowsRead() + 1);
+            T value;
+            try {
+                value = objectMapper.readValue(line, type);
+            } catch (JsonProcessingException e) {
+                fail(result, lineNo, "Invalid JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            accept.accept(new Row<>(lineNo, value));
+        }
+    }
+
+    private <T> void readCsv(BufferedReader reader, Class<T> type, ImportResult result,
+                             Consumer<Row<T>> accept) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            return;
+        }
+        header = header.stream().map(String::trim).toList();
+
+        List<String> record;
+        while ((record = csv.next()) != null) {
+            result.setRowsRead(result.getRowsRead() + 1);
+            int lineNo = csv.getRecordLine();
+            if (record.size() != header.size()) {
+                fail(result, lineNo, "Expected " + header.size() + " columns, found " + record.size());
+                continue;
+            }
+            Map<String, Object> fields = new LinkedHashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                String value = record.get(i).trim();
+                if (value.isEmpty()) {
+                    continue;
+                }
+                fields.put(header.get(i), "hotelImages".equals(header.get(i))
+                        ? Arrays.stream(value.split("\\|")).map(String::trim).filter(s -> !s.isEmpty()).toList()
+                        : value);
+            }
+            T value;
+            try {
+                value = objectMapper.convertValue(fields, type);
+            } catch (IllegalArgumentException e) {
+                fail(result, lineNo, "Invalid value: " + e.getMessage());
+                continue;
+            }
+            accept.accept(new Row<>(lineNo, value));
+        }
+    }
+
+    private <T> void flush(List<Row<T>> chunk, ChunkWriter<T> writer, ImportResult result) {
+        if (!chunk.isEmpty()) {
+            result.setImported(result.getImported() + writer.write(chunk));
+            chunk.clear();
+        }
+    }
+
+    // The chunk's transaction rolled back; earlier chunks stay committed
+    private <T> void failChunk(ImportResult result, List<Row<T>> rows, DataAccessException e) {
+        String message = "Chunk rolled back: " + e.getMostSpecificCause().getMessage();
+        logger.warn("Import chunk of {} {} failed: {}", rows.size(), result.getType(), message);
+        rows.forEach(row -> fail(result, row.line(), message));
+    }
+
+    private List<Long> insertHotels(List<Row<HotelDTO>> chunk) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(INSERT_HOTEL_SQL, new String[] {"hotel_id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        HotelDTO h = chunk.get(i).value();
+                        ps.setString(1, h.getName());
+                        ps.setString(2, h.getLocation());
+                        ps.setString(3, h.getDescription());
+                        setDouble(ps, 4, h.getRating());
+                        setDouble(ps, 5, h.getPrice());
+                        ps.setString(6, h.getRoomType());
+                        setDouble(ps, 7, h.getLatitude());
+                        setDouble(ps, 8, h.getLongitude());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return chunk.size();
+                    }
+                },
+                keys);
+
+        List<Long> ids = new ArrayList<>(chunk.size());
+        for (Map<String, Object> key : keys.getKeyList()) {
+            ids.add(((Number) key.values().iterator().next()).longValue());
+        }
+        if (ids.size() != chunk.size()) {
+            throw new IllegalStateException("Expected " + chunk.size() + " hotel ids, got " + ids.size());
+        }
+
+        List<Object[]> images = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            List<String> urls = chunk.get(i).value().getHotelImages();
+            if (urls != null) {
+                for (String url : urls) {
+                    images.add(new Object[] {ids.get(i), url});
+                }
+            }
+        }
+        if (!images.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_HOTEL_IMAGE_SQL, images);
+        }
+        return ids;
+    }
+
+    private void insertRooms(List<Row<RoomDTO>> rows) {
+        jdbcTemplate.batchUpdate(INSERT_ROOM_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                RoomDTO r = rows.get(i).value();
+                ps.setLong(1, r.getHotelId());
+                ps.setString(2, r.getRoomType());
+                setDouble(ps, 3, r.getPricePerNight());
+                ps.setString(4, r.getAmenities());
+                if (r.getAvailabilityStatus() == null) {
+                    ps.setNull(5, Types.BOOLEAN);
+                } else {
+                    ps.setBoolean(5, r.getAvailabilityStatus());
+                }
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+    }
+
+    // One IN query per chunk for hotel ids not seen yet, instead of a findById per room
+    private List<Row<RoomDTO>> dropRoomsOfUnknownHotels(List<Row<RoomDTO>> chunk, Set<Long> knownHotels,
+                                                        ImportResult result) {
+        Set<Long> unseen = new HashSet<>();
+        for (Row<RoomDTO> row : chunk) {
+            if (!knownHotels.contains(row.value().getHotelId())) {
+                unseen.add(row.value().getHotelId());
+            }
+        }
+        if (!unseen.isEmpty()) {
+            knownHotels.addAll(namedJdbcTemplate.queryForList(
+                    "SELECT hotel_id FROM hotels WHERE hotel_id IN (:ids)",
+                    Map.of("ids", unseen), Long.class));
+        }
+
+        List<Row<RoomDTO>> valid = new ArrayList<>(chunk.size());
+        for (Row<RoomDTO> row : chunk) {
+            if (knownHotels.contains(row.value().getHotelId())) {
+                valid.add(row);
+            } else {
+                fail(result, row.line(), "Hotel not found: " + row.value().getHotelId());
+            }
+        }
+        return valid;
+    }
+
+    private String validateHotel(HotelDTO hotel) {
+        if (isBlank(hotel.getName()) || isBlank(hotel.getLocation())) {
+            return "name and location are required";
+        }
+        if ((hotel.getLatitude() == null) != (hotel.getLongitude() == null)) {
+            return "latitude and longitude must be given together";
+        }
+        if (hotel.getLatitude() != null && (Math.abs(hotel.getLatitude()) > 90 || Math.abs(hotel.getLongitude()) > 180)) {
+            return "coordinates out of range";
+        }
+        if (hotel.getPrice() != null && hotel.getPrice() < 0) {
+            return "price must not be negative";
+        }
+        return null;
+    }
+
+    private String validateRoom(RoomDTO room) {
+        if (room.getHotelId() == null) {
+            return "hotelId is required";
+        }
+        if (isBlank(room.getRoomType())) {
+            return "roomType is required";
+        }
+        if (room.getPricePerNight() == null || room.getPricePerNight() < 0) {
+            return "pricePerNight must be zero or more";
+        }
+        return null;
+    }
+
+    private interface Validator<T> {
+        /** Problem description, or null when the row is valid. */
+        String validate(T value);
+    }
+
+    private ImportResult newResult(String type) {
+        ImportResult result = new ImportResult();
+        result.setType(type);
+        return result;
+    }
+
+    private void fail(ImportResult result, int line, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < maxReportedErrors) {
+            result.getErrors().add(new ImportRowError(line, message));
+        } else {
+            result.setErrorsTruncated(true);
+        }
+    }
+
+    private ImportResult finish(ImportResult result, long startNanos) {
+        long elapsedNanos = System.nanoTime() - startNanos;
+        result.setElapsedMs(elapsedNanos / 1_000_000);
+        result.setRowsPerSecond(elapsedNanos == 0 ? 0 : result.getImported() * 1e9 / elapsedNanos);
+        logger.info("Imported {} of {} {} ({} failed) in {} ms",
+                result.getImported(), result.getRowsRead(), result.getType(), result.getFailed(), result.getElapsedMs());
+        return result;
+    }
+
+    private static void setDouble(PreparedStatement ps, int index, Double value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.DOUBLE);
+        } else {
+            ps.setDouble(index, value);
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -0,0 +1,82 @@
+package com.hotelbooking.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Change counters for each hotel and for each hotel's room list, used as ETag/Last-Modified
+ * validators so unchanged reads are answered with 304 before touching the database.
+ *
+ * Counters live in memory, like the search cache: every write path that changes a hotel or its
+ * rooms must call hotelChanged/roomsChanged, and an instance only sees its own writes. Each tag
+ * therefore also carries a wall-clock generation that rolls over every
+ * hotel.http-cache.validator-window-seconds, which bounds how long another instance (or this one
+ * after a restart) can confirm a stale copy. Only hotels that changed take an entry.
+ */
+@Component
+public class CatalogVersions {
+
+    @Value("${hotel.http-cache.validator-window-seconds:600}")
+    private long windowSeconds;
+
+    private final Map<Long, State> hotels = new ConcurrentHashMap<>();
+    private final Map<Long, State> rooms = new ConcurrentHashMap<>();
+
+    public record Version(String etag, long lastModified) {
+    }
+
+    private record State(long counter, long modifiedAt) {
+    }
+
+    public Version hotel(Long hotelId) {
+        return version("h", hotelId, hotels);
+    }
+
+    public Version rooms(Long hotelId) {
+        return version("r", hotelId, rooms);
+    }
+
+    public void hotelChanged(Long hotelId) {
+        afterCommit(() -> bump(hotels, hotelId));
+    }
+
+    public void roomsChanged(Long hotelId) {
+        afterCommit(() -> bump(rooms, hotelId));
+    }
+
+    private Version version(String kind, Long hotelId, Map<Long, State> states) {
+        long windowMillis = windowSeconds * 1000;
+        long generation = System.currentTimeMillis() / windowMillis;
+        State state = states.get(hotelId);
+        long counter = state == null ? 0 : state.counter();
+        long modifiedAt = Math.max(generation * windowMillis, state == null ? 0 : state.modifiedAt());
+        return new Version("\"" + kind + hotelId + "-" + generation + "-" + counter + "\"", modifiedAt);
+    }
+
+    // A new tag must not be handed out for data a reader could still see in its old state
+    private static void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+
+    private static void bump(Map<Long, State> states, Long hotelId) {
+        if (hotelId == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        states.compute(hotelId, (id, state) -> new State(state == null ? 1 : state.counter() + 1, now));
+    }
+}
@@ -0,0 +1,69 @@
+package com.hotelbooking.service;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Expands bookings into per-night rollup deltas keyed by (hotel, room type, night).
+ * Used for a single booking on the write path and for whole-table rebuilds.
+ */
+public class DailyRollupAccumulator {
+
+    public static final String UNSPECIFIED_ROOM_TYPE = "UNSPECIFIED";
+
+    public record Key(Long hotelId, String roomType, LocalDate stayDate) {
+    }
+
+    public static final class Totals {
+        private final Key key;
+        private long roomNights;
+        private double revenue;
+        private long cancellations;
+
+        private Totals(Key key) {
+            this.key = key;
+        }
+
+        public Key getKey() { return key; }
+        public long getRoomNights() { return roomNights; }
+        public double getRevenue() { return revenue; }
+        public long getCancellations() { return cancellations; }
+    }
+
+    private final Map<Key, Totals> totals = new LinkedHashMap<>();
+
+    /** Adds (or with {@code sign = -1} removes) a stay's nights and its price spread evenly over them. */
+    public void addStay(Long hotelId, String roomType, LocalDate checkIn, LocalDate checkOut,
+                        Double totalPrice, int sign) {
+        long nights = checkOut.toEpochDay() - checkIn.toEpochDay();
+        if (nights <= 0) {
+            return;
+        }
+        double nightlyRevenue = totalPrice == null ? 0.0 : totalPrice / nights;
+        for (LocalDate night = checkIn; night.isBefore(checkOut); night = night.plusDays(1)) {
+            Totals t = totalsFor(hotelId, roomType, night);
+            t.roomNights += sign;
+            t.revenue += sign * nightlyRevenue;
+        }
+    }
+
+    public void addCancellation(Long hotelId, String roomType, LocalDate checkIn) {
+        totalsFor(hotelId, roomType, checkIn).cancellations++;
+    }
+
+    public Collection<Totals> rows() {
+        return totals.values();
+    }
+
+    public int size() {
+        return totals.size();
+    }
+
+    private Totals totalsFor(Long hotelId, String roomType, LocalDate night) {
+        Key key = new Key(hotelId == null ? 0L : hotelId,
+                roomType == null ? UNSPECIFIED_ROOM_TYPE : roomType, night);
+        return totals.computeIfAbsent(key, Totals::new);
+    }
+}
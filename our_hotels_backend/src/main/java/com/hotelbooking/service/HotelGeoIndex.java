@@ -0,0 +1,236 @@
+package com.hotelbooking.service;
+
+import com.hotelbooking.entity.Hotel;
+import com.hotelbooking.repository.HotelRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Uniform lat/lng grid over hotel coordinates.
+ *
+ * A viewport or radius query only visits the cells it overlaps, so its cost follows the
+ * number of hotels near the query rather than the size of the catalogue. Viewports that
+ * cover more cells than there are hotels are answered by a plain scan instead.
+ */
+@Component
+public class HotelGeoIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotelGeoIndex.class);
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE_LAT = 111.32;
+
+    public record Point(Long hotelId, double latitude, double longitude) {
+    }
+
+    public record Nearby(Long hotelId, double distanceKm) {
+    }
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Value("${hotel.geo.cell-degrees:0.1}")
+    private double cellDegrees = 0.1;
+
+    private int columns;
+
+    private final Map<Long, List<Point>> cells = new HashMap<>();
+    private final Map<Long, Point> points = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @PostConstruct
+    void init() {
+        columns = (int) Math.ceil(360 / cellDegrees) + 1;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+        List<Object[]> rows = hotelRepository.findAllCoordinates();
+        for (Object[] row : rows) {
+            put((Long) row[0], (Double) row[1], (Double) row[2]);
+        }
+        logger.info("Hotel geo index built for {} hotels in {} ms", rows.size(), System.currentTimeMillis() - start);
+    }
+
+    public void index(Hotel hotel) {
+        put(hotel.getHotelId(), hotel.getLatitude(), hotel.getLongitude());
+    }
+
+    /** Adds or moves a hotel; null coordinates take it off the map. */
+    public void put(Long hotelId, Double latitude, Double longitude) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(hotelId);
+            if (latitude != null && longitude != null) {
+                Point point = new Point(hotelId, latitude, longitude);
+                points.put(hotelId, point);
+                cells.computeIfAbsent(cellKey(latitude, longitude), k -> new ArrayList<>()).add(point);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long hotelId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(hotelId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Hotels inside the box. A box with {@code minLng > maxLng} crosses the antimeridian.
+     * Results are in no particular order and capped at {@code limit}.
+     */
+    public List<Point> within(double minLat, double minLng, double maxLat, double maxLng, int limit) {
+        List<Point> found = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            if (minLng > maxLng) {
+                collect(minLat, minLng, maxLat, 180, limit, found);
+                collect(minLat, -180, maxLat, maxLng, limit, found);
+            } else {
+                collect(minLat, minLng, maxLat, maxLng, limit, found);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return found;
+    }
+
+    /** Hotels within {@code radiusKm} of the point, closest first. */
+    public List<Nearby> nearby(double latitude, double longitude, double radiusKm, int limit) {
+        double latDelta = radiusKm / KM_PER_DEGREE_LAT;
+        double cos = Math.cos(Math.toRadians(latitude));
+        double lngDelta = cos < 1e-6 ? 180 : Math.min(180, radiusKm / (KM_PER_DEGREE_LAT * cos));
+        double minLat = Math.max(-90, latitude - latDelta);
+        double maxLat = Math.min(90, latitude + latDelta);
+        // Near the poles every longitude is in range
+        boolean allLongitudes = lngDelta >= 180 || minLat == -90 || maxLat == 90;
+        double minLng = allLongitudes ? -180 : wrap(longitude - lngDelta);
+        double maxLng = allLongitudes ? 180 : wrap(longitude + lngDelta);
+
+        List<Nearby> hits = new ArrayList<>();
+        for (Point point : within(minLat, minLng, maxLat, maxLng, Integer.MAX_VALUE)) {
+            double distance = distanceKm(latitude, longitude, point.latitude(), point.longitude());
+            if (distance <= radiusKm) {
+                hits.add(new Nearby(point.hotelId(), distance));
+            }
+        }
+        hits.sort(Comparator.comparingDouble(Nearby::distanceKm).thenComparing(Nearby::hotelId));
+        return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return points.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Great-circle (haversine) distance. */
+    public static double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private void collect(double minLat, double minLng, double maxLat, double maxLng, int limit, List<Point> found) {
+        int minRow = row(minLat);
+        int maxRow = row(maxLat);
+        int minCol = column(minLng);
+        int maxCol = column(maxLng);
+        long cellCount = (long) (maxRow - minRow + 1) * (maxCol - minCol + 1);
+
+        if (cellCount > points.size()) {
+            for (Point point : points.values()) {
+                if (found.size() >= limit) {
+                    return;
+                }
+                if (inside(point, minLat, minLng, maxLat, maxLng)) {
+                    found.add(point);
+                }
+            }
+            return;
+        }
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int col = minCol; col <= maxCol; col++) {
+                List<Point> cell = cells.get((long) row * columns + col);
+                if (cell == null) {
+                    continue;
+                }
+                for (Point point : cell) {
+                    if (found.size() >= limit) {
+                        return;
+                    }
+                    if (inside(point, minLat, minLng, maxLat, maxLng)) {
+                        found.add(point);
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean inside(Point p, double minLat, double minLng, double maxLat, double maxLng) {
+        return p.latitude() >= minLat && p.latitude() <= maxLat
+                && p.longitude() >= minLng && p.longitude() <= maxLng;
+    }
+
+    private void removeLocked(Long hotelId) {
+        Point old = points.remove(hotelId);
+        if (old == null) {
+            return;
+        }
+        long key = cellKey(old.latitude(), old.longitude());
+        List<Point> cell = cells.get(key);
+        if (cell != null) {
+            cell.removeIf(p -> p.hotelId().equals(hotelId));
+            if (cell.isEmpty()) {
+                cells.remove(key);
+            }
+        }
+    }
+
+    private long cellKey(double latitude, double longitude) {
+        return (long) row(latitude) * columns + column(longitude);
+    }
+
+    private int row(double latitude) {
+        return (int) Math.floor((latitude + 90) / cellDegrees);
+    }
+
+    private int column(double longitude) {
+        return (int) Math.floor((longitude + 180) / cellDegrees);
+    }
+
+    private static double wrap(double longitude) {
+        if (longitude > 180) {
+            return longitude - 360;
+        }
+        if (longitude < -180) {
+            return longitude + 360;
+        }
+        return longitude;
+    }
+}
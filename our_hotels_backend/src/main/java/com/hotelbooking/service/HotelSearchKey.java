@@ -0,0 +1,40 @@
+package com.hotelbooking.service;
+
+import com.hotelbooking.dto.HotelSort;
+import com.hotelbooking.entity.Hotel;
+
+import java.util.Locale;
+
+/**
+ * Normalized /api/hotels/search request (filters plus page position), used as the search cache key.
+ * Text filters are trimmed and lower-cased so "Goa", " goa" and "GOA" share one entry.
+ */
+public record HotelSearchKey(String location, Double priceMin, Double priceMax, String roomType,
+                             HotelSort sort, String cursor, int size) {
+
+    public static HotelSearchKey of(String location, Double priceMin, Double priceMax, String roomType,
+                                    HotelSort sort, String cursor, int size) {
+        return new HotelSearchKey(normalize(location), priceMin, priceMax, normalize(roomType), sort, cursor, size);
+    }
+
+    /** Whether a hotel in this state would appear in the results for this filter (on any page). */
+    public boolean matches(Hotel hotel) {
+        if (location != null && !location.equals(normalize(hotel.getLocation()))) {
+            return false;
+        }
+        if (priceMin != null && (hotel.getPrice() == null || hotel.getPrice() < priceMin)) {
+            return false;
+        }
+        if (priceMax != null && (hotel.getPrice() == null || hotel.getPrice() > priceMax)) {
+            return false;
+        }
+        return roomType == null || roomType.equals(normalize(hotel.getRoomType()));
+    }
+
+    private static String normalize(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,13 +1,25 @@
 package com.hotelbooking.service;
 
+import com.hotelbooking.cache.BoundedTtlCache;
+import com.hotelbooking.dto.HotelCursor;
 import com.hotelbooking.dto.HotelDTO;
+import com.hotelbooking.dto.HotelPage;
+import com.hotelbooking.dto.HotelSort;
+import com.hotelbooking.dto.HotelSummaryDTO;
+import com.hotelbooking.dto.NearbyHotel;
 import com.hotelbooking.entity.Hotel;
 import com.hotelbooking.exception.ResourceNotFoundException;
 import com.hotelbooking.repository.HotelRepository;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class HotelService {
@@ -15,35 +27,266 @@ public class HotelService {
     @Autowired
     private HotelRepository hotelRepository;
 
-    public List<Hotel> searchHotels(String location, Double priceMin, Double priceMax, String roomType) {
-        return hotelRepository.findWithFilters(location, priceMin, priceMax, roomType);
+    @Autowired
+    private HotelTextIndex textIndex;
+
+    @Autowired
+    private HotelGeoIndex geoIndex;
+
+    @Autowired
+    private CatalogVersions catalogVersions;
+
+    @Value("${hotel.search-cache.max-size:1000}")
+    private int searchCacheMaxSize;
+
+    @Value("${hotel.search-cache.ttl-ms:600000}")
+    private long searchCacheTtlMs;
+
+    @Value("${hotel.search.default-page-size:20}")
+    private int defaultPageSize;
+
+    @Value("${hotel.search.max-page-size:100}")
+    private int maxPageSize;
+
+    @Value("${hotel.text-search.max-results:50}")
+    private int maxTextResults;
+
+    @Value("${hotel.geo.max-results:500}")
+    private int maxGeoResults;
+
+    // Search pages by normalized request; writes evict only the entries the hotel falls into
+    private BoundedTtlCache<HotelSearchKey, HotelPage> searchCache;
+
+    @PostConstruct
+    void initCache() {
+        searchCache = new BoundedTtlCache<>("hotel-search", searchCacheMaxSize, searchCacheTtlMs);
+    }
+
+    public HotelPage searchHotels(String location, Double priceMin, Double priceMax, String roomType,
+                                  String sort, String cursor, Integer size) {
+        return searchHotels(location, priceMin, priceMax, roomType, null, null, sort, cursor, size);
+    }
+
+    /**
+     * With a stay, only hotels that still have a free room (of {@code roomType}, if given) for
+     * every night are returned, together with their free-room counts. Those results move with
+     * every booking, so they are computed per request rather than cached.
+     */
+    public HotelPage searchHotels(String location, Double priceMin, Double priceMax, String roomType,
+                                  LocalDate checkIn, LocalDate checkOut,
+                                  String sort, String cursor, Integer size) {
+        HotelSort order = HotelSort.fromParam(sort);
+        HotelCursor after = HotelCursor.decode(cursor);
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+
+        if (checkIn != null || checkOut != null) {
+            if (checkIn == null || checkOut == null) {
+                throw new IllegalArgumentException("Both check-in and check-out dates are required");
+            }
+            if (!checkOut.isAfter(checkIn)) {
+                throw new IllegalArgumentException("Check-out must be after check-in");
+            }
+            HotelPage page = findPage(location, priceMin, priceMax, roomType, checkIn, checkOut, order, after, pageSize);
+            List<Long> ids = page.getItems().stream().map(HotelSummaryDTO::getHotelId).toList();
+            page.setFreeRooms(hotelRepository.countFreeRooms(ids, trimToNull(roomType), checkIn, checkOut));
+            return page;
+        }
+
+        HotelSearchKey key = HotelSearchKey.of(location, priceMin, priceMax, roomType, order, cursor, pageSize);
+        return searchCache.computeIfAbsent(key,
+                k -> findPage(location, priceMin, priceMax, roomType, null, null, order, after, pageSize));
+    }
+
+    private HotelPage findPage(String location, Double priceMin, Double priceMax, String roomType,
+                               LocalDate checkIn, LocalDate checkOut,
+                               HotelSort order, HotelCursor after, int pageSize) {
+        // One extra row tells us whether another page exists
+        List<Hotel> rows = hotelRepository.findPage(trimToNull(location), priceMin, priceMax,
+                trimToNull(roomType), checkIn, checkOut, order, after, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<Hotel> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String next = hasMore ? cursorAfter(items.get(items.size() - 1), order) : null;
+        return new HotelPage(List.copyOf(toSummaries(items)), next, order.name().toLowerCase(), pageSize, null);
     }
 
+    /** Free-text search over name, location and description, best matches first. */
+    public List<HotelSummaryDTO> searchText(String query, Integer limit) {
+        int max = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxTextResults));
+        List<HotelTextIndex.Match> matches = textIndex.search(query, max);
+        return loadInOrder(matches.stream().map(HotelTextIndex.Match::hotelId).toList());
+    }
+
+    public List<String> suggest(String prefix, Integer limit) {
+        return textIndex.suggest(prefix, limit == null ? 8 : Math.max(1, Math.min(limit, maxTextResults)));
+    }
+
+    /** Hotels inside a map viewport; {@code minLng > maxLng} means it crosses the antimeridian. */
+    public List<HotelSummaryDTO> searchWithin(double minLat, double minLng, double maxLat, double maxLng, Integer limit) {
+        requireCoordinates(minLat, minLng);
+        requireCoordinates(maxLat, maxLng);
+        if (minLat > maxLat) {
+            throw new IllegalArgumentException("minLat must not be greater than maxLat");
+        }
+        List<HotelGeoIndex.Point> points = geoIndex.within(minLat, minLng, maxLat, maxLng, geoLimit(limit));
+        return loadInOrder(points.stream().map(HotelGeoIndex.Point::hotelId).toList());
+    }
+
+    /** Hotels within {@code radiusKm} of a point, closest first. */
+    public List<NearbyHotel> searchNearby(double lat, double lng, double radiusKm, Integer limit) {
+        requireCoordinates(lat, lng);
+        if (!(radiusKm > 0)) {
+            throw new IllegalArgumentException("radiusKm must be positive");
+        }
+        List<HotelGeoIndex.Nearby> hits = geoIndex.nearby(lat, lng, radiusKm, geoLimit(limit));
+        List<HotelSummaryDTO> hotels = loadInOrder(hits.stream().map(HotelGeoIndex.Nearby::hotelId).toList());
+        Map<Long, HotelSummaryDTO> byId = new HashMap<>();
+        hotels.forEach(h -> byId.put(h.getHotelId(), h));
+        List<NearbyHotel> result = new ArrayList<>(hits.size());
+        for (HotelGeoIndex.Nearby hit : hits) {
+            HotelSummaryDTO hotel = byId.get(hit.hotelId());
+            if (hotel != null) {
+                result.add(new NearbyHotel(hotel, hit.distanceKm()));
+            }
+        }
+        return result;
+    }
+
+    private int geoLimit(Integer limit) {
+        return limit == null ? maxGeoResults : Math.max(1, Math.min(limit, maxGeoResults));
+    }
+
+    private static void requireCoordinates(Double lat, Double lng) {
+        if (lat == null && lng == null) {
+            return;
+        }
+        if (lat == null || lng == null || lat < -90 || lat > 90 || lng < -180 || lng > 180) {
+            throw new IllegalArgumentException("Invalid coordinates: " + lat + ", " + lng);
+        }
+    }
+
+    // One IN query for the page, returned in the index's order
+    private List<HotelSummaryDTO> loadInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Hotel> byId = new HashMap<>();
+        hotelRepository.findAllById(ids).forEach(h -> byId.put(h.getHotelId(), h));
+        List<Hotel> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Hotel hotel = byId.get(id);
+            if (hotel != null) {
+                ordered.add(hotel);
+            }
+        }
+        return toSummaries(ordered);
+    }
+
+    // Two statements per page at most: the hotels (already loaded) plus one thumbnail query
+    private List<HotelSummaryDTO> toSummaries(List<Hotel> hotels) {
+        if (hotels.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, String> thumbnails = new HashMap<>();
+        for (Object[] row : hotelRepository.findThumbnails(hotels.stream().map(Hotel::getHotelId).toList())) {
+            thumbnails.put((Long) row[0], (String) row[1]);
+        }
+        List<HotelSummaryDTO> summaries = new ArrayList<>(hotels.size());
+        for (Hotel hotel : hotels) {
+            HotelSummaryDTO dto = new HotelSummaryDTO();
+            dto.setHotelId(hotel.getHotelId());
+            dto.setName(hotel.getName());
+            dto.setLocation(hotel.getLocation());
+            dto.setDescription(hotel.getDescription());
+            dto.setRating(hotel.getRating());
+            dto.setPrice(hotel.getPrice());
+            dto.setRoomType(hotel.getRoomType());
+            dto.setLatitude(hotel.getLatitude());
+            dto.setLongitude(hotel.getLongitude());
+            dto.setThumbnail(thumbnails.get(hotel.getHotelId()));
+            summaries.add(dto);
+        }
+        return summaries;
+    }
+
+    private String cursorAfter(Hotel last, HotelSort order) {
+        Object value = order.valueOf(last);
+        return new HotelCursor(last.getHotelId(), value == null ? null : value.toString()).encode();
+    }
+
+    public BoundedTtlCache<HotelSearchKey, HotelPage> getSearchCache() {
+        return searchCache;
+    }
+
+    /** Full hotel including its images, for the detail view and edits. */
     public Hotel getById(Long id) {
-        return hotelRepository.findById(id)
+        return hotelRepository.findWithImagesByHotelId(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Hotel not found with id: " + id));
     }
 
     public Hotel add(HotelDTO hotelDTO) {
+        requireCoordinates(hotelDTO.getLatitude(), hotelDTO.getLongitude());
         Hotel hotel = mapToEntity(hotelDTO);
-        return hotelRepository.save(hotel);
+        Hotel saved = hotelRepository.save(hotel);
+        textIndex.index(saved);
+        geoIndex.index(saved);
+        evictSearches(saved);
+        return saved;
     }
 
     public Hotel update(Long id, HotelDTO hotelDTO) {
+        requireCoordinates(hotelDTO.getLatitude(), hotelDTO.getLongitude());
         Hotel hotel = getById(id);
+        Hotel before = snapshot(hotel);
         hotel.setName(hotelDTO.getName());
         hotel.setLocation(hotelDTO.getLocation());
         hotel.setDescription(hotelDTO.getDescription());
         hotel.setRating(hotelDTO.getRating());
         hotel.setPrice(hotelDTO.getPrice());
         hotel.setRoomType(hotelDTO.getRoomType());
+        hotel.setLatitude(hotelDTO.getLatitude());
+        hotel.setLongitude(hotelDTO.getLongitude());
         hotel.setHotelImages(hotelDTO.getHotelImages());
-        return hotelRepository.save(hotel);
+        Hotel saved = hotelRepository.save(hotel);
+        textIndex.index(saved);
+        geoIndex.index(saved);
+        evictSearches(before, saved);
+        catalogVersions.hotelChanged(id);
+        return saved;
     }
 
     public void delete(Long id) {
         Hotel hotel = getById(id);
         hotelRepository.delete(hotel);
+        textIndex.remove(id);
+        geoIndex.remove(id);
+        evictSearches(hotel);
+        catalogVersions.hotelChanged(id);
+        catalogVersions.roomsChanged(id);
+    }
+
+    // A cached result can only change if the hotel matched it before or matches it now
+    private void evictSearches(Hotel... states) {
+        searchCache.invalidateIf((key, results) -> {
+            for (Hotel state : states) {
+                if (key.matches(state)) {
+                    return true;
+                }
+            }
+            return false;
+        });
+    }
+
+    private Hotel snapshot(Hotel hotel) {
+        Hotel copy = new Hotel();
+        copy.setHotelId(hotel.getHotelId());
+        copy.setLocation(hotel.getLocation());
+        copy.setPrice(hotel.getPrice());
+        copy.setRoomType(hotel.getRoomType());
+        return copy;
+    }
+
+    private static String trimToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
     }
 
     private Hotel mapToEntity(HotelDTO dto) {
@@ -54,6 +297,8 @@ public class HotelService {
         hotel.setRating(dto.getRating());
         hotel.setPrice(dto.getPrice());
         hotel.setRoomType(dto.getRoomType());
+        hotel.setLatitude(dto.getLatitude());
+        hotel.setLongitude(dto.getLongitude());
         hotel.setHotelImages(dto.getHotelImages());
         return hotel;
     }
@@ -0,0 +1,316 @@
+package com.hotelbooking.service;
+
+import com.hotelbooking.entity.Hotel;
+import com.hotelbooking.repository.HotelRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-process inverted index over hotel name, location and description.
+ *
+ * Terms live in a sorted map so a prefix is a single sub-map range, which is what makes
+ * autocomplete cheap. A one-character prefix can cover a large share of all terms, so those
+ * are answered from terms kept ranked per first character instead of walking the range.
+ * Every query term must match (AND); the last term also matches as a prefix so results
+ * update while the user is still typing. Scores are field-weighted term frequencies scaled
+ * by inverse document frequency.
+ */
+@Component
+public class HotelTextIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotelTextIndex.class);
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private static final float NAME_WEIGHT = 3f;
+    private static final float LOCATION_WEIGHT = 2f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+
+    public record Match(Long hotelId, double score) {
+    }
+
+    // A completion and how many hotels use it; most widespread first, then alphabetical
+    private record Ranked(String term, int hotels) {
+    }
+
+    private static final Comparator<Ranked> BY_RANK =
+            Comparator.comparingInt(Ranked::hotels).reversed().thenComparing(Ranked::term);
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    // term -> (hotelId -> weighted term frequency)
+    private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    // hotelId -> terms it was indexed under, so updates can retract old postings
+    private final Map<Long, Set<String>> documentTerms = new HashMap<>();
+    // first character -> its terms in suggestion order, kept in step with postings
+    private final Map<Character, TreeSet<Ranked>> rankedByFirstChar = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+        List<Object[]> rows = hotelRepository.findAllForTextIndex();
+        for (Object[] row : rows) {
+            index((Long) row[0], (String) row[1], (String) row[2], (String) row[3]);
+        }
+        logger.info("Hotel text index built for {} hotels ({} terms) in {} ms",
+                rows.size(), termCount(), System.currentTimeMillis() - start);
+    }
+
+    public void index(Hotel hotel) {
+        index(hotel.getHotelId(), hotel.getName(), hotel.getLocation(), hotel.getDescription());
+    }
+
+    public void index(Long hotelId, String name, String location, String description) {
+        Map<String, Float> weights = new HashMap<>();
+        addField(weights, name, NAME_WEIGHT);
+        addField(weights, location, LOCATION_WEIGHT);
+        addField(weights, description, DESCRIPTION_WEIGHT);
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(hotelId);
+            weights.forEach((term, weight) -> {
+                Map<Long, Float> docs = postings.computeIfAbsent(term, t -> new HashMap<>());
+                int before = docs.size();
+                docs.put(hotelId, weight);
+                rerank(term, before, docs.size());
+            });
+            documentTerms.put(hotelId, weights.keySet());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long hotelId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(hotelId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Ranked hotels matching every term of {@code query}, the last one as a prefix. */
+    public List<Match> search(String query, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            int documents = Math.max(1, documentTerms.size());
+            Map<Long, Double> scores = null;
+
+            for (int i = 0; i < terms.size(); i++) {
+                boolean prefix = i == terms.size() - 1;
+                Map<Long, Double> termScores = scoreTerm(terms.get(i), prefix, documents);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    // AND: keep only hotels that matched every earlier term as well
+                    scores.keySet().retainAll(termScores.keySet());
+                    Map<Long, Double> current = scores;
+                    termScores.forEach((id, s) -> current.computeIfPresent(id, (k, v) -> v + s));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+            return topMatches(scores, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Completions for what the user has typed so far: the last term is completed with the
+     * indexed terms that start with it, most widespread first, earlier terms are kept as typed.
+     */
+    public List<String> suggest(String query, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        String prefix = terms.get(terms.size() - 1);
+        String lead = String.join(" ", terms.subList(0, terms.size() - 1));
+        if (prefix.length() == 1) {
+            return suggestFirstChar(prefix.charAt(0), lead, limit);
+        }
+
+        PriorityQueue<Map.Entry<String, Integer>> best = new PriorityQueue<>(
+                (a, b) -> a.getValue().equals(b.getValue())
+                        ? b.getKey().compareTo(a.getKey())
+                        : Integer.compare(a.getValue(), b.getValue()));
+
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<String, Map<Long, Float>> entry : prefixRange(prefix).entrySet()) {
+                best.offer(Map.entry(entry.getKey(), entry.getValue().size()));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<String> suggestions = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            String term = best.poll().getKey();
+            suggestions.add(lead.isEmpty() ? term : lead + " " + term);
+        }
+        Collections.reverse(suggestions);
+        return suggestions;
+    }
+
+    private List<String> suggestFirstChar(char first, String lead, int limit) {
+        List<String> suggestions = new ArrayList<>(limit);
+        lock.readLock().lock();
+        try {
+            TreeSet<Ranked> ranked = rankedByFirstChar.get(first);
+            if (ranked != null) {
+                for (Ranked entry : ranked) {
+                    if (suggestions.size() == limit) {
+                        break;
+                    }
+                    suggestions.add(lead.isEmpty() ? entry.term() : lead + " " + entry.term());
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return suggestions;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentTerms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        List<String> tokens = new ArrayList<>();
+        for (String token : NON_WORD.split(folded.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private Map<Long, Double> scoreTerm(String term, boolean prefix, int documents) {
+        Map<Long, Double> scores = new HashMap<>();
+        Map<String, Map<Long, Float>> matches = prefix ? prefixRange(term) : exact(term);
+        for (Map<Long, Float> docs : matches.values()) {
+            double idf = Math.log(1.0 + (double) documents / docs.size());
+            // A hotel matching several completions of a prefix keeps its best one
+            docs.forEach((id, weight) -> scores.merge(id, weight * idf, Math::max));
+        }
+        return scores;
+    }
+
+    private Map<String, Map<Long, Float>> exact(String term) {
+        Map<Long, Float> docs = postings.get(term);
+        return docs == null ? Map.of() : Map.of(term, docs);
+    }
+
+    private NavigableMap<String, Map<Long, Float>> prefixRange(String prefix) {
+        return postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private List<Match> topMatches(Map<Long, Double> scores, int limit) {
+        PriorityQueue<Match> best = new PriorityQueue<>(
+                (a, b) -> a.score() == b.score()
+                        ? Long.compare(b.hotelId(), a.hotelId())
+                        : Double.compare(a.score(), b.score()));
+        scores.forEach((id, score) -> {
+            best.offer(new Match(id, score));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        });
+        List<Match> ranked = new ArrayList<>(best);
+        ranked.sort((a, b) -> a.score() == b.score()
+                ? Long.compare(a.hotelId(), b.hotelId())
+                : Double.compare(b.score(), a.score()));
+        return ranked;
+    }
+
+    private void addField(Map<String, Float> weights, String text, float weight) {
+        for (String token : tokenize(text)) {
+            weights.merge(token, weight, Float::sum);
+        }
+    }
+
+    private void removeLocked(Long hotelId) {
+        Set<String> terms = documentTerms.remove(hotelId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<Long, Float> docs = postings.get(term);
+            if (docs != null) {
+                int before = docs.size();
+                docs.remove(hotelId);
+                rerank(term, before, docs.size());
+                if (docs.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    // Caller holds the write lock
+    private void rerank(String term, int before, int after) {
+        if (before == after) {
+            return;
+        }
+        TreeSet<Ranked> ranked = rankedByFirstChar.computeIfAbsent(term.charAt(0), c -> new TreeSet<>(BY_RANK));
+        ranked.remove(new Ranked(term, before));
+        if (after > 0) {
+            ranked.add(new Ranked(term, after));
+        } else if (ranked.isEmpty()) {
+            rankedByFirstChar.remove(term.charAt(0));
+        }
+    }
+}
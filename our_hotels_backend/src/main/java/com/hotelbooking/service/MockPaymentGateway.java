@@ -0,0 +1,63 @@
+package com.hotelbooking.service;
+
+import com.hotelbooking.cache.BoundedTtlCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Local stand-in for a real provider: approves after a fixed delay, declining a configurable share
+@Component
+@ConditionalOnProperty(name = "payments.gateway", havingValue = "mock", matchIfMissing = true)
+public class MockPaymentGateway implements PaymentGateway {
+
+    @Value("${payments.mock.latency-ms:200}")
+    private long latencyMs;
+
+    @Value("${payments.mock.decline-rate:0}")
+    private double declineRate;
+
+    // Same key, same outcome, like a real provider's idempotency window. The first caller for a key
+    // registers its future before charging, so concurrent callers wait for that charge instead of
+    // making their own.
+    private final BoundedTtlCache<String, CompletableFuture<Result>> outcomes =
+            new BoundedTtlCache<>("mock-gateway", 10_000, 86_400_000L);
+
+    @Override
+    public Result charge(String idempotencyKey, Long bookingId, double amount) {
+        CompletableFuture<Result> mine = new CompletableFuture<>();
+        CompletableFuture<Result> first = outcomes.putIfAbsent(idempotencyKey, mine);
+        if (first != null) {
+            return first.join();
+        }
+        try {
+            Result result = decide(amount);
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            // Nothing was charged: let the next attempt under this key try again
+            outcomes.invalidate(idempotencyKey);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private Result decide(double amount) {
+        try {
+            Thread.sleep(latencyMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while charging");
+        }
+        if (amount <= 0) {
+            return Result.declined("Amount must be positive");
+        }
+        if (declineRate > 0 && ThreadLocalRandom.current().nextDouble() < declineRate) {
+            return Result.declined("Card declined");
+        }
+        return Result.approved("mock_" + UUID.randomUUID());
+    }
+}
@@ -0,0 +1,25 @@
+package com.hotelbooking.service;
+
+/**
+ * Charges a payment with an external provider. Called from PaymentProcessor's worker threads,
+ * never on a request thread, so implementations may block on the network.
+ *
+ * The idempotency key is passed through so the provider can deduplicate a charge that is
+ * submitted twice (e.g. when pending payments are resumed after a restart).
+ */
+public interface PaymentGateway {
+
+    Result charge(String idempotencyKey, Long bookingId, double amount);
+
+    /** approved with the provider's reference, or declined with a reason. */
+    record Result(boolean approved, String reference, String declineReason) {
+
+        public static Result approved(String reference) {
+            return new Result(true, reference, null);
+        }
+
+        public static Result declined(String reason) {
+            return new Result(false, null, reason);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.hotelbooking.service;
+
+import com.hotelbooking.entity.Payment;
+import com.hotelbooking.repository.PaymentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Charges PENDING payments on a fixed pool of payments.workers threads fed by a queue of at most
+ * payments.queue-capacity payments. Gateway latency therefore never holds a request thread, and a
+ * slow gateway backs up this queue instead of Tomcat. The workers are virtual threads when
+ * spring.threads.virtual.enabled is set, like the request threads.
+ *
+ * A payment that finds the queue full is marked FAILED straight away so the client can resubmit;
+ * payments still PENDING at startup (queued when the previous instance stopped) are resumed.
+ * Several instances can share the table, so a worker first claims the row (PENDING -> PROCESSING
+ * in one conditional UPDATE) and only the winner calls the gateway. Claims older than
+ * payments.processing-timeout-ms belong to an instance that died mid-charge and are resumed too;
+ * charging again is safe because the gateway dedupes on the idempotency key.
+ */
+@Component
+public class PaymentProcessor {
+    private static final Logger logger = LoggerFactory.getLogger(PaymentProcessor.class);
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+    @Autowired
+    private PaymentGateway gateway;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${payments.workers:4}")
+    private int workers;
+
+    @Value("${payments.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${payments.processing-timeout-ms:300000}")
+    private long processingTimeoutMs;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    void start() {
+        ThreadFactory threads;
+        if (virtualThreads) {
+            // The pool still caps concurrent charges at payments.workers; a worker blocked on the
+            // gateway just no longer holds a carrier thread
+            threads = Thread.ofVirtual().name("payment-", 1).factory();
+        } else {
+            AtomicInteger count = new AtomicInteger();
+            threads = r -> {
+                Thread thread = new Thread(r, "payment-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+        }
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threads);
+        executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "payments");
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        // Anything still queued stays PENDING and is resumed on the next start
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePending() {
+        int stale = paymentRepository.releaseStale(LocalDateTime.now().minusNanos(processingTimeoutMs * 1_000_000));
+        if (stale > 0) {
+            logger.warn("Resuming {} payments left PROCESSING by a stopped instance", stale);
+        }
+        for (Payment payment : paymentRepository.findByStatus(PaymentService.PENDING)) {
+            enqueue(payment);
+        }
+    }
+
+    /** Hands a committed PENDING payment to the workers; returns it FAILED if the queue is full. */
+    public Payment enqueue(Payment payment) {
+        Long paymentId = payment.getPaymentId();
+        try {
+            executor.execute(() -> charge(paymentId));
+            return payment;
+        } catch (RejectedExecutionException e) {
+            logger.warn("Payment queue full, failing payment {}", paymentId);
+            // Conditional: another instance may already be charging a resumed payment
+            paymentRepository.failPending(paymentId, "Payment queue is full; please try again", LocalDateTime.now());
+            return paymentRepository.findById(paymentId).orElse(payment);
+        }
+    }
+
+    private void charge(Long paymentId) {
+        if (paymentRepository.claim(paymentId, LocalDateTime.now()) == 0) {
+            return;
+        }
+        Payment payment = paymentRepository.findById(paymentId).orElse(null);
+        if (payment == null) {
+            return;
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            PaymentGateway.Result result = gateway.charge(payment.getIdempotencyKey(),
+                    payment.getBooking().getBookingId(), payment.getAmount());
+            outcome = result.approved() ? "approved" : "declined";
+            if (result.approved()) {
+                finish(payment, PaymentService.COMPLETED, result.reference(), null);
+            } else {
+                finish(payment, PaymentService.FAILED, null, result.declineReason());
+            }
+        } catch (RuntimeException e) {
+            if (Thread.currentThread().isInterrupted()) {
+                // Shutting down: hand it back as PENDING for resumePending on the next start. The
+                // flag is cleared for the UPDATE, which would otherwise fail to borrow a connection
+                Thread.interrupted();
+                paymentRepository.release(paymentId);
+                Thread.currentThread().interrupt();
+                return;
+            }
+            logger.warn("Gateway call for payment {} failed", paymentId, e);
+            finish(payment, PaymentService.FAILED, null, "Payment provider unavailable; please try again");
+        } finally {
+            sample.stop(meterRegistry.timer("payments.gateway", "outcome", outcome));
+        }
+    }
+
+    private Payment finish(Payment payment, String status, String reference, String failureReason) {
+        payment.setStatus(status);
+        payment.setGatewayReference(reference);
+        payment.setFailureReason(failureReason);
+        payment.setClaimedAt(null);
+        payment.setPaymentDate(LocalDateTime.now());
+        return paymentRepository.save(payment);
+    }
+}
@@ -1,34 +1,142 @@
 package com.hotelbooking.service;
 
+import com.hotelbooking.config.AuthenticatedUser;
 import com.hotelbooking.dto.PaymentDTO;
 import com.hotelbooking.entity.Booking;
 import com.hotelbooking.entity.Payment;
 import com.hotelbooking.exception.ResourceNotFoundException;
 import com.hotelbooking.repository.BookingRepository;
 import com.hotelbooking.repository.PaymentRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
 
 @Service
 public class PaymentService {
+    public static final String PENDING = "PENDING";
+    public static final String PROCESSING = "PROCESSING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
     @Autowired
     private PaymentRepository paymentRepository;
     @Autowired
     private BookingRepository bookingRepository;
+    @Autowired
+    private PaymentProcessor paymentProcessor;
+
+    /**
+     * Records the payment as PENDING and queues it for the gateway; the caller polls for the
+     * outcome. A booking has at most one payment: resubmitting with the same idempotency key
+     * returns that payment, and so does any submission while it is PENDING, PROCESSING or COMPLETED. Only a
+     * FAILED payment is retried, and only under a new key. Without a key one is generated, so
+     * such clients still get one payment per booking but no replay of a lost response.
+     * Callers can only pay for their own bookings; anyone else's look the same as missing ones.
+     */
+    @Timed(value = "payments.process", histogram = true)
+    public Payment process(PaymentDTO paymentDTO, String idempotencyKey) {
+        if (paymentDTO.getBookingId() == null) {
+            throw new IllegalArgumentException("Booking is required");
+        }
+        String key = idempotencyKey == null || idempotencyKey.isBlank() ? UUID.randomUUID().toString() : idempotencyKey.trim();
+        if (key.length() > 100) {
+            throw new IllegalArgumentException("Idempotency key is too long");
+        }
+        Long callerId = callerId();
+        Booking booking = bookingRepository.findById(paymentDTO.getBookingId())
+                .filter(b -> b.getUser().getUserId().equals(callerId))
+                .orElseThrow(() -> new ResourceNotFoundException("Booking not found"));
+
+        Optional<Payment> replay = paymentRepository.findByIdempotencyKey(key);
+        if (replay.isPresent()) {
+            return sameBooking(replay.get(), booking.getBookingId());
+        }
+
+        Double amount = paymentDTO.getAmount() != null ? paymentDTO.getAmount() : booking.getTotalPrice();
+        Payment existing = paymentRepository.findForBooking(booking.getBookingId());
+        if (existing != null) {
+            if (!FAILED.equals(existing.getStatus())
+                    || paymentRepository.reopenFailed(existing.getPaymentId(), key, amount) == 0) {
+                return paymentRepository.findById(existing.getPaymentId()).orElse(existing);
+            }
+            return paymentProcessor.enqueue(paymentRepository.findById(existing.getPaymentId()).orElseThrow());
+        }
 
-    public Payment process(PaymentDTO paymentDTO) {
-        Booking booking = bookingRepository.findById(paymentDTO.getBookingId()).orElseThrow(() -> new ResourceNotFoundException("Booking not found"));
         Payment payment = new Payment();
         payment.setBooking(booking);
-        payment.setAmount(paymentDTO.getAmount());
-        payment.setStatus("COMPLETED"); // Mock success
-        payment.setPaymentDate(LocalDateTime.now());
-        return paymentRepository.save(payment);
+        payment.setAmount(amount);
+        payment.setStatus(PENDING);
+        payment.setIdempotencyKey(key);
+        try {
+            payment = paymentRepository.saveAndFlush(payment);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent submission with the same key or for the same booking inserted first
+            Payment winner = paymentRepository.findByIdempotencyKey(key)
+                    .map(p -> sameBooking(p, booking.getBookingId()))
+                    .orElseGet(() -> paymentRepository.findForBooking(booking.getBookingId()));
+            if (winner == null) {
+                throw e;
+            }
+            return winner;
+        }
+        return paymentProcessor.enqueue(payment);
     }
 
     public Payment getByBooking(Long bookingId) {
-        return paymentRepository.findByBookingBookingId(bookingId);
+        return paymentRepository.findForBooking(bookingId);
+    }
+
+    public Payment getById(Long paymentId) {
+        return paymentRepository.findById(paymentId).orElseThrow(() -> new ResourceNotFoundException("Payment not found"));
+    }
+
+    // Payment and booking ids are sequential, so callers only ever see payments for their own bookings;
+    // anyone else's look the same as missing ones
+    public Payment getOwnedById(Long paymentId) {
+        return paymentRepository.findByPaymentIdAndBookingUserUserId(paymentId, callerId())
+                .orElseThrow(() -> new ResourceNotFoundException("Payment not found"));
+    }
+
+    public Payment getOwnedByBooking(Long bookingId) {
+        Long callerId = callerId();
+        Payment payment = getByBooking(bookingId);
+        if (payment != null && !payment.getBooking().getUser().getUserId().equals(callerId)) {
+            throw new ResourceNotFoundException("Payment not found");
+        }
+        return payment;
+    }
+
+    public static boolean inFlight(String status) {
+        return PENDING.equals(status) || PROCESSING.equals(status);
+    }
+
+    private static Long callerId() {
+        return AuthenticatedUser.current().map(AuthenticatedUser::userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Payment not found"));
+    }
+
+    private static Payment sameBooking(Payment payment, Long bookingId) {
+        if (!payment.getBooking().getBookingId().equals(bookingId)) {
+            throw new IllegalArgumentException("Idempotency key was already used for another booking");
+        }
+        return payment;
+    }
+
+    // Responses carry the booking id only; serializing the entity would walk its lazy booking graph
+    public PaymentDTO toDTO(Payment payment) {
+        if (payment == null) {
+            return null;
+        }
+        PaymentDTO dto = new PaymentDTO();
+        dto.setPaymentId(payment.getPaymentId());
+        dto.setBookingId(payment.getBooking().getBookingId());
+        dto.setAmount(payment.getAmount());
+        dto.setStatus(payment.getStatus());
+        dto.setFailureReason(payment.getFailureReason());
+        return dto;
     }
-}
\ No newline at end of file
+}
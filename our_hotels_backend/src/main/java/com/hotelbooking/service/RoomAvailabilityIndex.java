@@ -0,0 +1,125 @@
+package com.hotelbooking.service;
+
+import com.hotelbooking.repository.BookingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory per-room night calendar of CONFIRMED bookings.
+ *
+ * Each room keeps one bit per night, counted from the day the index was loaded
+ * (the "horizon"). Nights before the horizon are never tracked, so callers must
+ * check {@link #covers(LocalDate)} and fall back to the database for past dates.
+ * The database stays the source of truth: the index only short-circuits reads.
+ */
+@Component
+public class RoomAvailabilityIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoomAvailabilityIndex.class);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private final Map<Long, RoomCalendar> calendars = new ConcurrentHashMap<>();
+
+    private volatile long horizonDay = LocalDate.now().toEpochDay();
+    private volatile boolean ready = false;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+        LocalDate horizon = LocalDate.ofEpochDay(horizonDay);
+
+        List<Object[]> stays = bookingRepository.findConfirmedStaysEndingAfter(horizon);
+        for (Object[] stay : stays) {
+            markBooked((Long) stay[0], (LocalDate) stay[1], (LocalDate) stay[2]);
+        }
+        ready = true;
+
+        logger.info("Room availability index loaded {} confirmed stays for {} rooms in {} ms",
+                stays.size(), calendars.size(), System.currentTimeMillis() - start);
+    }
+
+    /** True when the index is loaded and can answer for stays starting on {@code checkIn}. */
+    public boolean covers(LocalDate checkIn) {
+        return ready && checkIn.toEpochDay() >= horizonDay;
+    }
+
+    public boolean isFree(Long roomId, LocalDate checkIn, LocalDate checkOut) {
+        RoomCalendar calendar = calendars.get(roomId);
+        return calendar == null || calendar.isFree(offset(checkIn), offset(checkOut));
+    }
+
+    public void markBooked(Long roomId, LocalDate checkIn, LocalDate checkOut) {
+        int from = offset(checkIn);
+        int to = offset(checkOut);
+        if (to > from) {
+            calendars.computeIfAbsent(roomId, id -> new RoomCalendar()).set(from, to, true);
+        }
+    }
+
+    public void release(Long roomId, LocalDate checkIn, LocalDate checkOut) {
+        RoomCalendar calendar = calendars.get(roomId);
+        int from = offset(checkIn);
+        int to = offset(checkOut);
+        if (calendar != null && to > from) {
+            calendar.set(from, to, false);
+        }
+    }
+
+    public void forget(Long roomId) {
+        calendars.remove(roomId);
+    }
+
+    // Index updates must only become visible once the booking row is committed
+    public void markBookedAfterCommit(Long roomId, LocalDate checkIn, LocalDate checkOut) {
+        afterCommit(() -> markBooked(roomId, checkIn, checkOut));
+    }
+
+    public void releaseAfterCommit(Long roomId, LocalDate checkIn, LocalDate checkOut) {
+        afterCommit(() -> release(roomId, checkIn, checkOut));
+    }
+
+    private void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+
+    // Nights before the horizon clip to bit 0; they are never answered from the index anyway
+    private int offset(LocalDate date) {
+        return (int) Math.max(0, date.toEpochDay() - horizonDay);
+    }
+
+    private static final class RoomCalendar {
+        private final BitSet nights = new BitSet();
+
+        synchronized boolean isFree(int from, int to) {
+            int next = nights.nextSetBit(from);
+            return next < 0 || next >= to;
+        }
+
+        synchronized void set(int from, int to, boolean booked) {
+            nights.set(from, to, booked);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.hotelbooking.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * One in-process lock per room, so bookings for different rooms never wait on each other.
+ *
+ * The lock is held around the whole booking transaction (check, insert and commit), which
+ * closes the check-then-insert window inside this JVM without tying up a pooled connection
+ * while waiting. The pessimistic room row lock taken in the transaction covers other instances.
+ */
+@Component
+public class RoomLocks {
+
+    private final Map<Long, ReentrantLock> locks = new ConcurrentHashMap<>();
+
+    @Value("${booking.lock-timeout-ms:5000}")
+    private long lockTimeoutMs;
+
+    public <T> T withRoomLock(Long roomId, Supplier<T> action) {
+        ReentrantLock lock = locks.computeIfAbsent(roomId, id -> new ReentrantLock());
+        acquire(lock);
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Holds every room's lock around {@code action}. Locks are taken in ascending room id
+     * order, so two overlapping group bookings cannot deadlock each other.
+     */
+    public <T> T withRoomLocks(Collection<Long> roomIds, Supplier<T> action) {
+        List<ReentrantLock> held = new ArrayList<>(roomIds.size());
+        try {
+            for (Long roomId : new TreeSet<>(roomIds)) {
+                ReentrantLock lock = locks.computeIfAbsent(roomId, id -> new ReentrantLock());
+                acquire(lock);
+                held.add(lock);
+            }
+            return action.get();
+        } finally {
+            for (int i = held.size() - 1; i >= 0; i--) {
+                held.get(i).unlock();
+            }
+        }
+    }
+
+    private void acquire(ReentrantLock lock) {
+        try {
+            if (!lock.tryLock(lockTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new RuntimeException("Room is busy, please retry");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for room lock", e);
+        }
+    }
+
+    public void forget(Long roomId) {
+        locks.remove(roomId);
+    }
+}
@@ -1,15 +1,24 @@
 package com.hotelbooking.service;
 
 import com.hotelbooking.dto.RoomDTO;
+import com.hotelbooking.dto.RoomsByHotelPage;
 import com.hotelbooking.entity.Hotel;
 import com.hotelbooking.entity.Room;
 import com.hotelbooking.exception.ResourceNotFoundException;
 import com.hotelbooking.repository.HotelRepository;
 import com.hotelbooking.repository.RoomRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 @Service
 public class RoomService {
@@ -17,12 +26,62 @@ public class RoomService {
     private RoomRepository roomRepository;
     @Autowired
     private HotelRepository hotelRepository;
+    @Autowired
+    private RoomAvailabilityIndex availabilityIndex;
+    @Autowired
+    private RoomLocks roomLocks;
+    @Autowired
+    private CatalogVersions catalogVersions;
+
+    @Value("${room.batch.max-hotels:500}")
+    private int maxBatchHotels;
+
+    public List<RoomDTO> getRoomsByHotel(Long hotelId) {
+        return roomRepository.findDtosByHotelId(hotelId);
+    }
 
-    public List<Room> getRoomsByHotel(Long hotelId) {
-        return roomRepository.findByHotelHotelId(hotelId);
+    /**
+     * Rooms of every requested hotel from a single statement, keyed in request order. Unknown
+     * hotels and hotels without rooms map to an empty list rather than being left out.
+     */
+    public Map<Long, List<RoomDTO>> getRoomsByHotels(Collection<Long> hotelIds) {
+        if (hotelIds == null || hotelIds.isEmpty() || hotelIds.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("At least one hotel id is required");
+        }
+        LinkedHashSet<Long> ids = new LinkedHashSet<>(hotelIds);
+        if (ids.size() > maxBatchHotels) {
+            throw new IllegalArgumentException("At most " + maxBatchHotels + " hotels can be requested at once");
+        }
+        return groupByHotel(ids);
     }
 
-    public Room add(RoomDTO roomDTO) {
+    /**
+     * The whole catalog, {@code hotels} hotels per page in id order: one statement for the page
+     * of hotel ids and one for their rooms, however many rooms each hotel has.
+     */
+    public RoomsByHotelPage getRoomsPage(Long afterHotelId, Integer hotels) {
+        int pageSize = hotels == null ? maxBatchHotels : Math.max(1, Math.min(hotels, maxBatchHotels));
+        List<Long> ids = hotelRepository.findIdsAfter(afterHotelId == null ? 0L : afterHotelId,
+                PageRequest.ofSize(pageSize));
+        if (ids.isEmpty()) {
+            return new RoomsByHotelPage(Map.of(), null);
+        }
+        Long next = ids.size() == pageSize ? ids.get(ids.size() - 1) : null;
+        return new RoomsByHotelPage(groupByHotel(ids), next);
+    }
+
+    private Map<Long, List<RoomDTO>> groupByHotel(Collection<Long> hotelIds) {
+        Map<Long, List<RoomDTO>> rooms = new LinkedHashMap<>();
+        for (Long id : hotelIds) {
+            rooms.put(id, new ArrayList<>());
+        }
+        for (RoomDTO room : roomRepository.findDtosByHotelIds(hotelIds)) {
+            rooms.get(room.getHotelId()).add(room);
+        }
+        return rooms;
+    }
+
+    public RoomDTO add(RoomDTO roomDTO) {
         Hotel hotel = hotelRepository.findById(roomDTO.getHotelId()).orElseThrow(() -> new ResourceNotFoundException("Hotel not found"));
         Room room = new Room();
         room.setHotel(hotel);
@@ -30,21 +89,38 @@ public class RoomService {
         room.setPricePerNight(roomDTO.getPricePerNight());
         room.setAmenities(roomDTO.getAmenities());
         room.setAvailabilityStatus(roomDTO.getAvailabilityStatus());
-        return roomRepository.save(room);
+        RoomDTO saved = toDTO(roomRepository.save(room));
+        catalogVersions.roomsChanged(hotel.getHotelId());
+        return saved;
     }
 
-    public Room update(Long id, RoomDTO roomDTO) {
+    public RoomDTO update(Long id, RoomDTO roomDTO) {
         Room room = roomRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Room not found"));
         Hotel hotel = hotelRepository.findById(roomDTO.getHotelId()).orElseThrow(() -> new ResourceNotFoundException("Hotel not found"));
+        Long previousHotelId = room.getHotel().getHotelId();
         room.setHotel(hotel);
         room.setRoomType(roomDTO.getRoomType());
         room.setPricePerNight(roomDTO.getPricePerNight());
         room.setAmenities(roomDTO.getAmenities());
         room.setAvailabilityStatus(roomDTO.getAvailabilityStatus());
-        return roomRepository.save(room);
+        RoomDTO saved = toDTO(roomRepository.save(room));
+        // A room moved to another hotel changes both lists
+        catalogVersions.roomsChanged(previousHotelId);
+        catalogVersions.roomsChanged(hotel.getHotelId());
+        return saved;
     }
 
     public void delete(Long id) {
-        roomRepository.deleteById(id);
+        roomRepository.findById(id).ifPresent(room -> {
+            roomRepository.delete(room);
+            catalogVersions.roomsChanged(room.getHotel().getHotelId());
+        });
+        availabilityIndex.forget(id);
+        roomLocks.forget(id);
+    }
+
+    private RoomDTO toDTO(Room room) {
+        return new RoomDTO(room.getRoomId(), room.getHotel().getHotelId(), room.getRoomType(),
+                room.getPricePerNight(), room.getAmenities(), room.getAvailabilityStatus());
     }
 }
\ No newline at end of file
@@ -8,8 +8,12 @@ import com.hotelbooking.entity.Booking;
 import com.hotelbooking.exception.ResourceNotFoundException;
 import com.hotelbooking.repository.UserRepository;
 import com.hotelbooking.repository.BookingRepository;
+import com.hotelbooking.cache.BoundedTtlCache;
 import com.hotelbooking.config.JwtTokenProvider;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -33,6 +37,20 @@ public class UserService implements UserDetailsService {
     @Autowired
     private JwtTokenProvider jwtTokenProvider;
 
+    @Value("${user.cache.max-size:5000}")
+    private int userCacheMaxSize;
+
+    @Value("${user.cache.ttl-ms:30000}")
+    private long userCacheTtlMs;
+
+    // Short-lived email -> user cache for authentication lookups; cleared on update/delete
+    private BoundedTtlCache<String, User> userCache;
+
+    @PostConstruct
+    void initCache() {
+        userCache = new BoundedTtlCache<>("users", userCacheMaxSize, userCacheTtlMs);
+    }
+
     // Register new user
     public User register(UserDTO userDTO) {
         User user = new User();
@@ -45,6 +63,7 @@ public class UserService implements UserDetailsService {
     }
 
     // Login
+    @Timed(value = "users.login", histogram = true)
     public AuthResponse login(LoginDTO loginDTO) {
         User user = userRepository.findByEmail(loginDTO.getEmail())
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
@@ -53,7 +72,7 @@ public class UserService implements UserDetailsService {
             throw new ResourceNotFoundException("Invalid credentials");
         }
 
-        String token = jwtTokenProvider.generateToken(user.getEmail(), user.getRole());
+        String token = jwtTokenProvider.generateToken(user.getEmail(), user.getRole(), user.getUserId());
 
         return new AuthResponse(token, user.getRole(), user.getUserId());
     }
@@ -67,6 +86,7 @@ public class UserService implements UserDetailsService {
     public User updateUser(Long id, UserDTO userDTO) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        userCache.invalidate(user.getEmail());
         user.setName(userDTO.getName());
         user.setEmail(userDTO.getEmail());
         if (userDTO.getPassword() != null && !userDTO.getPassword().isEmpty()) {
@@ -74,12 +94,15 @@ public class UserService implements UserDetailsService {
         }
         user.setPhone(userDTO.getPhone());
         user.setRole(userDTO.getRole() != null ? userDTO.getRole() : user.getRole());
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userCache.invalidate(saved.getEmail());
+        return saved;
     }
 
     // Delete user
     public void deleteUser(Long id) {
         userRepository.deleteById(id);
+        userCache.invalidateIf((email, user) -> id.equals(user.getUserId()));
     }
 
     // Fetch user profile
@@ -96,11 +119,23 @@ public class UserService implements UserDetailsService {
         return bookingRepository.findByUser_UserId(userId);
     }
 
+    // Authentication lookup, served from the user cache when possible
+    public User findByEmailCached(String email) throws UsernameNotFoundException {
+        User user = userCache.computeIfAbsent(email, e -> userRepository.findByEmail(e).orElse(null));
+        if (user == null) {
+            throw new UsernameNotFoundException("User not found with email: " + email);
+        }
+        return user;
+    }
+
+    public BoundedTtlCache<String, User> getUserCache() {
+        return userCache;
+    }
+
     // For Spring Security
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+        User user = findByEmailCached(email);
 
         return org.springframework.security.core.userdetails.User.builder()
                 .username(user.getEmail())
@@ -0,0 +1,93 @@
+package com.hotelbooking;
+
+import com.hotelbooking.entity.Booking;
+import com.hotelbooking.entity.Hotel;
+import com.hotelbooking.entity.Room;
+import com.hotelbooking.entity.User;
+import com.hotelbooking.repository.BookingRepository;
+import com.hotelbooking.repository.DailyBookingRollupRepository;
+import com.hotelbooking.repository.HotelRepository;
+import com.hotelbooking.repository.PaymentRepository;
+import com.hotelbooking.repository.RoomRepository;
+import com.hotelbooking.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Shared data setup for the Spring tests: empties the tables in foreign-key order and saves
+ * the users, hotels, rooms and bookings the tests start from.
+ */
+@Component
+public class TestFixtures {
+
+	@Autowired
+	private PaymentRepository paymentRepository;
+
+	@Autowired
+	private DailyBookingRollupRepository rollupRepository;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Autowired
+	private RoomRepository roomRepository;
+
+	@Autowired
+	private HotelRepository hotelRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	public void reset() {
+		paymentRepository.deleteAll();
+		rollupRepository.deleteAll();
+		bookingRepository.deleteAll();
+		roomRepository.deleteAll();
+		hotelRepository.deleteAll();
+		userRepository.deleteAll();
+	}
+
+	/** A USER-role account with email {@code <name>@test.local}, lowercased. */
+	public User user(String name) {
+		User user = new User();
+		user.setName(name);
+		user.setEmail(name.toLowerCase() + "@test.local");
+		user.setPassword("x");
+		user.setRole("USER");
+		return userRepository.save(user);
+	}
+
+	public Hotel hotel(String name, String location) {
+		return hotelRepository.save(newHotel(name, location));
+	}
+
+	/** Unsaved, for tests that set more fields or save through a service. */
+	public static Hotel newHotel(String name, String location) {
+		Hotel hotel = new Hotel();
+		hotel.setName(name);
+		hotel.setLocation(location);
+		return hotel;
+	}
+
+	public Room room(Hotel hotel, String roomType, double pricePerNight) {
+		Room room = new Room();
+		room.setHotel(hotel);
+		room.setRoomType(roomType);
+		room.setPricePerNight(pricePerNight);
+		room.setAvailabilityStatus(true);
+		return roomRepository.save(room);
+	}
+
+	public Booking booking(User user, Room room, LocalDate checkIn, LocalDate checkOut, double totalPrice, String status) {
+		Booking booking = new Booking();
+		booking.setUser(user);
+		booking.setRoom(room);
+		booking.setCheckInDate(checkIn);
+		booking.setCheckOutDate(checkOut);
+		booking.setTotalPrice(totalPrice);
+		booking.setStatus(status);
+		return bookingRepository.save(booking);
+	}
+}
@@ -0,0 +1,282 @@
+package com.hotelbooking;
+
+import com.hotelbooking.dto.HotelDTO;
+import com.hotelbooking.service.HotelService;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Platform vs virtual request threads under a mixed load, at rising concurrency.
+ *
+ * Half the requests read a hotel (one JDBC round trip, with {@value #DB_LATENCY_MS} ms of simulated
+ * network latency added while the connection is held), half hit the in-memory suggest index. With
+ * {@value #TOMCAT_THREADS} platform threads and a {@value #DB_POOL}-connection pool, threads parked
+ * waiting for a connection also hold up the requests that never touch the database; with virtual
+ * threads only the database work waits for the pool. JFR jdk.VirtualThreadPinned events are counted
+ * to catch carrier threads pinned by synchronized code.
+ *
+ * Opt-in: mvn test -Dgroups=benchmark -DexcludedGroups= -Dtest=VirtualThreadLoadBenchmarkTest
+ */
+@Tag("benchmark")
+class VirtualThreadLoadBenchmarkTest {
+
+	private static final int[] CONCURRENCY = {16, 64, 256, 512};
+	private static final Duration WARMUP = Duration.ofSeconds(1);
+	private static final Duration MEASURE = Duration.ofSeconds(4);
+	private static final long DB_LATENCY_MS = 10;
+	private static final int DB_POOL = 20;
+	private static final int TOMCAT_THREADS = 64;
+	private static final int HOTELS = 50;
+
+	@Test
+	void comparePlatformAndVirtualThreads() throws Exception {
+		List<String> report = new ArrayList<>();
+		report.add(String.format("%-8s %6s %9s %9s %9s %12s %7s %7s",
+				"mode", "conc", "req/s", "p50 ms", "p99 ms", "mem p99 ms", "errors", "pinned"));
+
+		for (boolean virtual : new boolean[] {false, true}) {
+			SlowJdbc slowJdbc = new SlowJdbc();
+			try (ConfigurableApplicationContext app = start(virtual, slowJdbc)) {
+				List<Long> hotelIds = seed(app.getBean(HotelService.class));
+				slowJdbc.latencyMs.set(DB_LATENCY_MS);
+				int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+
+				for (int concurrency : CONCURRENCY) {
+					run(port, hotelIds, concurrency, WARMUP);
+					Map<String, LongAdder> pinned = new ConcurrentHashMap<>();
+					Result result;
+					try (RecordingStream jfr = pinnedThreads(pinned)) {
+						result = run(port, hotelIds, concurrency, MEASURE);
+					}
+					long pinnedEvents = pinned.values().stream().mapToLong(LongAdder::sum).sum();
+					report.add(String.format("%-8s %6d %9.0f %9.1f %9.1f %12.1f %7d %7d",
+							virtual ? "virtual" : "platform", concurrency, result.throughput(),
+							result.p50(), result.p99(), result.memoryP99(), result.errors(), pinnedEvents));
+					pinned.forEach((frame, count) -> report.add("           pinned at " + frame + " x" + count.sum()));
+					assertEquals(0, result.errors(), "failed requests at concurrency " + concurrency);
+				}
+			}
+		}
+		System.out.println(String.join(System.lineSeparator(), report));
+	}
+
+	private ConfigurableApplicationContext start(boolean virtual, SlowJdbc slowJdbc) {
+		String mode = virtual ? "virtual" : "platform";
+		return new SpringApplicationBuilder(OurHotelsApplication.class)
+				.profiles("test")
+				.properties(
+						"server.port=0",
+						"spring.threads.virtual.enabled=" + virtual,
+						"server.tomcat.threads.max=" + TOMCAT_THREADS,
+						"spring.datasource.hikari.maximum-pool-size=" + DB_POOL,
+						"spring.datasource.url=jdbc:h2:mem:bench_" + mode + ";MODE=MySQL;IGNORECASE=TRUE;DB_CLOSE_DELAY=-1",
+						"spring.jpa.properties.hibernate.generate_statistics=false",
+						"logging.level.root=WARN")
+				.initializers(context -> context.getBeanFactory().addBeanPostProcessor(slowJdbc))
+				.run();
+	}
+
+	private List<Long> seed(HotelService hotels) {
+		List<Long> ids = new ArrayList<>(HOTELS);
+		for (int i = 0; i < HOTELS; i++) {
+			HotelDTO dto = new HotelDTO();
+			dto.setName("Bench Hotel " + i);
+			dto.setLocation("Benchmark City");
+			dto.setPrice(100.0 + i);
+			dto.setHotelImages(List.of("https://cdn.example.com/bench/" + i + ".jpg"));
+			ids.add(hotels.add(dto).getHotelId());
+		}
+		return ids;
+	}
+
+	private Result run(int port, List<Long> hotelIds, int concurrency, Duration duration) throws Exception {
+		long[][] latencies = new long[concurrency][];
+		int[] counts = new int[concurrency];
+		long[][] memoryLatencies = new long[concurrency][];
+		int[] memoryCounts = new int[concurrency];
+		LongAdder errors = new LongAdder();
+
+		HttpClient client = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.executor(Executors.newVirtualThreadPerTaskExecutor())
+				.build();
+		long deadline = System.nanoTime() + duration.toNanos();
+		long started = System.nanoTime();
+		try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int c = 0; c < concurrency; c++) {
+				int worker = c;
+				clients.submit(() -> {
+					long[] mine = new long[4096];
+					long[] memory = new long[4096];
+					int n = 0;
+					int m = 0;
+					for (int i = worker; System.nanoTime() < deadline; i++) {
+						boolean db = i % 2 == 0;
+						String path = db
+								? "/api/hotels/" + hotelIds.get(i % hotelIds.size())
+								: "/api/hotels/search/suggest?prefix=bench";
+						HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+								.timeout(Duration.ofSeconds(30))
+								.build();
+						long t0 = System.nanoTime();
+						try {
+							HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+							if (response.statusCode() != 200) {
+								errors.increment();
+								continue;
+							}
+						} catch (Exception e) {
+							errors.increment();
+							continue;
+						}
+						long elapsed = System.nanoTime() - t0;
+						if (n == mine.length) {
+							mine = Arrays.copyOf(mine, n * 2);
+						}
+						mine[n++] = elapsed;
+						if (!db) {
+							if (m == memory.length) {
+								memory = Arrays.copyOf(memory, m * 2);
+							}
+							memory[m++] = elapsed;
+						}
+					}
+					latencies[worker] = mine;
+					counts[worker] = n;
+					memoryLatencies[worker] = memory;
+					memoryCounts[worker] = m;
+					return null;
+				});
+			}
+		}
+		double seconds = (System.nanoTime() - started) / 1e9;
+
+		long[] all = merge(latencies, counts);
+		long[] memory = merge(memoryLatencies, memoryCounts);
+		return new Result(all.length / seconds, percentile(all, 0.50), percentile(all, 0.99),
+				percentile(memory, 0.99), errors.sum());
+	}
+
+	private static long[] merge(long[][] perWorker, int[] counts) {
+		long[] merged = new long[Arrays.stream(counts).sum()];
+		int offset = 0;
+		for (int i = 0; i < perWorker.length; i++) {
+			System.arraycopy(perWorker[i], 0, merged, offset, counts[i]);
+			offset += counts[i];
+		}
+		Arrays.sort(merged);
+		return merged;
+	}
+
+	private static double percentile(long[] sorted, double p) {
+		if (sorted.length == 0) {
+			return Double.NaN;
+		}
+		int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+		return sorted[Math.max(0, index)] / 1e6;
+	}
+
+	// Counts virtual threads that blocked while pinned to their carrier, by first application frame
+	private static RecordingStream pinnedThreads(Map<String, LongAdder> pinned) {
+		RecordingStream stream = new RecordingStream();
+		stream.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(1)).withStackTrace();
+		stream.onEvent("jdk.VirtualThreadPinned", event -> {
+			String frame = "unknown";
+			if (event.getStackTrace() != null) {
+				for (RecordedFrame f : event.getStackTrace().getFrames()) {
+					String type = f.getMethod().getType().getName();
+					if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+						frame = type + "." + f.getMethod().getName();
+						break;
+					}
+				}
+			}
+			pinned.computeIfAbsent(frame, k -> new LongAdder()).increment();
+		});
+		stream.startAsync();
+		return stream;
+	}
+
+	private record Result(double throughput, double p50, double p99, double memoryP99, long errors) {
+	}
+
+	/**
+	 * Adds a fixed delay to every statement execution, standing in for the network round trip to
+	 * MySQL. The delay runs in the calling thread outside H2's own locks, with the connection held.
+	 */
+	private static final class SlowJdbc implements BeanPostProcessor {
+		final AtomicLong latencyMs = new AtomicLong();
+
+		@Override
+		public Object postProcessAfterInitialization(Object bean, String beanName) {
+			if (!(bean instanceof DataSource dataSource)) {
+				return bean;
+			}
+			return proxy(DataSource.class, dataSource, (method, result) ->
+					result instanceof Connection connection ? proxy(Connection.class, connection, this::wrapStatement) : result);
+		}
+
+		private Object wrapStatement(Method method, Object result) {
+			if (!(result instanceof Statement)) {
+				return result;
+			}
+			Class<?> type = result instanceof CallableStatement ? CallableStatement.class
+					: result instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+			return proxy(type, result, (m, r) -> r);
+		}
+
+		private Object proxy(Class<?> type, Object target, ResultWrapper wrapper) {
+			return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (p, method, args) -> {
+				if (target instanceof Statement && method.getName().startsWith("execute")) {
+					long delay = latencyMs.get();
+					if (delay > 0) {
+						Thread.sleep(delay);
+					}
+				}
+				if (method.getName().equals("unwrap") && args[0] == type) {
+					return target;
+				}
+				try {
+					return wrapper.wrap(method, method.invoke(target, args));
+				} catch (InvocationTargetException e) {
+					throw e.getCause();
+				}
+			});
+		}
+
+		private interface ResultWrapper {
+			Object wrap(Method method, Object result) throws Exception;
+		}
+	}
+}
@@ -0,0 +1,54 @@
+package com.hotelbooking.config;
+
+import com.hotelbooking.dto.AuthResponse;
+import com.hotelbooking.dto.LoginDTO;
+import com.hotelbooking.repository.HotelRepository;
+import com.hotelbooking.repository.RoomRepository;
+import com.hotelbooking.service.HotelService;
+import com.hotelbooking.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest(properties = {
+		"embedded.seed.hotels=16",
+		"embedded.seed.rooms-per-hotel=3",
+		"embedded.seed.users=2"
+})
+@ActiveProfiles("embedded")
+class EmbeddedProfileTest {
+
+	@Autowired
+	private HotelRepository hotelRepository;
+
+	@Autowired
+	private RoomRepository roomRepository;
+
+	@Autowired
+	private HotelService hotelService;
+
+	@Autowired
+	private UserService userService;
+
+	@Test
+	void startsWithoutMysqlAndSeedsCatalogueAndAccounts() {
+		assertEquals(16, hotelRepository.count());
+		assertEquals(48, roomRepository.count());
+		assertEquals(2, hotelService.searchHotels("Goa", null, null, null, null, null, null).getItems().size());
+		assertFalse(hotelService.searchText("jaipur", 5).isEmpty());
+
+		LoginDTO login = new LoginDTO();
+		login.setEmail(EmbeddedDataSeeder.ADMIN_EMAIL);
+		login.setPassword("loadtest");
+		AuthResponse admin = userService.login(login);
+		assertEquals("ADMIN", admin.getRole());
+
+		login.setEmail(String.format(EmbeddedDataSeeder.USER_EMAIL_FORMAT, 2));
+		assertNotNull(userService.login(login).getToken());
+	}
+}
@@ -0,0 +1,131 @@
+package com.hotelbooking.config;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Correctness checks for the single-parse provider, plus a per-request auth cost comparison
+ * against the old validate-then-parse flow, logged per request. JwtBenchmark in the benchmarks
+ * module measures the same three paths under JMH.
+ *
+ * The cost comparison is opt-in: mvn test -Dgroups=benchmark -DexcludedGroups= -Dtest=JwtTokenProviderBenchmarkTest
+ */
+class JwtTokenProviderBenchmarkTest {
+
+	private static final Logger logger = LoggerFactory.getLogger(JwtTokenProviderBenchmarkTest.class);
+
+	private static final String SECRET =
+			"+lYgaC2C0WQNK+mia/VN+Z4M3bzw01H75bDzSLomBHIdbS4MXa+Q/RaGYjZmRPZiEuKT+ejYK2sAkX4IXQOFQQ==";
+	private static final int ITERATIONS = 5_000;
+
+	private JwtTokenProvider provider;
+
+	@BeforeEach
+	void setUp() {
+		provider = newProvider(10_000);
+	}
+
+	@Test
+	void parsesValidTokenOnceAndRejectsTamperedOnes() {
+		String token = provider.generateToken("guest@ourhotels.com", "USER", 42L);
+
+		Claims claims = provider.parseClaims(token);
+		assertNotNull(claims);
+		assertEquals("guest@ourhotels.com", claims.getSubject());
+		assertEquals("USER", claims.get("role", String.class));
+		assertTrue(provider.validateToken(token));
+
+		AuthenticatedUser principal = provider.toPrincipal(claims);
+		assertEquals(new AuthenticatedUser(42L, "guest@ourhotels.com", "USER"), principal);
+
+		// Only the first call verified the signature; the rest were cache hits
+		provider.parseClaims(token);
+		assertEquals(1, provider.getVerifiedTokenCache().getMisses());
+		assertEquals(2, provider.getVerifiedTokenCache().getHits());
+
+		String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+		assertNull(provider.parseClaims(tampered));
+		assertFalse(provider.validateToken("not-a-jwt"));
+		assertNull(provider.getEmailFromToken("not-a-jwt"));
+	}
+
+	@Test
+	void cacheIsBounded() {
+		JwtTokenProvider small = newProvider(8);
+		for (int i = 0; i < 50; i++) {
+			small.parseClaims(small.generateToken("user" + i + "@ourhotels.com", "USER", (long) i));
+		}
+		assertEquals(8, small.getVerifiedTokenCache().size());
+		assertEquals(42, small.getVerifiedTokenCache().getEvictions());
+	}
+
+	@Test
+	@Tag("benchmark")
+	void singleParseAndCacheCutAuthCost() {
+		String token = provider.generateToken("guest@ourhotels.com", "USER", 42L);
+		JwtTokenProvider uncached = newProvider(0);
+
+		// Warm up all paths
+		for (int i = 0; i < ITERATIONS; i++) {
+			legacyAuthenticate(token);
+			uncached.parseClaims(token);
+			provider.parseClaims(token);
+		}
+
+		double legacy = nanosPerOp(() -> legacyAuthenticate(token));
+		double singleParse = nanosPerOp(() -> uncached.parseClaims(token));
+		double cached = nanosPerOp(() -> provider.parseClaims(token));
+
+		logger.info("JWT auth cost per request: before {} ns, single verification {} ns, cached {} ns",
+				Math.round(legacy), Math.round(singleParse), Math.round(cached));
+		assertTrue(singleParse < legacy, "single parse " + singleParse + " ns vs legacy " + legacy + " ns");
+		assertTrue(cached < singleParse, "cached " + cached + " ns vs single parse " + singleParse + " ns");
+	}
+
+	// The flow the filter used before: two full parses, each deriving the key and building a parser
+	private String legacyAuthenticate(String token) {
+		Jwts.parser()
+				.verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+				.build()
+				.parseSignedClaims(token);
+		return Jwts.parser()
+				.verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+				.build()
+				.parseSignedClaims(token)
+				.getPayload()
+				.getSubject();
+	}
+
+	private double nanosPerOp(Runnable op) {
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			op.run();
+		}
+		return (System.nanoTime() - start) / (double) ITERATIONS;
+	}
+
+	private JwtTokenProvider newProvider(int cacheSize) {
+		JwtTokenProvider p = new JwtTokenProvider();
+		ReflectionTestUtils.setField(p, "secret", SECRET);
+		ReflectionTestUtils.setField(p, "expiration", 3_600_000L);
+		ReflectionTestUtils.setField(p, "cacheMaxSize", cacheSize);
+		ReflectionTestUtils.setField(p, "cacheTtlMs", 300_000L);
+		p.init();
+		return p;
+	}
+}
@@ -0,0 +1,52 @@
+package com.hotelbooking.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = "management.server.port=0")
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class ManagementPortTest {
+
+	@LocalServerPort
+	private int serverPort;
+
+	@LocalManagementPort
+	private int managementPort;
+
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	@Test
+	void actuatorIsOnlyServedOnTheManagementPort() throws Exception {
+		assertNotEquals(serverPort, managementPort);
+
+		HttpResponse<String> scrape = get(managementPort, "/actuator/prometheus");
+		assertEquals(200, scrape.statusCode());
+		assertTrue(scrape.body().contains("hikaricp_connections"));
+		assertEquals(200, get(managementPort, "/actuator/health").statusCode());
+		assertEquals(403, get(managementPort, "/actuator/metrics").statusCode());
+
+		// The published API port has no actuator at all
+		assertNotEquals(200, get(serverPort, "/actuator/prometheus").statusCode());
+		assertNotEquals(200, get(serverPort, "/actuator/health").statusCode());
+	}
+
+	private HttpResponse<String> get(int port, String path) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+		return client.send(request, HttpResponse.BodyHandlers.ofString());
+	}
+}
@@ -0,0 +1,121 @@
+package com.hotelbooking.config;
+
+import com.hotelbooking.TestFixtures;
+import com.hotelbooking.dto.BookingDTO;
+import com.hotelbooking.entity.Room;
+import com.hotelbooking.entity.User;
+import com.hotelbooking.service.BookingService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class MetricsTest {
+
+	private static final LocalDate IN = LocalDate.of(2034, 3, 1);
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	@Autowired
+	private BookingService bookingService;
+
+	@Autowired
+	private TestFixtures fixtures;
+
+	private User user;
+	private Room room;
+
+	@BeforeEach
+	void setUp() {
+		fixtures.reset();
+		user = fixtures.user("Metrics");
+		room = fixtures.room(fixtures.hotel("Observed Hotel", "Gaugeville"), "double", 90.0);
+	}
+
+	@Test
+	void bookingTimerAndConflictCounter() {
+		double conflictsBefore = count("bookings.conflicts");
+		long timedBefore = timed("bookings.book");
+
+		bookingService.book(request());
+		assertThrows(RuntimeException.class, () -> bookingService.book(request()));
+
+		assertEquals(1, count("bookings.conflicts") - conflictsBefore);
+		assertEquals(2, timed("bookings.book") - timedBefore);
+		assertTrue(registry.get("bookings.book").tag("exception", "RuntimeException").timer().count() >= 1);
+	}
+
+	@Test
+	void recordsStatementsPerRequestByUriTemplate() throws Exception {
+		mockMvc.perform(get("/api/hotels/{id}/rooms", room.getHotel().getHotelId())).andExpect(status().isOk());
+
+		DistributionSummary queries = registry.get("http.server.requests.queries")
+				.tags("method", "GET", "uri", "/api/hotels/{id}/rooms")
+				.summary();
+		assertTrue(queries.count() >= 1);
+		assertEquals(1, queries.max(), "room listing is a single projection query");
+	}
+
+	@Test
+	void prometheusScrapeIsPublicAndHasEveryFamily() throws Exception {
+		mockMvc.perform(get("/api/hotels/{id}", room.getHotel().getHotelId())).andExpect(status().isOk());
+
+		String scrape = mockMvc.perform(get("/actuator/prometheus"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+
+		for (String family : new String[] {
+				"http_server_requests_seconds_bucket",
+				"http_server_requests_queries_statements_bucket",
+				"cache_gets_total{",
+				"cache_size{",
+				"hibernate_query_executions_total",
+				"hibernate_entities_loads_total",
+				"hikaricp_connections_pending",
+				"hikaricp_connections_acquire_seconds_bucket"}) {
+			assertTrue(scrape.contains(family), "missing " + family);
+		}
+		mockMvc.perform(get("/actuator/metrics")).andExpect(status().isForbidden());
+	}
+
+	private BookingDTO request() {
+		BookingDTO dto = new BookingDTO();
+		dto.setUserId(user.getUserId());
+		dto.setRoomId(room.getRoomId());
+		dto.setCheckInDate(IN);
+		dto.setCheckOutDate(IN.plusDays(2));
+		return dto;
+	}
+
+	private double count(String name) {
+		return registry.find(name).counters().stream().mapToDouble(Counter::count).sum();
+	}
+
+	private long timed(String name) {
+		return registry.find(name).timers().stream().mapToLong(Timer::count).sum();
+	}
+}
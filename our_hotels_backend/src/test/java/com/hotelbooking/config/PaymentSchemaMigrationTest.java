@@ -0,0 +1,132 @@
+package com.hotelbooking.config;
+
+import com.hotelbooking.TestFixtures;
+import com.hotelbooking.entity.Room;
+import com.hotelbooking.entity.User;
+import com.hotelbooking.repository.PaymentRepository;
+import com.hotelbooking.service.PaymentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PaymentSchemaMigrationTest {
+
+	@Autowired
+	private PaymentSchemaMigration migration;
+
+	@Autowired
+	private PaymentService paymentService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PaymentRepository paymentRepository;
+
+	@Autowired
+	private TestFixtures fixtures;
+
+	private Long paidBooking;
+	private Long failedBooking;
+
+	@BeforeEach
+	void setUp() {
+		fixtures.reset();
+		jdbcTemplate.execute("DROP TABLE IF EXISTS " + PaymentSchemaMigration.ARCHIVE_TABLE);
+
+		User user = fixtures.user("Legacy");
+		Room room = fixtures.room(fixtures.hotel("Old Schema Inn", "Upgradeville"), "double", 80.0);
+		paidBooking = booking(user, room, LocalDate.of(2036, 1, 1));
+		failedBooking = booking(user, room, LocalDate.of(2036, 2, 1));
+	}
+
+	@Test
+	void duplicatesFromRetriesAreArchivedBeforeTheKeyIsAdded() {
+		// A table from before the key: retries left several rows per booking
+		dropBookingKeys();
+		try {
+			insert(paidBooking, "FAILED");
+			Long completed = insert(paidBooking, "COMPLETED");
+			insert(paidBooking, "PENDING");
+			insert(failedBooking, "FAILED");
+			Long latestFailed = insert(failedBooking, "FAILED");
+
+			// Until the migration runs, lookups still pick one row instead of failing
+			assertEquals(completed, paymentService.getByBooking(paidBooking).getPaymentId());
+			assertEquals(latestFailed, paymentService.getByBooking(failedBooking).getPaymentId());
+		} finally {
+			migration.migrate();
+		}
+
+		assertEquals(List.of("COMPLETED"), statuses(paidBooking));
+		assertEquals(List.of("FAILED"), statuses(failedBooking));
+		// Nothing is lost: the other rows moved to the archive
+		assertEquals(List.of("FAILED", "PENDING"), archivedStatuses(paidBooking));
+		assertEquals(List.of("FAILED"), archivedStatuses(failedBooking));
+		assertEquals(latestPaymentId(failedBooking), paymentService.getByBooking(failedBooking).getPaymentId());
+		assertThrows(DataIntegrityViolationException.class, () -> insert(paidBooking, "PENDING"));
+
+		// Already migrated: a second run changes nothing
+		migration.migrate();
+		assertEquals(2, paymentRepository.count());
+		assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + PaymentSchemaMigration.ARCHIVE_TABLE, Integer.class));
+	}
+
+	@Test
+	void upToDateTableIsLeftAlone() {
+		migration.migrate();
+		assertEquals(0, jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME = 'PAYMENTS_SUPERSEDED'", Integer.class));
+	}
+
+	private void dropBookingKeys() {
+		List<String> keys = jdbcTemplate.queryForList(
+				"SELECT tc.CONSTRAINT_NAME FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS tc " +
+				"JOIN INFORMATION_SCHEMA.KEY_COLUMN_USAGE k ON k.CONSTRAINT_NAME = tc.CONSTRAINT_NAME " +
+				"WHERE tc.TABLE_NAME = 'PAYMENTS' AND tc.CONSTRAINT_TYPE = 'UNIQUE' AND k.COLUMN_NAME = 'BOOKING_ID'",
+				String.class);
+		// H2 lets the foreign key share the unique index, so it goes too and comes back on a plain one
+		List<String> foreignKeys = jdbcTemplate.queryForList(
+				"SELECT CONSTRAINT_NAME FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS " +
+				"WHERE TABLE_NAME = 'PAYMENTS' AND CONSTRAINT_TYPE = 'FOREIGN KEY'",
+				String.class);
+		foreignKeys.forEach(key -> jdbcTemplate.execute("ALTER TABLE payments DROP CONSTRAINT " + key));
+		keys.forEach(key -> jdbcTemplate.execute("ALTER TABLE payments DROP CONSTRAINT " + key));
+		jdbcTemplate.execute("ALTER TABLE payments ADD CONSTRAINT fk_payments_booking " +
+				"FOREIGN KEY (booking_id) REFERENCES bookings (booking_id)");
+	}
+
+	private Long insert(Long bookingId, String status) {
+		jdbcTemplate.update("INSERT INTO payments (booking_id, amount, status) VALUES (?, 160.0, ?)", bookingId, status);
+		return latestPaymentId(bookingId);
+	}
+
+	private Long latestPaymentId(Long bookingId) {
+		return jdbcTemplate.queryForObject("SELECT MAX(payment_id) FROM payments WHERE booking_id = ?", Long.class, bookingId);
+	}
+
+	private List<String> statuses(Long bookingId) {
+		return jdbcTemplate.queryForList("SELECT status FROM payments WHERE booking_id = ?", String.class, bookingId);
+	}
+
+	private List<String> archivedStatuses(Long bookingId) {
+		return jdbcTemplate.queryForList("SELECT status FROM " + PaymentSchemaMigration.ARCHIVE_TABLE +
+				" WHERE booking_id = ? ORDER BY payment_id", String.class, bookingId);
+	}
+
+	private Long booking(User user, Room room, LocalDate checkIn) {
+		return fixtures.booking(user, room, checkIn, checkIn.plusDays(2), 160.0, "CONFIRMED").getBookingId();
+	}
+}
@@ -0,0 +1,131 @@
+package com.hotelbooking.config;
+
+import com.hotelbooking.TestFixtures;
+import com.hotelbooking.entity.Hotel;
+import com.hotelbooking.repository.HotelRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Two in-memory databases stand in for the primary and a replica; the replica copies the
+// primary's schema but not its rows, so every read shows which one served it
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:replica_primary;MODE=MySQL;IGNORECASE=TRUE;DB_CLOSE_DELAY=-1",
+		"datasource.replicas.enabled=true",
+		"datasource.replicas.urls=" + ReadReplicaTest.REPLICA_URL + ",jdbc:h2:tcp://localhost:1/mem:unreachable",
+		"datasource.replicas.health-check-ms=3600000"})
+@ActiveProfiles("test")
+class ReadReplicaTest {
+
+	static final String REPLICA_URL = "jdbc:h2:mem:replica_copy;MODE=MySQL;IGNORECASE=TRUE;DB_CLOSE_DELAY=-1";
+
+	@Autowired
+	private ReadReplicas readReplicas;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private HotelRepository hotelRepository;
+
+	@Autowired
+	private TestFixtures fixtures;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		// Background work: no request, no user, so nothing gets pinned
+		RequestContextHolder.resetRequestAttributes();
+		SecurityContextHolder.clearContext();
+		fixtures.reset();
+
+		try (Connection primary = dataSource.getConnection();
+			 Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+			 Statement source = primary.createStatement();
+			 Statement target = replica.createStatement()) {
+			target.execute("DROP ALL OBJECTS");
+			try (ResultSet script = source.executeQuery("SCRIPT NODATA")) {
+				while (script.next()) {
+					target.execute(script.getString(1));
+				}
+			}
+			target.execute("INSERT INTO hotels (name, location) VALUES ('Replica Only', 'Lagtown')");
+		}
+		fixtures.hotel("Primary Only", "Lagtown");
+		readReplicas.checkHealth();
+	}
+
+	@AfterEach
+	void tearDown() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void readOnlyTransactionsGoToAHealthyReplica() {
+		assertEquals(Map.of("replica-0", "UP", "replica-1", "DOWN"), readReplicas.status());
+
+		// findAll runs in a read-only transaction; the unreachable replica is skipped every time
+		for (int i = 0; i < 3; i++) {
+			assertEquals(List.of("Replica Only"), hotelNames());
+		}
+		List<String> readWrite = new TransactionTemplate(transactionManager).execute(status -> names(hotelRepository.findAll()));
+		assertEquals(List.of("Primary Only"), readWrite);
+	}
+
+	@Test
+	void writersReadTheirOwnWrites() {
+		signIn(7L);
+		fixtures.hotel("Written By Seven", "Lagtown");
+		assertEquals(List.of("Primary Only", "Written By Seven"), hotelNames());
+
+		signIn(8L);
+		assertEquals(List.of("Replica Only"), hotelNames());
+	}
+
+	@Test
+	void fallsBackToThePrimaryUntilAReplicaRecovers() {
+		readReplicas.markDown(0, new IllegalStateException("test"));
+		assertEquals(List.of("Primary Only"), hotelNames());
+
+		readReplicas.checkHealth();
+		assertEquals(List.of("Replica Only"), hotelNames());
+	}
+
+	private List<String> hotelNames() {
+		return names(hotelRepository.findAll());
+	}
+
+	private static List<String> names(List<Hotel> hotels) {
+		List<String> names = new ArrayList<>();
+		hotels.forEach(h -> names.add(h.getName()));
+		names.sort(null);
+		return names;
+	}
+
+	private static void signIn(Long userId) {
+		AuthenticatedUser user = new AuthenticatedUser(userId, "user" + userId + "@test.local", "USER");
+		SecurityContextHolder.getContext().setAuthentication(
+				UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities()));
+	}
+}
@@ -0,0 +1,127 @@
+package com.hotelbooking.config;
+
+import com.hotelbooking.TestFixtures;
+import com.hotelbooking.entity.Hotel;
+import com.hotelbooking.repository.HotelRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@ExtendWith(OutputCaptureExtension.class)
+class SqlTracerTest {
+
+	@Autowired
+	private SqlTracer sqlTracer;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private HotelRepository hotelRepository;
+
+	@Autowired
+	private TestFixtures fixtures;
+
+	private Hotel hotel;
+
+	@BeforeEach
+	void setUp() {
+		fixtures.reset();
+		hotel = fixtures.hotel("Traced Hotel", "Sampleton");
+		sqlTracer.reset();
+	}
+
+	@Test
+	void shapesFoldLiteralsAndInLists() {
+		assertInstanceOf(TracingDataSource.class, dataSource);
+		assertEquals("select * from hotels h1_0 where h1_0.location = ? and h1_0.hotel_id in (?...) limit ?",
+				SqlTracer.shapeOf("select *  from hotels h1_0\n where h1_0.location = 'It''s' and h1_0.hotel_id in (?, ?,?) limit 20"));
+	}
+
+	@Test
+	void statementsAreTimedPerEndpointShape() throws Exception {
+		for (int i = 0; i < 3; i++) {
+			mockMvc.perform(get("/api/hotels/{id}/rooms", hotel.getHotelId())).andExpect(status().isOk());
+		}
+
+		Map<String, Object> top = sqlTracer.top("count", 1).get(0);
+		assertTrue(((String) top.get("sql")).contains("from rooms"), top.toString());
+		assertEquals(3L, top.get("count"));
+		assertEquals(Map.of("GET /api/hotels/{id}/rooms", 3L), top.get("endpoints"));
+	}
+
+	@Test
+	void shapesAreComputedOncePerSqlString() {
+		String sql = "select * from hotels where hotel_id = 7";
+		sqlTracer.record(sql, 1_000L, false);
+		long hits = sqlTracer.getShapeCache().getHits();
+		sqlTracer.record(sql, 1_000L, false);
+		assertEquals(hits + 1, sqlTracer.getShapeCache().getHits());
+		assertEquals(2L, sqlTracer.top("count", 1).get(0).get("count"));
+	}
+
+	@Test
+	void countsHibernateAndJdbcStatementsOnTheCountingThread() {
+		sqlTracer.startCounting();
+		hotelRepository.findAll();
+		jdbcTemplate.queryForObject("SELECT COUNT(*) FROM hotels", Long.class);
+		assertEquals(2, sqlTracer.stopCounting());
+		// Not counting any more
+		hotelRepository.findAll();
+		assertEquals(0, sqlTracer.stopCounting());
+	}
+
+	@Test
+	void slowStatementsAreAlwaysLogged(CapturedOutput output) {
+		// The test framework binds a mock request to this thread; work outside a request has none
+		RequestContextHolder.resetRequestAttributes();
+		sqlTracer.record("select * from hotels where hotel_id = 42", 2_000_000_000L, false);
+
+		assertTrue(output.getOut().contains("Slow SQL 2000 ms [background]: select * from hotels where hotel_id = ?"));
+		List<Map<String, Object>> top = sqlTracer.top("max", 5);
+		assertEquals(1L, top.get(0).get("slow"));
+	}
+
+	@Test
+	@WithMockUser(roles = "ADMIN")
+	void adminEndpointListsTopShapes() throws Exception {
+		hotelRepository.findAll();
+
+		mockMvc.perform(get("/api/admin/sql/top").param("by", "avg").param("limit", "5"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].sql").exists())
+				.andExpect(jsonPath("$[0].avgMs").isNumber());
+		mockMvc.perform(get("/api/admin/sql/top").param("by", "bogus"))
+				.andExpect(status().is5xxServerError());
+	}
+}
@@ -0,0 +1,177 @@
+package com.hotelbooking.service;
+
+import com.hotelbooking.TestFixtures;
+import com.hotelbooking.dto.BookingDTO;
+import com.hotelbooking.entity.Booking;
+import com.hotelbooking.entity.Hotel;
+import com.hotelbooking.repository.BookingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Hammers BookingService.book from many threads and checks that no room is ever double booked.
+ * The random-load run logs bookings/sec per thread count so runs can be compared.
+ *
+ * The random-load run is opt-in: mvn test -Dgroups=benchmark -DexcludedGroups= -Dtest=BookingConcurrencyStressTest
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingConcurrencyStressTest {
+
+	private static final Logger logger = LoggerFactory.getLogger(BookingConcurrencyStressTest.class);
+
+	private static final int ROOMS = 16;
+	private static final int ATTEMPTS_PER_THREAD = 150;
+
+	@Autowired
+	private BookingService bookingService;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Autowired
+	private TestFixtures fixtures;
+
+	private Long userId;
+	private final List<Long> roomIds = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		fixtures.reset();
+		userId = fixtures.user("Stress").getUserId();
+
+		Hotel hotel = fixtures.hotel("Stress Hotel", "Goa");
+		roomIds.clear();
+		for (int i = 0; i < ROOMS; i++) {
+			roomIds.add(fixtures.room(hotel, "double", 100.0).getRoomId());
+		}
+	}
+
+	@Test
+	void sameRoomSameDatesBooksExactlyOnce() throws Exception {
+		int threads = 32;
+		LocalDate checkIn = LocalDate.now().plusDays(10);
+		AtomicInteger successes = new AtomicInteger();
+
+		runConcurrently(threads, t -> {
+			try {
+				bookingService.book(request(roomIds.get(0), checkIn, checkIn.plusDays(2)));
+				successes.incrementAndGet();
+			} catch (RuntimeException expected) {
+				// conflict
+			}
+		});
+
+		assertEquals(1, successes.get());
+		assertNoDoubleBookings();
+	}
+
+	@Test
+	@Tag("benchmark")
+	void randomLoadNeverDoubleBooks() throws Exception {
+		int round = 0;
+		for (int threads : new int[] {1, 2, 4, 8, 16}) {
+			// Each round books its own calendar window so rounds do not interfere
+			LocalDate windowStart = LocalDate.now().plusDays(30 + 400L * round++);
+			AtomicInteger booked = new AtomicInteger();
+			AtomicInteger rejected = new AtomicInteger();
+
+			long start = System.nanoTime();
+			runConcurrently(threads, t -> {
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+				for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+					LocalDate checkIn = windowStart.plusDays(random.nextInt(300));
+					LocalDate checkOut = checkIn.plusDays(1 + random.nextInt(4));
+					try {
+						bookingService.book(request(roomIds.get(random.nextInt(ROOMS)), checkIn, checkOut));
+						booked.incrementAndGet();
+					} catch (RuntimeException conflict) {
+						rejected.incrementAndGet();
+					}
+				}
+			});
+			double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+			logger.info("threads={} booked={} rejected={} bookings/s={}",
+					threads, booked.get(), rejected.get(), String.format("%.1f", booked.get() / seconds));
+			assertEquals(threads * ATTEMPTS_PER_THREAD, booked.get() + rejected.get());
+		}
+
+		assertNoDoubleBookings();
+	}
+
+	private void assertNoDoubleBookings() {
+		Map<Long, List<Booking>> byRoom = bookingRepository.findAll().stream()
+				.filter(b -> "CONFIRMED".equals(b.getStatus()))
+				.collect(Collectors.groupingBy(b -> b.getRoom().getRoomId()));
+
+		byRoom.forEach((roomId, bookings) -> {
+			bookings.sort(Comparator.comparing(Booking::getCheckInDate));
+			for (int i = 1; i < bookings.size(); i++) {
+				Booking previous = bookings.get(i - 1);
+				Booking current = bookings.get(i);
+				assertTrue(!current.getCheckInDate().isBefore(previous.getCheckOutDate()),
+						"Room " + roomId + " double booked: " + previous.getBookingId() + " and " + current.getBookingId());
+			}
+		});
+	}
+
+	private BookingDTO request(Long roomId, LocalDate checkIn, LocalDate checkOut) {
+		BookingDTO dto = new BookingDTO();
+		dto.setUserId(userId);
+		dto.setRoomId(roomId);
+		dto.setCheckInDate(checkIn);
+		dto.setCheckOutDate(checkOut);
+		return dto;
+	}
+
+	private void runConcurrently(int threads, ThreadTask task) throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		CountDownLatch ready = new CountDownLatch(threads);
+		CountDownLatch go = new CountDownLatch(1);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			int id = t;
+			futures.add(pool.submit(() -> {
+				ready.countDown();
+				go.await();
+				task.run(id);
+				return null;
+			}));
+		}
+		ready.await();
+		go.countDown();
+		for (var future : futures) {
+			future.get(2, TimeUnit.MINUTES);
+		}
+		pool.shutdown();
+	}
+
+	@FunctionalInterface
+	private interface ThreadTask {
+		void run(int threadId);
+	}
+}
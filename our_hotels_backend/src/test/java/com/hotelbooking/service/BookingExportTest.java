@@ -0,0 +1,112 @@
+package com.hotelbooking.service;
+
+import com.hotelbooking.TestFixtures;
+import com.hotelbooking.entity.Room;
+import com.hotelbooking.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BookingExportTest {
+
+	private static final LocalDate BASE = LocalDate.of(2033, 1, 10);
+
+	@Autowired
+	private BookingExportService exportService;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private TestFixtures fixtures;
+
+	private User user;
+	private Room room;
+
+	@BeforeEach
+	void setUp() {
+		fixtures.reset();
+		user = fixtures.user("Export");
+		room = fixtures.room(fixtures.hotel("Export \"Grand\", Annex", "Exportville"), "suite", 150.0);
+
+		save(BASE, BASE.plusDays(2), "CONFIRMED");
+		save(BASE.plusDays(5), BASE.plusDays(7), "CANCELED");
+		save(BASE.plusDays(20), BASE.plusDays(21), "CONFIRMED");
+	}
+
+	@Test
+	void ndjsonFiltersByOverlappingRangeAndStatus() {
+		List<String> lines = export(BookingExportService.Format.NDJSON, BASE.plusDays(1), BASE.plusDays(10), null);
+		assertEquals(2, lines.size());
+		assertTrue(lines.get(0).contains("\"checkInDate\":\"2033-01-10\""));
+		assertTrue(lines.get(0).contains("\"hotelName\":\"Export \\\"Grand\\\", Annex\""));
+		assertTrue(lines.get(1).contains("\"status\":\"CANCELED\""));
+
+		assertEquals(2, export(BookingExportService.Format.NDJSON, null, null, "confirmed").size());
+		assertThrows(IllegalArgumentException.class,
+				() -> export(BookingExportService.Format.NDJSON, BASE, BASE, null));
+	}
+
+	@Test
+	void csvHasHeaderAndQuotesFields() {
+		List<String> lines = export(BookingExportService.Format.CSV, null, null, null);
+		assertEquals(4, lines.size());
+		assertEquals("bookingId,userId,roomId,hotelName,roomType,checkInDate,checkOutDate,totalPrice,status", lines.get(0));
+		assertTrue(lines.get(1).contains(",\"Export \"\"Grand\"\", Annex\",suite,2033-01-10,2033-01-12,300.0,CONFIRMED"));
+	}
+
+	@Test
+	@WithMockUser(roles = "ADMIN")
+	void endpointStreamsAsAttachment() throws Exception {
+		MvcResult started = mockMvc.perform(get("/api/bookings/admin/export").param("format", "csv"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		mockMvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andExpect(header().string("Content-Disposition", "attachment; filename=\"bookings.csv\""))
+				.andExpect(content().contentTypeCompatibleWith("text/csv"));
+		String body = started.getResponse().getContentAsString(StandardCharsets.UTF_8);
+		assertEquals(4, body.lines().count());
+
+		// A bad range is rejected before streaming starts, not as a truncated 200
+		mockMvc.perform(get("/api/bookings/admin/export").param("from", "2033-02-01").param("to", "2033-01-01"))
+				.andExpect(request().asyncNotStarted())
+				.andExpect(status().isInternalServerError())
+				.andExpect(content().string("Something went wrong: 'to' must be after 'from'"));
+	}
+
+	private List<String> export(BookingExportService.Format format, LocalDate from, LocalDate to, String status) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		exportService.export(out, format, from, to, status);
+		return out.toString(StandardCharsets.UTF_8).lines().toList();
+	}
+
+	private void save(LocalDate checkIn, LocalDate checkOut, String status) {
+		fixtures.booking(user, room, checkIn, checkOut, 150.0 * (checkOut.toEpochDay() - checkIn.toEpochDay()), status);
+	}
+}
@@ -0,0 +1,84 @@
+package com.hotelbooking.service;
+
+import com.hotelbooking.TestFixtures;
+import com.hotelbooking.dto.BookingDTO;
+import com.hotelbooking.entity.Room;
+import com.hotelbooking.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingListingQueryCountTest {
+
+	@Autowired
+	private BookingService bookingService;
+
+	@Autowired
+	private TestFixtures fixtures;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private User user;
+	private int seeded;
+
+	@BeforeEach
+	void setUp() {
+		fixtures.reset();
+		user = fixtures.user("Lister");
+		seeded = 0;
+	}
+
+	@Test
+	void listingsUseOneStatementRegardlessOfRowCount() {
+		seed(3);
+		assertEquals(1, statementsFor(() -> bookingService.getByUser(user.getUserId()), 3));
+		assertEquals(1, statementsFor(() -> bookingService.getAllBookings(), 3));
+
+		seed(40);
+		assertEquals(1, statementsFor(() -> bookingService.getByUser(user.getUserId()), 43));
+		assertEquals(1, statementsFor(() -> bookingService.getAllBookings(), 43));
+	}
+
+	@Test
+	void projectionCarriesFlattenedFields() {
+		seed(2);
+		List<BookingDTO> bookings = bookingService.getByUser(user.getUserId());
+		BookingDTO first = bookings.get(0);
+		assertEquals(user.getUserId(), first.getUserId());
+		assertEquals("Listing Hotel 0", first.getHotelName());
+		assertEquals("double", first.getRoomType());
+		assertEquals(200.0, first.getTotalPrice());
+		assertEquals("CONFIRMED", first.getStatus());
+		assertEquals(0, bookingService.getByUser(-1L).size());
+	}
+
+	private long statementsFor(Supplier<List<BookingDTO>> call, int expectedRows) {
+		Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		stats.clear();
+		assertEquals(expectedRows, call.get().size());
+		return stats.getPrepareStatementCount();
+	}
+
+	// Every booking gets its own hotel and room so lazy loading could not hide behind the session cache
+	private void seed(int count) {
+		for (int i = 0; i < count; i++, seeded++) {
+			Room room = fixtures.room(fixtures.hotel("Listing Hotel " + seeded, "Listville"), "double", 100.0);
+			fixtures.booking(user, room, LocalDate.of(2034, 3, 1).plusDays(seeded),
+					LocalDate.of(2034, 3, 3).plusDays(seeded), 200.0, "CONFIRMED");
+		}
+	}
+}
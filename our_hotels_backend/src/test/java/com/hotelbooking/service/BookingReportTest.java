@@ -0,0 +1,136 @@
+package com.hotelbooking.service;
+
+import com.hotelbooking.TestFixtures;
+import com.hotelbooking.dto.BookingDTO;
+import com.hotelbooking.dto.RoomDTO;
+import com.hotelbooking.entity.DailyBookingRollup;
+import com.hotelbooking.entity.Hotel;
+import com.hotelbooking.entity.Room;
+import com.hotelbooking.entity.User;
+import com.hotelbooking.repository.DailyBookingRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingReportTest {
+
+	private static final LocalDate START = LocalDate.of(2030, 3, 1);
+	private static final LocalDate END = LocalDate.of(2030, 3, 11);
+
+	@Autowired
+	private BookingService bookingService;
+
+	@Autowired
+	private BookingRollupService rollupService;
+
+	@Autowired
+	private RoomService roomService;
+
+	@Autowired
+	private DailyBookingRollupRepository rollupRepository;
+
+	@Autowired
+	private TestFixtures fixtures;
+
+	private User user;
+	private Room room;
+
+	@BeforeEach
+	void setUp() {
+		fixtures.reset();
+		user = fixtures.user("Report");
+
+		Hotel hotel = fixtures.hotel("Report Hotel", "Goa");
+		for (int i = 0; i < 2; i++) {
+			room = fixtures.room(hotel, "double", 100.0);
+		}
+	}
+
+	@Test
+	void rebuildRecomputesRollupsFromBookings() {
+		// Straddles the start: 2 nights inside the range
+		save(START.minusDays(2), START.plusDays(2), 400.0, "CONFIRMED");
+		// Fully inside: 3 nights
+		save(START.plusDays(4), START.plusDays(7), 300.0, "CONFIRMED");
+		// Straddles the end: 1 night inside the range
+		save(END.minusDays(1), END.plusDays(3), 400.0, "CONFIRMED");
+		// Ignored: canceled, and outside the range
+		save(START.plusDays(1), START.plusDays(3), 200.0, "CANCELED");
+		save(END.plusDays(5), END.plusDays(6), 100.0, "CONFIRMED");
+
+		Map<String, Long> summary = rollupService.rebuild();
+		assertEquals(5L, summary.get("bookings"));
+
+		// Revenue is spread per night: 2 x 100 + 3 x 100 + 1 x 100
+		assertEquals(600.0, bookingService.getRevenueReport(START, END).get("totalRevenue"), 1e-9);
+
+		// 6 booked nights out of 2 rooms * 10 nights
+		assertEquals(30.0, bookingService.getOccupancyReport(START, END).get("occupancyRate"), 1e-9);
+	}
+
+	@Test
+	void bookAndCancelUpdateRollupsIncrementally() {
+		BookingDTO request = new BookingDTO();
+		request.setUserId(user.getUserId());
+		request.setRoomId(room.getRoomId());
+		request.setCheckInDate(START.plusDays(1));
+		request.setCheckOutDate(START.plusDays(6));
+		BookingDTO booked = bookingService.book(request);
+
+		assertEquals(500.0, bookingService.getRevenueReport(START, END).get("totalRevenue"), 1e-9);
+		assertEquals(25.0, bookingService.getOccupancyReport(START, END).get("occupancyRate"), 1e-9);
+
+		bookingService.cancel(booked.getBookingId());
+
+		assertEquals(0.0, bookingService.getRevenueReport(START, END).get("totalRevenue"), 1e-9);
+		assertEquals(0.0, bookingService.getOccupancyReport(START, END).get("occupancyRate"), 1e-9);
+		assertEquals(1L, rollupRepository.findAll().stream().mapToLong(r -> r.getCancellations()).sum());
+	}
+
+	@Test
+	void cancellingAfterTheRoomMovesReversesTheOriginalRow() {
+		BookingDTO request = new BookingDTO();
+		request.setUserId(user.getUserId());
+		request.setRoomId(room.getRoomId());
+		request.setCheckInDate(START.plusDays(1));
+		request.setCheckOutDate(START.plusDays(3));
+		BookingDTO booked = bookingService.book(request);
+		Long originalHotel = room.getHotel().getHotelId();
+
+		Hotel other = fixtures.hotel("Report Annex", "Goa");
+		roomService.update(room.getRoomId(),
+				new RoomDTO(room.getRoomId(), other.getHotelId(), "suite", 180.0, null, null));
+
+		bookingService.cancel(booked.getBookingId());
+
+		for (DailyBookingRollup row : rollupRepository.findAll()) {
+			assertEquals(originalHotel, row.getHotelId());
+			assertEquals("double", row.getRoomType());
+			assertEquals(0L, row.getRoomNights());
+			assertEquals(0.0, row.getRevenue(), 1e-9);
+		}
+		// A rebuild keys the booking the same way
+		rollupService.rebuild();
+		assertEquals(1, rollupRepository.findAll().size());
+		assertEquals(originalHotel, rollupRepository.findAll().get(0).getHotelId());
+	}
+
+	@Test
+	void emptyRangeReportsZero() {
+		assertEquals(0.0, bookingService.getRevenueReport(START, END).get("totalRevenue"));
+		assertEquals(0.0, bookingService.getOccupancyReport(START, END).get("occupancyRate"));
+	}
+
+	private void save(LocalDate checkIn, LocalDate checkOut, double price, String status) {
+		fixtures.booking(user, room, checkIn, checkOut, price, status);
+	}
+}
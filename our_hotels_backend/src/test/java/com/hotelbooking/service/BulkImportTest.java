@@ -0,0 +1,161 @@
+package com.hotelbooking.service;
+
+import com.hotelbooking.TestFixtures;
+import com.hotelbooking.config.SqlTracer;
+import com.hotelbooking.dto.ImportResult;
+import com.hotelbooking.entity.Hotel;
+import com.hotelbooking.repository.HotelRepository;
+import com.hotelbooking.repository.RoomRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BulkImportTest {
+
+	@Autowired
+	private BulkImportService importService;
+
+	@Autowired
+	private HotelService hotelService;
+
+	@Autowired
+	private RoomRepository roomRepository;
+
+	@Autowired
+	private HotelRepository hotelRepository;
+
+	@Autowired
+	private TestFixtures fixtures;
+
+	@Autowired
+	private SqlTracer sqlTracer;
+
+	@BeforeEach
+	void setUp() {
+		fixtures.reset();
+	}
+
+	// Other tests clear rooms with deleteAll(), which would delete 100k rows one at a time
+	@AfterEach
+	void tearDown() {
+		roomRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void importsCsvHotelsAndReportsBadRows() {
+		String csv = """
+				name,location,description,price,latitude,longitude,hotelImages
+				"Harbour View, Deluxe",Importport,"Says ""hello""
+				on two lines",120,15.5,73.8,https://img/1.jpg|https://img/2.jpg
+				,Importport,missing name,90,,,
+				Hill Top,Importport,,not-a-number,,,
+				Bay Inn,Importport,,80,15.6,,
+				Lake Side,Importport,,70,,,
+				""";
+
+		ImportResult result = importService.importHotels(stream(csv), "csv");
+
+		assertEquals(5, result.getRowsRead());
+		assertEquals(2, result.getImported());
+		assertEquals(3, result.getFailed());
+		assertEquals(List.of(4, 5, 6), result.getErrors().stream().map(e -> e.getLine()).toList());
+
+		List<Hotel> hotels = hotelRepository.findByLocation("Importport");
+		Hotel harbour = hotels.stream().filter(h -> h.getName().equals("Harbour View, Deluxe")).findFirst().orElseThrow();
+		assertEquals("Says \"hello\"\non two lines", harbour.getDescription());
+		assertEquals(List.of("https://img/1.jpg", "https://img/2.jpg"), hotelService.getById(harbour.getHotelId()).getHotelImages());
+
+		// Imported hotels are searchable straight away
+		assertEquals(harbour.getHotelId(), hotelService.searchText("harbour", 5).get(0).getHotelId());
+		assertEquals(1, hotelService.searchNearby(15.5, 73.8, 1, 10).size());
+	}
+
+	@Test
+	void importsRoomsInChunkedBatches() {
+		Long hotelId = fixtures.hotel("Mega Resort", "Importport").getHotelId();
+		int rooms = 5_000;
+
+		sqlTracer.startCounting();
+		ImportResult result = importService.importRooms(stream(roomsNdjson(hotelId, rooms)), "ndjson");
+		int statements = sqlTracer.stopCounting();
+
+		assertEquals(rooms + 2, result.getRowsRead());
+		assertEquals(rooms, result.getImported());
+		assertEquals(2, result.getFailed());
+		assertTrue(result.getErrors().stream().anyMatch(e -> e.getMessage().contains("Hotel not found")));
+		assertEquals(rooms, roomRepository.count());
+		// One batch per 1,000-row chunk plus a couple of hotel lookups, not a statement per row
+		assertTrue(statements <= rooms / 1_000 + 3, statements + " statements for " + rooms + " rooms");
+	}
+
+	@Test
+	void hotelsFromChunksCommittedBeforeAReadErrorAreSearchable() {
+		// Cache an empty result for the location first
+		assertTrue(hotelService.searchHotels("Importport", null, null, null, "name", null, null).getItems().isEmpty());
+
+		String csv = "name,location\nFirst,Importport\nSecond,Importport\nThird,Importport\n";
+		InputStream cutOff = new SequenceInputStream(stream(csv), new InputStream() {
+			@Override
+			public int read() throws IOException {
+				throw new IOException("connection reset");
+			}
+		});
+		ReflectionTestUtils.setField(importService, "chunkSize", 2);
+		try {
+			assertThrows(UncheckedIOException.class, () -> importService.importHotels(cutOff, "csv"));
+		} finally {
+			ReflectionTestUtils.setField(importService, "chunkSize", 1000);
+		}
+
+		assertEquals(2, hotelService.searchHotels("Importport", null, null, null, "name", null, null).getItems().size());
+	}
+
+	@Test
+	@Tag("benchmark")
+	void streams100kRoomsInSeconds() {
+		Long hotelId = fixtures.hotel("Mega Resort", "Importport").getHotelId();
+		int rooms = 100_000;
+
+		ImportResult result = importService.importRooms(stream(roomsNdjson(hotelId, rooms)), "ndjson");
+
+		assertEquals(rooms, result.getImported());
+		// Seconds, not minutes: about 5 s on H2 here, with headroom for slower machines
+		assertTrue(result.getElapsedMs() < 15_000, "100k rooms took " + result.getElapsedMs() + " ms");
+	}
+
+	// Valid rooms for the hotel, then one for a missing hotel and one line that is not JSON
+	private static String roomsNdjson(Long hotelId, int rooms) {
+		StringBuilder ndjson = new StringBuilder(rooms * 90);
+		for (int i = 0; i < rooms; i++) {
+			ndjson.append("{\"hotelId\":").append(hotelId)
+					.append(",\"roomType\":\"double\",\"pricePerNight\":").append(100 + i % 50)
+					.append(",\"availabilityStatus\":true}\n");
+		}
+		ndjson.append("{\"hotelId\":-1,\"roomType\":\"single\",\"pricePerNight\":10}\n");
+		ndjson.append("{not json}\n");
+		return ndjson.toString();
+	}
+
+	private InputStream stream(String body) {
+		return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,121 @@
+package com.hotelbooking.service;
+
+import com.hotelbooking.TestFixtures;
+import com.hotelbooking.dto.HotelDTO;
+import com.hotelbooking.dto.RoomDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ConditionalGetTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private HotelService hotelService;
+
+	@Autowired
+	private RoomService roomService;
+
+	@Autowired
+	private TestFixtures fixtures;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Long hotelId;
+
+	@BeforeEach
+	void setUp() {
+		fixtures.reset();
+
+		hotelId = hotelService.add(hotel("Validator Inn")).getHotelId();
+		RoomDTO room = new RoomDTO();
+		room.setHotelId(hotelId);
+		room.setRoomType("single");
+		room.setPricePerNight(70.0);
+		roomService.add(room);
+	}
+
+	@Test
+	void unchangedHotelIsRevalidatedWithoutQueries() throws Exception {
+		MvcResult first = mockMvc.perform(get("/api/hotels/{id}", hotelId))
+				.andExpect(status().isOk())
+				.andExpect(header().string("Cache-Control", "max-age=60, public"))
+				.andExpect(header().exists("Last-Modified"))
+				.andReturn();
+		String etag = first.getResponse().getHeader("ETag");
+		assertNotNull(etag);
+
+		Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		stats.clear();
+		mockMvc.perform(get("/api/hotels/{id}", hotelId).header("If-None-Match", etag))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string("ETag", etag))
+				.andExpect(content().string(""));
+		mockMvc.perform(get("/api/hotels/{id}", hotelId)
+						.header("If-Modified-Since", first.getResponse().getHeader("Last-Modified")))
+				.andExpect(status().isNotModified());
+		assertEquals(0, stats.getPrepareStatementCount());
+	}
+
+	@Test
+	void editsChangeTheTag() throws Exception {
+		String hotelTag = etag("/api/hotels/{id}");
+		String roomsTag = etag("/api/hotels/{id}/rooms");
+
+		HotelDTO edit = hotel("Validator Inn & Spa");
+		hotelService.update(hotelId, edit);
+		mockMvc.perform(get("/api/hotels/{id}", hotelId).header("If-None-Match", hotelTag))
+				.andExpect(status().isOk())
+				.andExpect(content().string(containsString("Validator Inn & Spa")));
+		assertNotEquals(hotelTag, etag("/api/hotels/{id}"));
+		// Hotel edits leave the room list valid
+		mockMvc.perform(get("/api/hotels/{id}/rooms", hotelId).header("If-None-Match", roomsTag))
+				.andExpect(status().isNotModified());
+
+		Long roomId = roomService.getRoomsByHotel(hotelId).get(0).getRoomId();
+		roomService.delete(roomId);
+		MvcResult rooms = mockMvc.perform(get("/api/hotels/{id}/rooms", hotelId).header("If-None-Match", roomsTag))
+				.andExpect(status().isOk())
+				.andReturn();
+		assertEquals("[]", rooms.getResponse().getContentAsString());
+		assertNotEquals(roomsTag, rooms.getResponse().getHeader("ETag"));
+	}
+
+	private String etag(String path) throws Exception {
+		return mockMvc.perform(get(path, hotelId)).andExpect(status().isOk()).andReturn().getResponse().getHeader("ETag");
+	}
+
+	private static HotelDTO hotel(String name) {
+		HotelDTO dto = new HotelDTO();
+		dto.setName(name);
+		dto.setLocation("Etagville");
+		dto.setPrice(120.0);
+		dto.setHotelImages(List.of("https://cdn.example.com/validator.jpg"));
+		return dto;
+	}
+}
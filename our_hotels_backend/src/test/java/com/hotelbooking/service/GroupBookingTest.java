@@ -0,0 +1,133 @@
+package com.hotelbooking.service;
+
+import com.hotelbooking.TestFixtures;
+import com.hotelbooking.dto.BookingDTO;
+import com.hotelbooking.dto.GroupBookingDTO;
+import com.hotelbooking.entity.Booking;
+import com.hotelbooking.entity.Hotel;
+import com.hotelbooking.entity.User;
+import com.hotelbooking.repository.BookingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class GroupBookingTest {
+
+	private static final LocalDate IN = LocalDate.of(2032, 7, 1);
+	private static final LocalDate OUT = LocalDate.of(2032, 7, 4);
+
+	@Autowired
+	private BookingService bookingService;
+
+	@Autowired
+	private RoomAvailabilityIndex availabilityIndex;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Autowired
+	private TestFixtures fixtures;
+
+	private User user;
+	private final List<Long> roomIds = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		fixtures.reset();
+		user = fixtures.user("Group");
+
+		Hotel hotel = fixtures.hotel("Conference Hotel", "Groupville");
+		roomIds.clear();
+		for (int i = 0; i < 12; i++) {
+			roomIds.add(fixtures.room(hotel, "double", 100.0 + i).getRoomId());
+		}
+	}
+
+	@Test
+	void booksEveryRoomWithItsOwnIdAndPrice() {
+		List<BookingDTO> booked = bookingService.bookGroup(request(roomIds.subList(0, 10)));
+
+		assertEquals(10, booked.size());
+		assertEquals(10, new HashSet<>(booked.stream().map(BookingDTO::getBookingId).toList()).size());
+		for (BookingDTO dto : booked) {
+			Booking saved = bookingRepository.findById(dto.getBookingId()).orElseThrow();
+			double nightly = 100.0 + roomIds.indexOf(dto.getRoomId());
+			assertEquals("CONFIRMED", saved.getStatus());
+			assertEquals(3 * nightly, saved.getTotalPrice(), 1e-9);
+			assertEquals(saved.getTotalPrice(), dto.getTotalPrice());
+			assertEquals("Conference Hotel", dto.getHotelName());
+		}
+		assertEquals(3 * (100.0 * 10 + 45), bookingService.getRevenueReport(IN, OUT).get("totalRevenue"), 1e-9);
+		assertFalse(bookingService.isRoomAvailable(roomIds.get(0), IN, OUT));
+		assertTrue(bookingService.isRoomAvailable(roomIds.get(11), IN, OUT));
+	}
+
+	@Test
+	void oneConflictingRoomRejectsTheWholeGroup() {
+		BookingDTO single = new BookingDTO();
+		single.setUserId(user.getUserId());
+		single.setRoomId(roomIds.get(5));
+		single.setCheckInDate(IN.plusDays(2));
+		single.setCheckOutDate(OUT.plusDays(2));
+		bookingService.book(single);
+
+		RuntimeException error = assertThrows(RuntimeException.class,
+				() -> bookingService.bookGroup(request(roomIds)));
+		assertTrue(error.getMessage().contains(String.valueOf(roomIds.get(5))));
+		assertEquals(1, bookingRepository.count());
+
+		List<Long> others = new ArrayList<>(roomIds);
+		others.remove(roomIds.get(5));
+		assertEquals(11, bookingService.bookGroup(request(others)).size());
+	}
+
+	@Test
+	void staleIndexEntriesAreCheckedAgainstTheDatabase() {
+		// Left behind by a cancellation this instance never saw
+		availabilityIndex.markBooked(roomIds.get(0), IN, OUT);
+		availabilityIndex.markBooked(roomIds.get(1), IN, OUT);
+		availabilityIndex.markBooked(roomIds.get(2), IN, OUT);
+		assertTrue(bookingService.isRoomAvailable(roomIds.get(2), IN, OUT));
+
+		BookingDTO single = new BookingDTO();
+		single.setUserId(user.getUserId());
+		single.setRoomId(roomIds.get(0));
+		single.setCheckInDate(IN);
+		single.setCheckOutDate(OUT);
+		assertEquals("CONFIRMED", bookingService.book(single).getStatus());
+		assertEquals(2, bookingService.bookGroup(request(roomIds.subList(1, 3))).size());
+		assertEquals(3, bookingRepository.count());
+	}
+
+	@Test
+	void rejectsInvalidGroups() {
+		assertThrows(IllegalArgumentException.class,
+				() -> bookingService.bookGroup(request(List.of(roomIds.get(0), roomIds.get(0)))));
+		assertThrows(IllegalArgumentException.class, () -> bookingService.bookGroup(request(List.of())));
+		assertThrows(RuntimeException.class, () -> bookingService.bookGroup(request(List.of(roomIds.get(0), -1L))));
+		assertEquals(0, bookingRepository.count());
+	}
+
+	private GroupBookingDTO request(List<Long> rooms) {
+		GroupBookingDTO request = new GroupBookingDTO();
+		request.setUserId(user.getUserId());
+		request.setRoomIds(new ArrayList<>(rooms));
+		request.setCheckInDate(IN);
+		request.setCheckOutDate(OUT);
+		return request;
+	}
+}
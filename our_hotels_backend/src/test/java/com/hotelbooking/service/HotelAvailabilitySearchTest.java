@@ -0,0 +1,107 @@
+package com.hotelbooking.service;
+
+import com.hotelbooking.TestFixtures;
+import com.hotelbooking.dto.HotelPage;
+import com.hotelbooking.dto.HotelSummaryDTO;
+import com.hotelbooking.entity.Hotel;
+import com.hotelbooking.entity.Room;
+import com.hotelbooking.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class HotelAvailabilitySearchTest {
+
+	private static final String LOCATION = "Availtown";
+	private static final LocalDate IN = LocalDate.of(2031, 5, 10);
+	private static final LocalDate OUT = LocalDate.of(2031, 5, 13);
+
+	@Autowired
+	private HotelService hotelService;
+
+	@Autowired
+	private TestFixtures fixtures;
+
+	private User user;
+	private Hotel busy;
+	private Hotel quiet;
+	private Room busyDouble;
+	private Room busySuite;
+
+	@BeforeEach
+	void setUp() {
+		fixtures.reset();
+		hotelService.getSearchCache().invalidateAll();
+		user = fixtures.user("Avail");
+
+		busy = fixtures.hotel("Busy Inn", LOCATION);
+		busyDouble = fixtures.room(busy, "double", 100.0);
+		busySuite = fixtures.room(busy, "suite", 100.0);
+		quiet = fixtures.hotel("Quiet Inn", LOCATION);
+		fixtures.room(quiet, "double", 100.0);
+		fixtures.room(quiet, "double", 100.0);
+	}
+
+	@Test
+	void returnsOnlyHotelsWithAFreeRoomAndTheirCounts() {
+		// Overlaps the stay by one night
+		book(busyDouble, IN.minusDays(2), IN.plusDays(1), "CONFIRMED");
+		// Touches the stay without overlapping, and a canceled overlap: neither blocks
+		book(busySuite, OUT, OUT.plusDays(2), "CONFIRMED");
+		book(busySuite, IN, OUT, "CANCELED");
+
+		HotelPage page = search(null);
+		assertEquals(List.of(busy.getHotelId(), quiet.getHotelId()), ids(page));
+		assertEquals(Map.of(busy.getHotelId(), 1L, quiet.getHotelId(), 2L), page.getFreeRooms());
+
+		// Only the suite is free at Busy Inn, so a double search drops it
+		page = search("double");
+		assertEquals(List.of(quiet.getHotelId()), ids(page));
+		assertEquals(Map.of(quiet.getHotelId(), 2L), page.getFreeRooms());
+
+		book(busySuite, IN.plusDays(2), OUT, "CONFIRMED");
+		assertEquals(List.of(quiet.getHotelId()), ids(search(null)));
+	}
+
+	@Test
+	void undatedSearchIsUnchanged() {
+		book(busyDouble, IN, OUT, "CONFIRMED");
+		book(busySuite, IN, OUT, "CONFIRMED");
+
+		HotelPage page = hotelService.searchHotels(LOCATION, null, null, null, "name", null, null);
+		assertEquals(2, page.getItems().size());
+		assertNull(page.getFreeRooms());
+	}
+
+	@Test
+	void rejectsIncompleteOrInvertedStays() {
+		assertThrows(IllegalArgumentException.class, () -> hotelService.searchHotels(
+				LOCATION, null, null, null, IN, null, "name", null, null));
+		assertThrows(IllegalArgumentException.class, () -> hotelService.searchHotels(
+				LOCATION, null, null, null, OUT, IN, "name", null, null));
+	}
+
+	private HotelPage search(String roomType) {
+		return hotelService.searchHotels(LOCATION, null, null, roomType, IN, OUT, "name", null, null);
+	}
+
+	private List<Long> ids(HotelPage page) {
+		return page.getItems().stream().map(HotelSummaryDTO::getHotelId).toList();
+	}
+
+	private void book(Room room, LocalDate checkIn, LocalDate checkOut, String status) {
+		fixtures.booking(user, room, checkIn, checkOut, 100.0, status);
+	}
+}
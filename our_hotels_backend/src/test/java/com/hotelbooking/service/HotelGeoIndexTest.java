@@ -0,0 +1,60 @@
+package com.hotelbooking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HotelGeoIndexTest {
+
+	private HotelGeoIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new HotelGeoIndex();
+		index.init();
+		index.put(1L, 15.4909, 73.8278);   // Panaji
+		index.put(2L, 15.5527, 73.7517);   // Calangute
+		index.put(3L, 19.0760, 72.8777);   // Mumbai
+		index.put(4L, -17.7134, 178.0650); // Fiji, east of the antimeridian
+		index.put(5L, -16.5000, -179.9000); // just west of it
+		index.put(6L, null, null);
+	}
+
+	@Test
+	void viewportReturnsOnlyHotelsInsideIt() {
+		assertEquals(List.of(1L, 2L), sortedIds(index.within(15.0, 73.5, 16.0, 74.0, 100)));
+		assertEquals(List.of(1L, 2L, 3L), sortedIds(index.within(10, 70, 20, 75, 100)));
+		assertEquals(List.of(4L, 5L), sortedIds(index.within(-20, 170, -10, -170, 100)));
+		assertEquals(5, index.size());
+	}
+
+	@Test
+	void nearbyIsSortedByDistanceAndBoundedByRadius() {
+		List<HotelGeoIndex.Nearby> near = index.nearby(15.50, 73.80, 20, 10);
+		assertEquals(List.of(1L, 2L), near.stream().map(HotelGeoIndex.Nearby::hotelId).toList());
+		assertTrue(near.get(0).distanceKm() < near.get(1).distanceKm());
+
+		// Mumbai is ~420 km from Panaji
+		assertEquals(2, index.nearby(15.50, 73.80, 400, 10).size());
+		assertEquals(3, index.nearby(15.50, 73.80, 450, 10).size());
+		assertEquals(1, index.nearby(15.50, 73.80, 450, 1).size());
+	}
+
+	@Test
+	void movingAndRemovingHotelsUpdatesCells() {
+		index.put(3L, 15.50, 73.80);
+		assertEquals(3L, index.nearby(15.50, 73.80, 1, 10).get(0).hotelId());
+
+		index.remove(3L);
+		index.put(1L, null, null);
+		assertEquals(List.of(2L), sortedIds(index.within(15.0, 73.5, 16.0, 74.0, 100)));
+	}
+
+	private List<Long> sortedIds(List<HotelGeoIndex.Point> points) {
+		return points.stream().map(HotelGeoIndex.Point::hotelId).sorted().toList();
+	}
+}
@@ -0,0 +1,80 @@
+package com.hotelbooking.service;
+
+import com.hotelbooking.cache.BoundedTtlCache;
+import com.hotelbooking.dto.HotelDTO;
+import com.hotelbooking.entity.Hotel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class HotelSearchCacheTest {
+
+	@Autowired
+	private HotelService hotelService;
+
+	@BeforeEach
+	void setUp() {
+		hotelService.getSearchCache().invalidateAll();
+	}
+
+	@Test
+	void writesEvictOnlyMatchingSearches() {
+		Hotel panaji = hotelService.add(dto("Sea Breeze", "Panaji", 120.0));
+
+		assertEquals(1, search("Panaji", null, null));
+		assertEquals(1, search(" panaji ", null, 200.0));
+		search("Shimla", null, null);
+		assertEquals(3, hotelService.getSearchCache().size());
+
+		// Normalized key: served from cache
+		long hits = hotelService.getSearchCache().getHits();
+		search("PANAJI", null, null);
+		assertEquals(hits + 1, hotelService.getSearchCache().getHits());
+
+		// A Mumbai hotel cannot change any cached result
+		hotelService.add(dto("City Lights", "Mumbai", 90.0));
+		assertEquals(3, hotelService.getSearchCache().size());
+
+		// Moving the Panaji hotel above 200 touches both Panaji entries, not Shimla
+		hotelService.update(panaji.getHotelId(), dto("Sea Breeze", "Panaji", 250.0));
+		assertEquals(1, hotelService.getSearchCache().size());
+		assertEquals(0, search("panaji", null, 200.0));
+
+		hotelService.delete(panaji.getHotelId());
+		assertEquals(0, search("Panaji", null, null));
+	}
+
+	@Test
+	void aValueLoadedAcrossAnInvalidationIsNotStored() {
+		BoundedTtlCache<String, String> cache = new BoundedTtlCache<>("race", 10, 60_000L);
+
+		// A write evicts while the page is still loading: the page may predate the write
+		assertEquals("stale", cache.computeIfAbsent("panaji", k -> {
+			cache.invalidateIf((key, value) -> true);
+			return "stale";
+		}));
+		assertEquals(0, cache.size());
+
+		assertEquals("fresh", cache.computeIfAbsent("panaji", k -> "fresh"));
+		assertEquals("fresh", cache.get("panaji"));
+	}
+
+	private int search(String location, Double priceMin, Double priceMax) {
+		return hotelService.searchHotels(location, priceMin, priceMax, null, null, null, null).getItems().size();
+	}
+
+	private HotelDTO dto(String name, String location, double price) {
+		HotelDTO dto = new HotelDTO();
+		dto.setName(name);
+		dto.setLocation(location);
+		dto.setPrice(price);
+		dto.setRoomType("double");
+		return dto;
+	}
+}
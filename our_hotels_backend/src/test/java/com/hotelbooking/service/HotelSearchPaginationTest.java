@@ -0,0 +1,91 @@
+package com.hotelbooking.service;
+
+import com.hotelbooking.dto.HotelDTO;
+import com.hotelbooking.dto.HotelPage;
+import com.hotelbooking.dto.HotelSort;
+import com.hotelbooking.entity.Hotel;
+import com.hotelbooking.repository.HotelRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class HotelSearchPaginationTest {
+
+	private static final String LOCATION = "Keysetville";
+
+	@Autowired
+	private HotelService hotelService;
+
+	@Autowired
+	private HotelRepository hotelRepository;
+
+	private final List<Hotel> hotels = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		hotelRepository.deleteAll(hotelRepository.findByLocation(LOCATION));
+		hotelService.getSearchCache().invalidateAll();
+		hotels.clear();
+		for (int i = 0; i < 23; i++) {
+			HotelDTO dto = new HotelDTO();
+			dto.setName("Hotel " + (char) ('A' + (i * 7) % 23));
+			dto.setLocation(LOCATION);
+			// Duplicate prices and ratings exercise the id tie-break; every fifth hotel has none
+			dto.setPrice(i % 5 == 0 ? null : 50.0 + (i % 4) * 25);
+			dto.setRating(i % 5 == 0 ? null : (double) (i % 3 + 3));
+			hotels.add(hotelService.add(dto));
+		}
+	}
+
+	@Test
+	void pagesCoverEveryHotelOnceInSortOrder() {
+		assertPaging("price", Comparator.comparing(Hotel::getPrice, Comparator.nullsLast(Comparator.naturalOrder())));
+		assertPaging("price_desc", Comparator.comparing(Hotel::getPrice, Comparator.nullsLast(Comparator.reverseOrder())));
+		assertPaging("rating", Comparator.comparing(Hotel::getRating, Comparator.nullsLast(Comparator.reverseOrder())));
+		assertPaging("name", Comparator.comparing(Hotel::getName));
+	}
+
+	@Test
+	void pageSizeIsCapped() {
+		HotelPage page = hotelService.searchHotels(LOCATION, null, null, null, "name", null, 10_000);
+		assertEquals(100, page.getSize());
+	}
+
+	private void assertPaging(String sort, Comparator<Hotel> order) {
+		HotelSort hotelSort = HotelSort.fromParam(sort);
+		// Expected: sort column order, nulls last; ties by id in the column's direction (nulls by id ascending)
+		Comparator<Hotel> byId = Comparator.comparing(Hotel::getHotelId);
+		List<Hotel> expected = new ArrayList<>(hotels);
+		expected.sort(order.thenComparing((a, b) -> {
+			boolean nullValue = hotelSort.valueOf(a) == null;
+			return nullValue || hotelSort.isAscending() ? byId.compare(a, b) : byId.compare(b, a);
+		}));
+
+		List<Long> seen = new ArrayList<>();
+		String cursor = null;
+		int pages = 0;
+		do {
+			HotelPage page = hotelService.searchHotels(LOCATION, null, null, null, sort, cursor, 5);
+			assertTrue(page.getItems().size() <= 5);
+			page.getItems().forEach(h -> seen.add(h.getHotelId()));
+			cursor = page.getNextCursor();
+			pages++;
+		} while (cursor != null);
+
+		assertEquals(expected.stream().map(Hotel::getHotelId).toList(), seen, "sort=" + sort);
+		assertEquals(5, pages);
+		assertNull(cursor);
+	}
+}
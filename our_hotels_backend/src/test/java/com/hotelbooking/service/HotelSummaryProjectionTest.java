@@ -0,0 +1,123 @@
+package com.hotelbooking.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotelbooking.TestFixtures;
+import com.hotelbooking.dto.HotelPage;
+import com.hotelbooking.dto.HotelSummaryDTO;
+import com.hotelbooking.dto.RoomDTO;
+import com.hotelbooking.entity.Hotel;
+import com.hotelbooking.repository.HotelRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class HotelSummaryProjectionTest {
+
+	private static final String LOCATION = "Summaryville";
+	private static final int HOTELS = 50;
+	private static final int IMAGES = 8;
+
+	@Autowired
+	private HotelService hotelService;
+
+	@Autowired
+	private RoomService roomService;
+
+	@Autowired
+	private HotelRepository hotelRepository;
+
+	@Autowired
+	private TestFixtures fixtures;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private final List<Long> hotelIds = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		fixtures.reset();
+		hotelService.getSearchCache().invalidateAll();
+
+		hotelIds.clear();
+		for (int i = 0; i < HOTELS; i++) {
+			Hotel hotel = TestFixtures.newHotel("Summary Hotel " + i, LOCATION);
+			hotel.setPrice(100.0 + i);
+			// CDN-style URLs with resize/signature parameters, close to the column limit
+			List<String> images = new ArrayList<>();
+			for (int j = 0; j < IMAGES; j++) {
+				images.add("https://cdn.example.com/hotels/" + i + "/" + j + ".jpg?w=1200&sig=" + String.valueOf((char) ('a' + j)).repeat(180));
+			}
+			if (i > 0) {
+				hotel.setHotelImages(images);
+			}
+			hotelIds.add(hotelRepository.save(hotel).getHotelId());
+		}
+	}
+
+	@Test
+	void searchPageIsConstantStatementsWithThumbnailsOnly() throws Exception {
+		Statistics stats = statistics();
+		stats.clear();
+		HotelPage page = hotelService.searchHotels(LOCATION, null, null, null, "price", null, HOTELS);
+		long statements = stats.getPrepareStatementCount();
+
+		assertEquals(HOTELS, page.getItems().size());
+		// Keyset phase for priced rows, the null-price phase, and one thumbnail query; no per-hotel image loads
+		assertEquals(3, statements);
+		HotelSummaryDTO first = page.getItems().get(0);
+		assertNull(first.getThumbnail());
+		assertTrue(page.getItems().get(1).getThumbnail().endsWith("/0.jpg?w=1200&sig=" + "a".repeat(180)));
+
+		// Same hotels as full entities, the way the endpoint used to serialize them
+		List<Hotel> full = hotelIds.stream().map(hotelService::getById).toList();
+		int leanBytes = objectMapper.writeValueAsBytes(page.getItems()).length;
+		int fullBytes = objectMapper.writeValueAsBytes(full).length;
+		// One thumbnail against eight images caps the fixture near 8x; null fields left out gets it past 6x
+		assertTrue(leanBytes * 6 < fullBytes, leanBytes + " bytes as summaries vs " + fullBytes + " as entities");
+	}
+
+	@Test
+	void detailViewStillLoadsAllImages() {
+		Hotel hotel = hotelService.getById(hotelIds.get(1));
+		assertEquals(IMAGES, hotel.getHotelImages().size());
+	}
+
+	@Test
+	void roomListingIsFlatAndSingleStatement() throws Exception {
+		Long hotelId = hotelIds.get(3);
+		for (int i = 0; i < 5; i++) {
+			fixtures.room(hotelRepository.getReferenceById(hotelId), "double", 80.0 + i);
+		}
+
+		Statistics stats = statistics();
+		stats.clear();
+		List<RoomDTO> rooms = roomService.getRoomsByHotel(hotelId);
+		assertEquals(1, stats.getPrepareStatementCount());
+		assertEquals(5, rooms.size());
+		assertEquals(hotelId, rooms.get(0).getHotelId());
+		assertFalse(objectMapper.writeValueAsString(rooms).contains("\"hotel\""));
+	}
+
+	private Statistics statistics() {
+		return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+}
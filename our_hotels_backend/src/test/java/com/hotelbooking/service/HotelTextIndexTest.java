@@ -0,0 +1,96 @@
+package com.hotelbooking.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Matching and ranking rules of the text index, plus autocomplete latency at 100k hotels.
+ *
+ * The latency check is opt-in: mvn test -Dgroups=benchmark -DexcludedGroups= -Dtest=HotelTextIndexTest
+ */
+class HotelTextIndexTest {
+
+	@Test
+	void matchesTokensAndPrefixesAndRanksNameAboveDescription() {
+		HotelTextIndex index = new HotelTextIndex();
+		index.index(1L, "Sea Breeze", "Goa, India", "Quiet rooms near the beach");
+		index.index(2L, "Mountain Lodge", "Manali", "Trips to Goa arranged");
+		index.index(3L, "Goa Grande", "Panaji, Goa", "Café and pool");
+
+		assertEquals(List.of(3L, 1L, 2L), ids(index.search("goa", 10)));
+		assertEquals(List.of(1L), ids(index.search("GOA beach", 10)));
+		assertEquals(List.of(3L), ids(index.search("grande go", 10)));
+		assertEquals(List.of(3L), ids(index.search("cafe", 10)));
+		assertTrue(index.search("goa nowhere", 10).isEmpty());
+
+		assertEquals(List.of("goa", "grande"), index.suggest("g", 5));
+		assertEquals(List.of("goa"), index.suggest("g", 1));
+		assertEquals(List.of("sea goa"), index.suggest("Sea Go", 5));
+	}
+
+	@Test
+	void reindexReplacesAndRemoveRetractsPostings() {
+		HotelTextIndex index = new HotelTextIndex();
+		index.index(1L, "Sea Breeze", "Goa", null);
+		index.index(1L, "Hill View", "Ooty", null);
+
+		assertTrue(index.search("breeze", 10).isEmpty());
+		assertEquals(List.of(1L), ids(index.search("ooty", 10)));
+
+		assertEquals(List.of("hill"), index.suggest("h", 5));
+		assertTrue(index.suggest("b", 5).isEmpty());
+
+		index.remove(1L);
+		assertTrue(index.suggest("h", 5).isEmpty());
+		assertEquals(0, index.size());
+		assertEquals(0, index.termCount());
+	}
+
+	@Test
+	@Tag("benchmark")
+	void suggestStaysUnderAMillisecondAt100kHotels() {
+		HotelTextIndex index = new HotelTextIndex();
+		String[] cities = {"Goa", "Mumbai", "Manali", "Munnar", "Mysore", "Jaipur", "Shimla", "Ooty", "Kochi", "Delhi"};
+		String[] words = {"Sea", "Palace", "Grand", "Residency", "Inn", "Resort", "Heritage", "Garden", "View", "Royal"};
+		Random random = new Random(7);
+		for (long id = 1; id <= 100_000; id++) {
+			String name = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)] + " " + id;
+			String location = cities[random.nextInt(cities.length)];
+			index.index(id, name, location, "Rooms with a " + words[random.nextInt(words.length)] + " feel");
+		}
+
+		// Every single digit covers about a tenth of the 100k numeric terms; those are the widest ranges
+		List<String> prefixes = new ArrayList<>(List.of("m", "go", "pa", "res", "shi", "ro", "gar", "k", "99", "10", "123"));
+		for (char digit = '1'; digit <= '9'; digit++) {
+			prefixes.add(String.valueOf(digit));
+		}
+		int runs = 2_000;
+		for (String prefix : prefixes) {
+			long[] nanos = new long[runs];
+			for (int i = 0; i < runs; i++) {
+				index.suggest(prefix, 8);
+			}
+			for (int i = 0; i < runs; i++) {
+				long start = System.nanoTime();
+				assertFalse(index.suggest(prefix, 8).isEmpty());
+				nanos[i] = System.nanoTime() - start;
+			}
+			Arrays.sort(nanos);
+			double p99Micros = nanos[runs * 99 / 100] / 1_000.0;
+			assertTrue(p99Micros < 1_000, "suggest(\"" + prefix + "\") p99 was " + p99Micros + " us");
+		}
+	}
+
+	private List<Long> ids(List<HotelTextIndex.Match> matches) {
+		return matches.stream().map(HotelTextIndex.Match::hotelId).toList();
+	}
+}
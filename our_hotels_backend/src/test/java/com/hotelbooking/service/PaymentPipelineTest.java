@@ -0,0 +1,274 @@
+package com.hotelbooking.service;
+
+import com.hotelbooking.TestFixtures;
+import com.hotelbooking.config.AuthenticatedUser;
+import com.hotelbooking.dto.PaymentDTO;
+import com.hotelbooking.entity.Booking;
+import com.hotelbooking.entity.Payment;
+import com.hotelbooking.entity.Room;
+import com.hotelbooking.entity.User;
+import com.hotelbooking.repository.PaymentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PaymentPipelineTest {
+
+	@Autowired
+	private PaymentService paymentService;
+
+	@Autowired
+	private PaymentProcessor paymentProcessor;
+
+	@Autowired
+	private PaymentGateway paymentGateway;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private PaymentRepository paymentRepository;
+
+	@Autowired
+	private TestFixtures fixtures;
+
+	private User user;
+	private Booking booking;
+	private Booking otherBooking;
+
+	@BeforeEach
+	void setUp() {
+		fixtures.reset();
+		user = fixtures.user("Payer");
+		Room room = fixtures.room(fixtures.hotel("Ledger Lodge", "Settleton"), "suite", 150.0);
+
+		booking = booking(user, room, LocalDate.of(2035, 5, 1));
+		otherBooking = booking(user, room, LocalDate.of(2035, 6, 1));
+		// Service calls below pay as the booking's owner
+		SecurityContextHolder.getContext().setAuthentication(signedIn(user.getUserId()));
+	}
+
+	// Payments reference bookings, which other tests delete; never leave a worker writing behind us
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		awaitNoPending();
+		paymentRepository.deleteAll();
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void submissionIsAcceptedBeforeTheGatewayAnswers() throws Exception {
+		String body = "{\"bookingId\":" + booking.getBookingId() + "}";
+		String location = mockMvc.perform(post("/api/payments").header("Idempotency-Key", "pay-1").with(as(user.getUserId()))
+						.contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().isAccepted())
+				.andExpect(jsonPath("$.status").value("PENDING"))
+				.andExpect(jsonPath("$.amount").value(300.0))
+				.andExpect(header().exists("Location"))
+				.andReturn().getResponse().getHeader("Location");
+
+		awaitNoPending();
+		mockMvc.perform(get(location).with(as(user.getUserId())))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.status").value("COMPLETED"));
+		// Ids are sequential: another user's id must not reveal the payment
+		mockMvc.perform(get(location).with(as(user.getUserId() + 1000)))
+				.andExpect(status().isInternalServerError())
+				.andExpect(content().string("Something went wrong: Payment not found"));
+		mockMvc.perform(get("/api/payments/" + booking.getBookingId()).with(as(user.getUserId() + 1000)))
+				.andExpect(status().isInternalServerError());
+		// Nor may they pay for the booking, or replay its payment through the key
+		for (String key : new String[] {"pay-1", "someone-else"}) {
+			mockMvc.perform(post("/api/payments").header("Idempotency-Key", key).with(as(user.getUserId() + 1000))
+							.contentType(MediaType.APPLICATION_JSON).content(body))
+					.andExpect(status().isInternalServerError())
+					.andExpect(content().string("Something went wrong: Booking not found"));
+		}
+		// A retry after completion replays the result instead of charging again
+		mockMvc.perform(post("/api/payments").header("Idempotency-Key", "pay-1").with(as(user.getUserId()))
+						.contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.status").value("COMPLETED"));
+		assertEquals(1, paymentRepository.count());
+	}
+
+	@Test
+	void concurrentDuplicatesCollapseToOnePayment() throws Exception {
+		ExecutorService clients = new DelegatingSecurityContextExecutorService(Executors.newFixedThreadPool(6));
+		try {
+			List<Callable<Long>> submissions = new ArrayList<>();
+			for (int i = 0; i < 6; i++) {
+				// Half retry the same key, half are fresh clicks with their own key
+				String key = i % 2 == 0 ? "double-click" : "click-" + i;
+				submissions.add(() -> paymentService.process(request(booking), key).getPaymentId());
+			}
+			Set<Long> ids = new HashSet<>();
+			for (Future<Long> id : clients.invokeAll(submissions)) {
+				ids.add(id.get());
+			}
+			assertEquals(1, ids.size());
+			assertEquals(1, paymentRepository.count());
+		} finally {
+			clients.shutdown();
+		}
+	}
+
+	@Test
+	void keysAreBoundToOneBooking() {
+		paymentService.process(request(booking), "shared-key");
+		assertThrows(IllegalArgumentException.class, () -> paymentService.process(request(otherBooking), "shared-key"));
+	}
+
+	@Test
+	void failedPaymentsReplayUnderTheirKeyAndRetryUnderANewOne() throws Exception {
+		PaymentDTO declined = request(booking);
+		declined.setAmount(-1.0);
+		Long paymentId = paymentService.process(declined, "attempt-1").getPaymentId();
+		awaitNoPending();
+
+		Payment replay = paymentService.process(request(booking), "attempt-1");
+		assertEquals(PaymentService.FAILED, replay.getStatus());
+		assertEquals("Amount must be positive", replay.getFailureReason());
+
+		Payment retry = paymentService.process(request(booking), "attempt-2");
+		assertEquals(paymentId, retry.getPaymentId());
+		assertEquals(PaymentService.PENDING, retry.getStatus());
+		awaitNoPending();
+		assertEquals(PaymentService.COMPLETED, paymentService.getById(paymentId).getStatus());
+		assertNull(paymentService.getById(paymentId).getFailureReason());
+	}
+
+	@Test
+	void onlyTheWorkerThatClaimsAPaymentChargesIt() throws Exception {
+		Long paymentId = paymentService.process(request(booking), "claimed").getPaymentId();
+		awaitNoPending();
+		paymentRepository.findById(paymentId).ifPresent(p -> {
+			p.setStatus(PaymentService.PENDING);
+			paymentRepository.save(p);
+		});
+
+		// Another instance got there first; resuming here must leave its claim alone
+		assertEquals(1, paymentRepository.claim(paymentId, LocalDateTime.now()));
+		paymentProcessor.resumePending();
+		Thread.sleep(300);
+		assertEquals(PaymentService.PROCESSING, paymentService.getById(paymentId).getStatus());
+
+		// Until the claim is old enough to belong to a stopped instance
+		paymentRepository.findById(paymentId).ifPresent(p -> {
+			p.setClaimedAt(LocalDateTime.now().minusDays(1));
+			paymentRepository.save(p);
+		});
+		paymentProcessor.resumePending();
+		awaitNoPending();
+		assertEquals(PaymentService.COMPLETED, paymentService.getById(paymentId).getStatus());
+	}
+
+	@Test
+	void concurrentChargesWithOneKeyShareOneOutcome() throws Exception {
+		ExecutorService callers = Executors.newFixedThreadPool(4);
+		try {
+			List<Callable<String>> charges = new ArrayList<>();
+			for (int i = 0; i < 4; i++) {
+				charges.add(() -> paymentGateway.charge("gateway-key", booking.getBookingId(), 300.0).reference());
+			}
+			Set<String> references = new HashSet<>();
+			for (Future<String> reference : callers.invokeAll(charges)) {
+				references.add(reference.get());
+			}
+			assertEquals(1, references.size());
+		} finally {
+			callers.shutdown();
+		}
+	}
+
+	@Test
+	void workersAreVirtualWhenVirtualThreadsAreEnabled() throws Exception {
+		for (boolean virtual : new boolean[] {false, true}) {
+			PaymentProcessor processor = new PaymentProcessor();
+			ReflectionTestUtils.setField(processor, "meterRegistry", new SimpleMeterRegistry());
+			ReflectionTestUtils.setField(processor, "workers", 2);
+			ReflectionTestUtils.setField(processor, "queueCapacity", 10);
+			ReflectionTestUtils.setField(processor, "virtualThreads", virtual);
+			processor.start();
+			try {
+				ExecutorService workers = (ExecutorService) ReflectionTestUtils.getField(processor, "executor");
+				Thread worker = workers.submit(Thread::currentThread).get();
+				assertEquals(virtual, worker.isVirtual());
+				assertTrue(worker.isDaemon());
+				assertTrue(worker.getName().startsWith("payment-"), worker.getName());
+			} finally {
+				processor.stop();
+			}
+		}
+	}
+
+	private void awaitNoPending() throws InterruptedException {
+		for (int i = 0; i < 100 && inFlight(); i++) {
+			Thread.sleep(50);
+		}
+		assertTrue(!inFlight(), "payments still pending");
+	}
+
+	private boolean inFlight() {
+		return !paymentRepository.findByStatus(PaymentService.PENDING).isEmpty()
+				|| !paymentRepository.findByStatus(PaymentService.PROCESSING).isEmpty();
+	}
+
+	private static RequestPostProcessor as(Long userId) {
+		return authentication(signedIn(userId));
+	}
+
+	private static Authentication signedIn(Long userId) {
+		AuthenticatedUser principal = new AuthenticatedUser(userId, "user" + userId + "@test.local", "USER");
+		return UsernamePasswordAuthenticationToken.authenticated(principal, null, principal.getAuthorities());
+	}
+
+	private Booking booking(User user, Room room, LocalDate checkIn) {
+		return fixtures.booking(user, room, checkIn, checkIn.plusDays(2), 300.0, "CONFIRMED");
+	}
+
+	private static PaymentDTO request(Booking booking) {
+		PaymentDTO dto = new PaymentDTO();
+		dto.setBookingId(booking.getBookingId());
+		return dto;
+	}
+}
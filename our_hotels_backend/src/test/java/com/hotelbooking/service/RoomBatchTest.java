@@ -0,0 +1,123 @@
+package com.hotelbooking.service;
+
+import com.hotelbooking.TestFixtures;
+import com.hotelbooking.dto.RoomDTO;
+import com.hotelbooking.dto.RoomsByHotelPage;
+import com.hotelbooking.entity.Hotel;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RoomBatchTest {
+
+	@Autowired
+	private RoomService roomService;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private TestFixtures fixtures;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private final List<Long> hotelIds = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		fixtures.reset();
+
+		hotelIds.clear();
+		for (int h = 0; h < 3; h++) {
+			Hotel hotel = fixtures.hotel("Batch Hotel " + h, "Inlist");
+			hotelIds.add(hotel.getHotelId());
+			// The last hotel has no rooms
+			for (int r = 0; r < 2 - h; r++) {
+				fixtures.room(hotel, "type-" + r, 50.0 + r);
+			}
+		}
+	}
+
+	@Test
+	void manyHotelsInOneStatement() {
+		Long unknown = hotelIds.get(2) + 1000;
+		Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		stats.clear();
+
+		Map<Long, List<RoomDTO>> rooms = roomService.getRoomsByHotels(List.of(hotelIds.get(1), hotelIds.get(0), hotelIds.get(2), unknown));
+
+		assertEquals(1, stats.getPrepareStatementCount());
+		assertEquals(List.of(hotelIds.get(1), hotelIds.get(0), hotelIds.get(2), unknown), List.copyOf(rooms.keySet()));
+		assertEquals(2, rooms.get(hotelIds.get(0)).size());
+		assertEquals(1, rooms.get(hotelIds.get(1)).size());
+		assertTrue(rooms.get(hotelIds.get(2)).isEmpty());
+		assertTrue(rooms.get(unknown).isEmpty());
+		assertTrue(rooms.get(hotelIds.get(0)).stream().allMatch(r -> r.getHotelId().equals(hotelIds.get(0))));
+	}
+
+	@Test
+	void rejectsOversizedBatches() {
+		List<Long> tooMany = LongStream.rangeClosed(1, 501).boxed().toList();
+		assertThrows(IllegalArgumentException.class, () -> roomService.getRoomsByHotels(tooMany));
+		assertThrows(IllegalArgumentException.class, () -> roomService.getRoomsByHotels(List.of()));
+	}
+
+	@Test
+	void pagesThroughTheCatalogByHotel() {
+		Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		stats.clear();
+
+		RoomsByHotelPage first = roomService.getRoomsPage(null, 2);
+		assertEquals(2, stats.getPrepareStatementCount());
+		assertEquals(List.of(hotelIds.get(0), hotelIds.get(1)), List.copyOf(first.getRooms().keySet()));
+		assertEquals(hotelIds.get(1), first.getNextAfterHotelId());
+
+		RoomsByHotelPage last = roomService.getRoomsPage(first.getNextAfterHotelId(), 2);
+		assertEquals(Map.of(hotelIds.get(2), List.of()), last.getRooms());
+		assertNull(last.getNextAfterHotelId());
+	}
+
+	@Test
+	@WithMockUser(roles = "ADMIN")
+	void endpoints() throws Exception {
+		mockMvc.perform(get("/api/hotels/rooms").param("hotelIds", hotelIds.get(0) + "," + hotelIds.get(2)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$['" + hotelIds.get(0) + "'].length()").value(2))
+				.andExpect(jsonPath("$['" + hotelIds.get(2) + "'].length()").value(0));
+		mockMvc.perform(get("/api/admin/rooms"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.rooms.length()").value(3))
+				.andExpect(jsonPath("$.nextAfterHotelId").doesNotExist());
+	}
+
+	@Test
+	@WithMockUser
+	void catalogWalkIsAdminOnly() throws Exception {
+		mockMvc.perform(get("/api/admin/rooms")).andExpect(status().isForbidden());
+	}
+}
@@ -0,0 +1,100 @@
+package com.hotelbooking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotelbooking.dto.BookingDTO;
+import com.hotelbooking.dto.HotelPage;
+import com.hotelbooking.dto.HotelSummaryDTO;
+import com.hotelbooking.entity.Hotel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response serialization with the same ObjectMapper defaults Spring Boot applies:
+ * a full Hotel (detail view), a 20-item search page, and a 50-booking listing.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JsonSerializationBenchmark {
+
+    private ObjectMapper mapper;
+    private Hotel hotel;
+    private HotelPage page;
+    private List<BookingDTO> bookings;
+
+    @Setup
+    public void setUp() {
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+
+        hotel = new Hotel();
+        hotel.setHotelId(7L);
+        hotel.setName("Harbour View Deluxe");
+        hotel.setLocation("Goa");
+        hotel.setDescription("Sea-facing rooms, rooftop pool and a short walk to the beach. ".repeat(4));
+        hotel.setRating(4.5);
+        hotel.setPrice(149.0);
+        hotel.setRoomType("double");
+        hotel.setLatitude(15.5);
+        hotel.setLongitude(73.8);
+        List<String> images = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            images.add("https://cdn.example.com/hotels/7/" + i + ".jpg?w=1200");
+        }
+        hotel.setHotelImages(images);
+
+        List<HotelSummaryDTO> items = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            HotelSummaryDTO summary = new HotelSummaryDTO();
+            summary.setHotelId((long) i);
+            summary.setName("Hotel " + i);
+            summary.setLocation("Goa");
+            summary.setDescription(hotel.getDescription());
+            summary.setRating(3.5 + i % 3 * 0.5);
+            summary.setPrice(90.0 + i);
+            summary.setRoomType("double");
+            summary.setThumbnail("https://cdn.example.com/hotels/" + i + "/0.jpg?w=400");
+            items.add(summary);
+        }
+        page = new HotelPage(items, "eyJpZCI6MTl9", "price", 20, null);
+
+        bookings = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            BookingDTO dto = new BookingDTO((long) i, 42L, (long) (100 + i), "Hotel " + i % 7, "suite",
+                    LocalDate.of(2030, 1, 1).plusDays(i), LocalDate.of(2030, 1, 3).plusDays(i),
+                    240.0, "CONFIRMED");
+            bookings.add(dto);
+        }
+    }
+
+    @Benchmark
+    public byte[] hotelDetail() throws Exception {
+        return mapper.writeValueAsBytes(hotel);
+    }
+
+    @Benchmark
+    public byte[] searchPage() throws Exception {
+        return mapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] bookingList() throws Exception {
+        return mapper.writeValueAsBytes(bookings);
+    }
+}
@@ -0,0 +1,97 @@
+package com.hotelbooking.config;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue on login and token verification on every authenticated request.
+ * {@code verifyLegacy} is the per-request cost before the single-parse provider: validate, then
+ * parse again, deriving the key and building a parser each time. {@code verify} always checks
+ * the HS512 signature once; {@code verifyCached} is the steady state for a client that keeps
+ * reusing its token.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JwtBenchmark {
+
+    // Same length as the production secret (64 bytes decoded, as HS512 requires)
+    private static final String SECRET =
+            "+lYgaC2C0WQNK+mia/VN+Z4M3bzw01H75bDzSLomBHIdbS4MXa+Q/RaGYjZmRPZiEuKT+ejYK2sAkX4IXQOFQQ==";
+
+    private JwtTokenProvider uncached;
+    private JwtTokenProvider cached;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        uncached = newProvider(0);
+        cached = newProvider(10_000);
+        token = uncached.generateToken("guest@ourhotels.com", "USER", 42L);
+        cached.parseClaims(token);
+    }
+
+    @Benchmark
+    public String generate() {
+        return uncached.generateToken("guest@ourhotels.com", "USER", 42L);
+    }
+
+    @Benchmark
+    public String verifyLegacy() {
+        Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseSignedClaims(token);
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload()
+                .getSubject();
+    }
+
+    @Benchmark
+    public Claims verify() {
+        return uncached.parseClaims(token);
+    }
+
+    @Benchmark
+    public Claims verifyCached() {
+        return cached.parseClaims(token);
+    }
+
+    static JwtTokenProvider newProvider(int cacheSize) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        set(provider, "secret", SECRET);
+        set(provider, "expiration", 3_600_000L);
+        set(provider, "cacheMaxSize", cacheSize);
+        set(provider, "cacheTtlMs", 300_000L);
+        provider.init();
+        return provider;
+    }
+
+    private static void set(Object target, String name, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+}
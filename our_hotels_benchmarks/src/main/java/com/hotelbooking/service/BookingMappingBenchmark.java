@@ -0,0 +1,78 @@
+package com.hotelbooking.service;
+
+import com.hotelbooking.dto.BookingDTO;
+import com.hotelbooking.entity.Booking;
+import com.hotelbooking.entity.Hotel;
+import com.hotelbooking.entity.Room;
+import com.hotelbooking.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** BookingService.toDTO over detached entities: the in-memory cost per booking, without any lazy loading. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BookingMappingBenchmark {
+
+    private static final int BOOKINGS = 1_000;
+
+    private BookingService bookingService;
+    private List<Booking> bookings;
+
+    @Setup
+    public void setUp() {
+        bookingService = new BookingService();
+        bookings = new ArrayList<>(BOOKINGS);
+        LocalDate start = LocalDate.of(2030, 1, 1);
+        for (int i = 0; i < BOOKINGS; i++) {
+            Hotel hotel = new Hotel();
+            hotel.setHotelId((long) (i % 50));
+            hotel.setName("Hotel " + (i % 50));
+
+            Room room = new Room();
+            room.setRoomId((long) i);
+            room.setHotel(hotel);
+            room.setRoomType(i % 3 == 0 ? "suite" : "double");
+
+            User user = new User();
+            user.setUserId((long) (i % 200));
+
+            Booking booking = new Booking();
+            booking.setBookingId((long) i);
+            booking.setUser(user);
+            booking.setRoom(room);
+            booking.setCheckInDate(start.plusDays(i % 365));
+            booking.setCheckOutDate(start.plusDays(i % 365 + 1 + i % 5));
+            booking.setTotalPrice(120.0 * (1 + i % 5));
+            booking.setStatus("CONFIRMED");
+            bookings.add(booking);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BOOKINGS)
+    public void toDTO(Blackhole bh) {
+        for (Booking booking : bookings) {
+            BookingDTO dto = bookingService.toDTO(booking);
+            bh.consume(dto);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.hotelbooking.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Report aggregation over synthetic bookings: the per-night expansion used by
+ * BookingRollupService.rebuild, followed by the revenue and room-night totals the
+ * revenue/occupancy reports read back for a date range.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ReportAggregationBenchmark {
+
+    private static final String[] ROOM_TYPES = {"single", "double", "suite"};
+    private static final LocalDate FIRST_NIGHT = LocalDate.of(2030, 1, 1);
+
+    @Param({"10000", "100000"})
+    public int bookings;
+
+    private long[] hotelIds;
+    private String[] roomTypes;
+    private LocalDate[] checkIns;
+    private LocalDate[] checkOuts;
+    private double[] prices;
+    private boolean[] confirmed;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        hotelIds = new long[bookings];
+        roomTypes = new String[bookings];
+        checkIns = new LocalDate[bookings];
+        checkOuts = new LocalDate[bookings];
+        prices = new double[bookings];
+        confirmed = new boolean[bookings];
+        for (int i = 0; i < bookings; i++) {
+            int nights = 1 + random.nextInt(7);
+            hotelIds[i] = 1 + random.nextInt(200);
+            roomTypes[i] = ROOM_TYPES[random.nextInt(ROOM_TYPES.length)];
+            checkIns[i] = FIRST_NIGHT.plusDays(random.nextInt(365));
+            checkOuts[i] = checkIns[i].plusDays(nights);
+            prices[i] = nights * (80.0 + random.nextInt(220));
+            confirmed[i] = random.nextInt(10) != 0;
+        }
+    }
+
+    @Benchmark
+    public double rebuildAndReport() {
+        DailyRollupAccumulator accumulator = new DailyRollupAccumulator();
+        for (int i = 0; i < bookings; i++) {
+            if (confirmed[i]) {
+                accumulator.addStay(hotelIds[i], roomTypes[i], checkIns[i], checkOuts[i], prices[i], 1);
+            } else {
+                accumulator.addCancellation(hotelIds[i], roomTypes[i], checkIns[i]);
+            }
+        }
+
+        // Second quarter, the shape of a typical revenue/occupancy report request
+        LocalDate from = FIRST_NIGHT.plusMonths(3);
+        LocalDate to = FIRST_NIGHT.plusMonths(6);
+        double revenue = 0;
+        long roomNights = 0;
+        for (DailyRollupAccumulator.Totals t : accumulator.rows()) {
+            LocalDate night = t.getKey().stayDate();
+            if (!night.isBefore(from) && night.isBefore(to)) {
+                revenue += t.getRevenue();
+                roomNights += t.getRoomNights();
+            }
+        }
+        return revenue + roomNights;
+    }
+}
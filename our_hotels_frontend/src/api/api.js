@@ -94,6 +94,19 @@ export async function createBooking(data) {
   }
 }
 
+/**
+ * Books several rooms for the same dates in one all-or-nothing request.
+ * @param {{roomIds:number[], checkInDate:string, checkOutDate:string}} data
+ */
+export async function createGroupBooking(data) {
+  try {
+    const res = await api.post("/bookings/batch", data);
+    return res.data;
+  } catch (err) {
+    throw normalizeError(err);
+  }
+}
+
 export async function getUserBookings(userId) {
   try {
     const res = await api.get(`/bookings/user/${userId}`);
@@ -120,18 +133,52 @@ export async function getAllBookings() {
   }
 }
 
+/** Streams all matching bookings from the server as a downloadable Blob (csv or ndjson). */
+export async function exportBookings({ format = "csv", from, to, status } = {}) {
+  try {
+    const res = await api.get("/bookings/admin/export", {
+      params: { format, from, to, status },
+      responseType: "blob",
+    });
+    return res.data;
+  } catch (err) {
+    throw normalizeError(err);
+  }
+}
+
 /* ================= HOTELS & ROOMS ================= */
 
+/** UI sort keys -> backend sort orders */
+const SORT_PARAMS = {
+  priceLow: "price",
+  priceHigh: "price_desc",
+  rating: "rating",
+  name: "name",
+};
+
 /**
- * Use axios params instead of string concatenation.
+ * One keyset page of hotel summaries: {items, nextCursor, sort, size, freeRooms}.
+ * Items carry a single thumbnail instead of hotelImages; use getHotel(id) for the gallery.
+ * Pass the previous page's nextCursor to continue; nextCursor is null on the last page.
+ * With checkIn/checkOut (YYYY-MM-DD) only hotels with a free room are returned and
+ * freeRooms maps hotelId -> free room count.
  */
-export async function searchHotels(location, priceMin, priceMax, roomType) {
+export async function searchHotelsPage(
+  { location, priceMin, priceMax, roomType, checkIn, checkOut, sortBy, cursor, size } = {}
+) {
   try {
     const params = {};
     if (location) params.location = location;
     if (priceMin) params.priceMin = priceMin;
     if (priceMax) params.priceMax = priceMax;
     if (roomType) params.roomType = roomType;
+    if (checkIn && checkOut) {
+      params.checkIn = checkIn;
+      params.checkOut = checkOut;
+    }
+    if (SORT_PARAMS[sortBy]) params.sort = SORT_PARAMS[sortBy];
+    if (cursor) params.cursor = cursor;
+    if (size) params.size = size;
 
     const res = await api.get("/hotels/search", { params });
     return res.data;
@@ -140,6 +187,71 @@ export async function searchHotels(location, priceMin, priceMax, roomType) {
   }
 }
 
+/**
+ * All matching hotels as a flat list, fetched page by page. Only for admin views that need
+ * the whole catalog; listings use searchHotelsPage and fetch further pages on demand.
+ * For dated searches each hotel carries its freeRooms count.
+ */
+export async function searchHotels(location, priceMin, priceMax, roomType, sortBy, checkIn, checkOut) {
+  const hotels = [];
+  let cursor = null;
+  do {
+    const page = await searchHotelsPage({
+      location, priceMin, priceMax, roomType, checkIn, checkOut, sortBy, cursor, size: 100,
+    });
+    const freeRooms = page.freeRooms;
+    hotels.push(...(page.items || []).map((hotel) =>
+      freeRooms ? { ...hotel, freeRooms: freeRooms[hotel.hotelId] || 0 } : hotel
+    ));
+    cursor = page.nextCursor;
+  } while (cursor);
+  return hotels;
+}
+
+/** Free-text search over hotel name, location and description, best first */
+export async function searchHotelsText(q, limit) {
+  try {
+    const res = await api.get("/hotels/search/text", { params: { q, limit } });
+    return res.data;
+  } catch (err) {
+    throw normalizeError(err);
+  }
+}
+
+/** Autocomplete completions for a partially typed query */
+export async function suggestHotels(prefix, limit) {
+  try {
+    const res = await api.get("/hotels/search/suggest", { params: { prefix, limit } });
+    return res.data;
+  } catch (err) {
+    throw normalizeError(err);
+  }
+}
+
+/** Hotels inside a map viewport (bounds in degrees) */
+export async function getHotelsInViewport({ minLat, minLng, maxLat, maxLng, limit }) {
+  try {
+    const res = await api.get("/hotels/search/within", {
+      params: { minLat, minLng, maxLat, maxLng, limit },
+    });
+    return res.data;
+  } catch (err) {
+    throw normalizeError(err);
+  }
+}
+
+/** Hotels within radiusKm of a point, closest first: [{ hotel, distanceKm }] */
+export async function getHotelsNearby(lat, lng, radiusKm, limit) {
+  try {
+    const res = await api.get("/hotels/search/nearby", {
+      params: { lat, lng, radiusKm, limit },
+    });
+    return res.data;
+  } catch (err) {
+    throw normalizeError(err);
+  }
+}
+
 export async function getHotel(id) {
   try {
     const res = await api.get(`/hotels/${id}`);
@@ -149,15 +261,53 @@ export async function getHotel(id) {
   }
 }
 
-export async function getRooms(hotelId) {
+/**
+ * Hotel and room reads are cacheable for a short while (Cache-Control max-age + ETag).
+ * Pass { revalidate: true } right after an edit to make the browser check with the server.
+ */
+export async function getRooms(hotelId, { revalidate = false } = {}) {
+  try {
+    const res = await api.get(`/hotels/${hotelId}/rooms`, {
+      headers: revalidate ? { "Cache-Control": "no-cache" } : undefined,
+    });
+    return res.data;
+  } catch (err) {
+    throw normalizeError(err);
+  }
+}
+
+/** Rooms for several hotels in one request: { [hotelId]: rooms[] } (server caps the id count) */
+export async function getRoomsForHotels(hotelIds) {
+  if (!hotelIds || hotelIds.length === 0) return {};
   try {
-    const res = await api.get(`/hotels/${hotelId}/rooms`);
+    const res = await api.get("/hotels/rooms", { params: { hotelIds: hotelIds.join(",") } });
     return res.data;
   } catch (err) {
     throw normalizeError(err);
   }
 }
 
+/**
+ * Admin only: every hotel's rooms as { [hotelId]: rooms[] }, fetched a page of hotels at a
+ * time, so the request count grows with the catalog in steps of hundreds of hotels.
+ */
+export async function getAllRoomsByHotel() {
+  const rooms = {};
+  let afterHotelId = null;
+  do {
+    try {
+      const res = await api.get("/admin/rooms", {
+        params: afterHotelId != null ? { afterHotelId } : undefined,
+      });
+      Object.assign(rooms, res.data.rooms);
+      afterHotelId = res.data.nextAfterHotelId;
+    } catch (err) {
+      throw normalizeError(err);
+    }
+  } while (afterHotelId != null);
+  return rooms;
+}
+
 /** Admin hotel/room APIs */
 export async function addHotel(data) {
   try {
@@ -265,15 +415,46 @@ export async function getOccupancyReport(startDate, endDate) {
 
 /* ================= PAYMENTS ================= */
 
-export async function processPayment(data) {
+/** A fresh key per payment attempt; resend the same key when retrying that attempt */
+export function newIdempotencyKey() {
+  return crypto.randomUUID();
+}
+
+/**
+ * Submits a payment. The server answers PENDING straight away and charges in the background;
+ * use waitForPayment for the outcome. Retries with the same idempotencyKey never charge twice.
+ */
+export async function processPayment(data, idempotencyKey) {
   try {
-    const res = await api.post("/payments", data);
+    const res = await api.post("/payments", data, {
+      headers: idempotencyKey ? { "Idempotency-Key": idempotencyKey } : undefined,
+    });
     return res.data;
   } catch (err) {
     throw normalizeError(err);
   }
 }
 
+export async function getPaymentStatus(paymentId) {
+  try {
+    const res = await api.get(`/payments/${paymentId}/status`);
+    return res.data;
+  } catch (err) {
+    throw normalizeError(err);
+  }
+}
+
+/** Polls until the payment leaves PENDING/PROCESSING (COMPLETED or FAILED), or gives up after timeoutMs */
+export async function waitForPayment(payment, { intervalMs = 1000, timeoutMs = 60000 } = {}) {
+  const deadline = Date.now() + timeoutMs;
+  let current = payment;
+  while (current && ["PENDING", "PROCESSING"].includes(current.status) && Date.now() < deadline) {
+    await new Promise((resolve) => setTimeout(resolve, intervalMs));
+    current = await getPaymentStatus(current.paymentId);
+  }
+  return current;
+}
+
 export async function getPayment(bookingId) {
   try {
     const res = await api.get(`/payments/${bookingId}`);
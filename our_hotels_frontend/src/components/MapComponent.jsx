@@ -1,7 +1,8 @@
-import React, { useState, useEffect } from 'react';
-import { MapContainer, TileLayer, Marker, Popup, ZoomControl } from 'react-leaflet';
+import React, { useState, useEffect, useRef } from 'react';
+import { MapContainer, TileLayer, Marker, Popup, ZoomControl, useMapEvents } from 'react-leaflet';
 import { Icon, DivIcon } from 'leaflet';
 import 'leaflet/dist/leaflet.css';
+import { getHotelsInViewport } from '../api/api';
 
 // Custom hotel icon
 const hotelIcon = new Icon({
@@ -18,7 +19,57 @@ const clusterIcon = (count) => new DivIcon({
   iconSize: [40, 40],
 });
 
-function MapComponent({ hotels }) {
+// Backend hotel -> marker shape used below
+const toMarker = (hotel) => ({
+  id: hotel.hotelId,
+  name: hotel.name,
+  description: hotel.description,
+  rating: hotel.rating,
+  price: hotel.price,
+  image: hotel.thumbnail || (hotel.hotelImages && hotel.hotelImages[0]),
+  coords: [hotel.latitude, hotel.longitude],
+});
+
+// Loads the hotels inside the visible bounds whenever the map stops moving
+function ViewportLoader({ onHotels }) {
+  const latest = useRef(0);
+  const load = async (map) => {
+    const bounds = map.getBounds();
+    const request = ++latest.current;
+    // Leaflet longitudes keep growing past ±180 when panning around the globe
+    const wholeWorld = bounds.getEast() - bounds.getWest() >= 360;
+    const wrapLng = (lng) => ((((lng + 180) % 360) + 360) % 360) - 180;
+    try {
+      const hotels = await getHotelsInViewport({
+        minLat: Math.max(-90, bounds.getSouth()),
+        minLng: wholeWorld ? -180 : wrapLng(bounds.getWest()),
+        maxLat: Math.min(90, bounds.getNorth()),
+        maxLng: wholeWorld ? 180 : wrapLng(bounds.getEast()),
+        limit: 300,
+      });
+      // Ignore responses that arrive after a newer pan
+      if (request === latest.current) onHotels(hotels.map(toMarker));
+    } catch (err) {
+      console.error('Failed to load hotels for viewport', err);
+    }
+  };
+  const map = useMapEvents({
+    moveend: () => load(map),
+  });
+  useEffect(() => {
+    load(map);
+    // eslint-disable-next-line react-hooks/exhaustive-deps
+  }, []);
+  return null;
+}
+
+/**
+ * Without a `hotels` prop the map fetches only the hotels in view from the
+ * backend on every pan/zoom; with it, it plots the given list as before.
+ */
+function MapComponent({ hotels: providedHotels }) {
+  const [viewportHotels, setViewportHotels] = useState([]);
+  const hotels = providedHotels || viewportHotels;
   const [mapCenter, setMapCenter] = useState([51.505, -0.09]);
   const [mapZoom, setMapZoom] = useState(13);
   const [selectedHotel, setSelectedHotel] = useState(null);
@@ -27,7 +78,7 @@ function MapComponent({ hotels }) {
 
   // Set initial map view to show all hotels
   useEffect(() => {
-    if (hotels.length > 0) {
+    if (providedHotels && providedHotels.length > 0) {
       const avgLat = hotels.reduce((sum, hotel) => sum + hotel.coords[0], 0) / hotels.length;
       const avgLng = hotels.reduce((sum, hotel) => sum + hotel.coords[1], 0) / hotels.length;
       setMapCenter([avgLat, avgLng]);
@@ -40,7 +91,7 @@ function MapComponent({ hotels }) {
       const newZoom = maxDistance > 0.5 ? 11 : maxDistance > 0.2 ? 12 : 13;
       setMapZoom(newZoom);
     }
-  }, [hotels]);
+  }, [providedHotels]);
 
   // Filter hotels based on search
   useEffect(() => {
@@ -56,7 +107,7 @@ function MapComponent({ hotels }) {
     setFilteredHotels(filtered);
     
     // Adjust map view if results exist
-    if (filtered.length > 0) {
+    if (providedHotels && filtered.length > 0) {
       const avgLat = filtered.reduce((sum, hotel) => sum + hotel.coords[0], 0) / filtered.length;
       const avgLng = filtered.reduce((sum, hotel) => sum + hotel.coords[1], 0) / filtered.length;
       setMapCenter([avgLat, avgLng]);
@@ -159,6 +210,7 @@ function MapComponent({ hotels }) {
           className="rounded-xl"
         >
           <ZoomControl position="topright" />
+          {!providedHotels && <ViewportLoader onHotels={setViewportHotels} />}
           
           {/* Tile Layer */}
           <TileLayer
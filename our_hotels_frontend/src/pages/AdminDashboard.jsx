@@ -6,6 +6,7 @@ import {
   updateRoom,
   deleteRoom as apiDeleteRoom,
   getRooms,
+  getAllRoomsByHotel,
   getUsers,
   updateUser,
   deleteUser as apiDeleteUser,
@@ -112,6 +113,8 @@ const HotelForm = React.memo(({
     location: '',
     description: '',
     rating: '',
+    latitude: '',
+    longitude: '',
     hotelImages: [],
   });
   const [hotelImageUrls, setHotelImageUrls] = useState('');
@@ -215,13 +218,15 @@ const HotelForm = React.memo(({
         hotelForm.rating === '' || hotelForm.rating === null
           ? null
           : Number(hotelForm.rating),
+      latitude: hotelForm.latitude === '' ? null : Number(hotelForm.latitude),
+      longitude: hotelForm.longitude === '' ? null : Number(hotelForm.longitude),
       hotelImages: hotelForm.hotelImages || [],
     };
     
     await handleAddHotel(payload);
     
     // Reset form
-    setHotelForm({ name: '', location: '', description: '', rating: '', hotelImages: [] });
+    setHotelForm({ name: '', location: '', description: '', rating: '', latitude: '', longitude: '', hotelImages: [] });
     setHotelImagePreviews([]);
     setCurrentImageIndex(0);
   }, [hotelForm, handleAddHotel]);
@@ -281,6 +286,30 @@ const HotelForm = React.memo(({
             style={{ backgroundColor: COLORS.light }}
           />
         </div>
+        <div className="grid grid-cols-2 gap-4">
+          <input
+            type="number"
+            step="any"
+            min="-90"
+            max="90"
+            placeholder="Latitude"
+            value={hotelForm.latitude}
+            onChange={(e) => setHotelForm({ ...hotelForm, latitude: e.target.value })}
+            className="w-full p-3 border border-gray-300 rounded-lg focus:ring-2 focus:ring-red-500 focus:border-transparent"
+            style={{ backgroundColor: COLORS.light }}
+          />
+          <input
+            type="number"
+            step="any"
+            min="-180"
+            max="180"
+            placeholder="Longitude"
+            value={hotelForm.longitude}
+            onChange={(e) => setHotelForm({ ...hotelForm, longitude: e.target.value })}
+            className="w-full p-3 border border-gray-300 rounded-lg focus:ring-2 focus:ring-red-500 focus:border-transparent"
+            style={{ backgroundColor: COLORS.light }}
+          />
+        </div>
         <div>
           <label className="block mb-2 font-semibold flex items-center" style={{ color: COLORS.primary }}>
             <FaImage className="mr-2" /> Upload Hotel Images
@@ -785,23 +814,16 @@ function AdminDashboard() {
     setLoading(true);
     setError(null);
     try {
-      const [hotelData, userData, bookingData] = await Promise.all([
+      const [hotelData, userData, bookingData, roomsByHotel] = await Promise.all([
         searchHotels(''),
         getUsers(),
         getAllBookings(),
+        getAllRoomsByHotel(),
       ]);
       setHotels(hotelData || []);
       setUsers(userData || []);
       setBookings(bookingData || []);
-      
-      const roomsData = await Promise.all(
-        (hotelData || []).map((h) => getRooms(h.hotelId))
-      );
-      const roomsByHotel = (hotelData || []).reduce((acc, h, i) => {
-        acc[h.hotelId] = roomsData[i] || [];
-        return acc;
-      }, {});
-      setRooms(roomsByHotel);
+      setRooms(roomsByHotel || {});
     } catch (e) {
       console.error(e);
       setError('Failed to load data');
@@ -813,7 +835,7 @@ function AdminDashboard() {
   
   const refreshRoomsForHotel = useCallback(async (hotelId) => {
     try {
-      const list = await getRooms(hotelId);
+      const list = await getRooms(hotelId, { revalidate: true });
       setRooms((prev) => ({ ...prev, [hotelId]: list || [] }));
     } catch (e) {
       console.error(e);
@@ -1180,12 +1202,12 @@ function AdminDashboard() {
                       <span>{hotel.rating ?? 'N/A'}</span>
                     </div>
                     
-                    {hotel.hotelImages && hotel.hotelImages.length > 0 && (
+                    {hotel.thumbnail && (
                       <div className="mt-3 relative h-40 overflow-hidden rounded-lg">
                         <AnimatePresence mode="wait">
                           <motion.img
                             key={0}
-                            src={hotel.hotelImages[0]}
+                            src={hotel.thumbnail}
                             alt={`Hotel ${hotel.name}`}
                             className="w-full h-full object-cover"
                             variants={imageVariants}
@@ -1,6 +1,6 @@
 import React, { useState, useEffect } from 'react';
 import { useLocation, useNavigate } from 'react-router-dom';
-import { searchHotels } from '../api/api.js';
+import { searchHotelsPage } from '../api/api.js';
 import Loader from '../components/Loader';
 import { motion, AnimatePresence } from 'framer-motion';
 import { FaMapMarkerAlt, FaStar, FaBed, FaMoneyBillWave, FaImage, FaFilter, FaArrowLeft, FaChevronLeft, FaChevronRight, FaHeart, FaTimes, FaWifi, FaSwimmingPool, FaParking, FaUtensils, FaDumbbell, FaSpa, FaCar, FaCoffee, FaConciergeBell, FaSearch } from 'react-icons/fa';
@@ -81,6 +81,9 @@ const amenityIcons = {
   concierge: <FaConciergeBell className="text-blue-500" />
 };
 
+// Hotels per search page; more are fetched with "Load more"
+const PAGE_SIZE = 24;
+
 function Hotels({ isMainSidebarOpen }) {
   const theme = useTheme();
   const navigate = useNavigate();
@@ -94,6 +97,8 @@ function Hotels({ isMainSidebarOpen }) {
   const [allHotels, setAllHotels] = useState([]);
   const [hotels, setHotels] = useState([]);
   const [loading, setLoading] = useState(false);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [showFilters, setShowFilters] = useState(false);
   const [currentImageIndex, setCurrentImageIndex] = useState({});
   const { wishlist, addToWishlist, removeFromWishlist } = useWishlist();
@@ -102,9 +107,12 @@ function Hotels({ isMainSidebarOpen }) {
     priceMin: '',
     priceMax: '',
     roomType: '',
+    checkIn: '',
+    checkOut: '',
     sortBy: sortBy,
     amenities: []
   });
+  const datedSearch = Boolean(filters.checkIn && filters.checkOut);
   
   // Check if sidebar is open
   useEffect(() => {
@@ -142,8 +150,8 @@ function Hotels({ isMainSidebarOpen }) {
       );
     }
     
-    // Apply room type filter
-    if (filters.roomType) {
+    // Apply room type filter (dated searches already filtered free rooms by type on the server)
+    if (filters.roomType && !datedSearch) {
       filteredData = filteredData.filter(hotel => 
         hotel.roomType && hotel.roomType.toLowerCase() === filters.roomType.toLowerCase()
       );
@@ -193,10 +201,29 @@ function Hotels({ isMainSidebarOpen }) {
     setHotels(sortedData);
   }, [allHotels, searchTerm, filters]);
   
-  const fetchHotels = () => {
-    setLoading(true);
-    searchHotels('', filters.priceMin, filters.priceMax, filters.roomType, filters.sortBy)
-      .then((data) => {
+  // One page at a time: the first page replaces the list, "Load more" appends the next one
+  const fetchHotels = (cursor = null) => {
+    if (cursor) {
+      setLoadingMore(true);
+    } else {
+      setLoading(true);
+    }
+    searchHotelsPage({
+      location: '',
+      priceMin: filters.priceMin,
+      priceMax: filters.priceMax,
+      roomType: filters.roomType,
+      checkIn: filters.checkIn,
+      checkOut: filters.checkOut,
+      sortBy: filters.sortBy,
+      cursor,
+      size: PAGE_SIZE,
+    })
+      .then((page) => {
+        const freeRooms = page.freeRooms;
+        const data = (page.items || []).map((hotel) =>
+          freeRooms ? { ...hotel, freeRooms: freeRooms[hotel.hotelId] || 0 } : hotel
+        );
         const processedData = data.map(hotel => {
           // Process images - handle both base64 and URL images
           let hotelImages = [];
@@ -224,6 +251,10 @@ function Hotels({ isMainSidebarOpen }) {
               return `https://source.unsplash.com/400x300/?hotel,${hotel.name}`;
             });
           } 
+          // Search results carry only a thumbnail; the detail page loads the full gallery
+          else if (hotel.thumbnail) {
+            hotelImages = [hotel.thumbnail];
+          }
           // Check if there's a single hotelImage
           else if (hotel.hotelImage) {
             // If it's a base64 data URI
@@ -259,13 +290,20 @@ function Hotels({ isMainSidebarOpen }) {
           };
         });
         
-        setAllHotels(processedData);
+        setAllHotels((prev) => (cursor ? [...prev, ...processedData] : processedData));
+        setNextCursor(page.nextCursor || null);
       })
       .catch((error) => {
         console.error('Error fetching hotels:', error);
-        setAllHotels([]);
+        if (!cursor) {
+          setAllHotels([]);
+          setNextCursor(null);
+        }
       })
-      .finally(() => setLoading(false));
+      .finally(() => {
+        setLoading(false);
+        setLoadingMore(false);
+      });
   };
   
   const handleApplyFilters = () => {
@@ -278,6 +316,8 @@ function Hotels({ isMainSidebarOpen }) {
       priceMin: '',
       priceMax: '',
       roomType: '',
+      checkIn: '',
+      checkOut: '',
       sortBy: '',
       amenities: []
     });
@@ -613,6 +653,34 @@ function Hotels({ isMainSidebarOpen }) {
                   </FormControl>
                 </motion.div>
                 
+                <motion.div
+                  initial={{ opacity: 0, y: 20 }}
+                  animate={{ opacity: 1, y: 0, transition: { delay: 0.45 } }}
+                  className="grid grid-cols-2 gap-2"
+                >
+                  <TextField
+                    label="Check-in"
+                    type="date"
+                    variant="outlined"
+                    value={filters.checkIn}
+                    onChange={(e) => setFilters({...filters, checkIn: e.target.value})}
+                    size="small"
+                    InputLabelProps={{ shrink: true }}
+                    sx={filterInputStyle}
+                  />
+                  <TextField
+                    label="Check-out"
+                    type="date"
+                    variant="outlined"
+                    value={filters.checkOut}
+                    onChange={(e) => setFilters({...filters, checkOut: e.target.value})}
+                    size="small"
+                    InputLabelProps={{ shrink: true }}
+                    inputProps={{ min: filters.checkIn || undefined }}
+                    sx={filterInputStyle}
+                  />
+                </motion.div>
+                
                 <motion.div
                   initial={{ opacity: 0, y: 20 }}
                   animate={{ opacity: 1, y: 0, transition: { delay: 0.5 } }}
@@ -846,6 +914,13 @@ function Hotels({ isMainSidebarOpen }) {
                                 <FaBed className="mr-3 text-blue-500" />
                                 <span className="text-sm">{hotel.roomType}</span>
                               </div>
+                              {hotel.freeRooms !== undefined && (
+                                <div className="flex items-center">
+                                  <span className="text-sm font-semibold text-green-700">
+                                    {hotel.freeRooms} {hotel.freeRooms === 1 ? 'room' : 'rooms'} free for your dates
+                                  </span>
+                                </div>
+                              )}
                               <div className="flex items-center">
                                 <FaMoneyBillWave className="mr-3 text-green-600" />
                                 <span className="font-semibold text-lg">${hotel.price} <span className="text-sm text-gray-500">per night</span></span>
@@ -895,6 +970,18 @@ function Hotels({ isMainSidebarOpen }) {
                   })}
                 </motion.div>
               )}
+              {nextCursor && (
+                <div className="flex justify-center mt-10">
+                  <Button
+                    variant="outlined"
+                    onClick={() => fetchHotels(nextCursor)}
+                    disabled={loadingMore}
+                    className="py-3 px-8 rounded-lg font-medium"
+                  >
+                    {loadingMore ? 'Loading...' : 'Load more hotels'}
+                  </Button>
+                </div>
+              )}
             </>
           )}
         </div>
@@ -1,6 +1,6 @@
-import React, { useEffect, useState } from 'react';
+import React, { useEffect, useRef, useState } from 'react';
 import { useParams } from 'react-router-dom';
-import { getPayment, processPayment } from '../api/api';
+import { getPayment, newIdempotencyKey, processPayment, waitForPayment } from '../api/api';
 import Loader from '../components/Loader';
 import { motion, AnimatePresence } from 'framer-motion';
 import { 
@@ -69,6 +69,8 @@ function Payment() {
   const [discount, setDiscount] = useState(0);
   const [savePaymentMethod, setSavePaymentMethod] = useState(false);
   const [timeLeft, setTimeLeft] = useState(600); // 10 minutes in seconds
+  // Kept across retries of one attempt so a resubmission cannot charge twice
+  const idempotencyKey = useRef(null);
 
   useEffect(() => {
     setLoading(true);
@@ -138,19 +140,29 @@ function Payment() {
   };
 
   const handlePay = async () => {
-    if (!validateCardDetails()) return;
+    if (loading || !validateCardDetails()) return;
     
     setLoading(true);
     setError(null);
+    if (!idempotencyKey.current) idempotencyKey.current = newIdempotencyKey();
     
     try {
-      await processPayment({ 
+      const submitted = await processPayment({ 
         bookingId, 
         method: selectedMethod,
         cardDetails: selectedMethod === 'card' ? cardDetails : null,
         discount
-      });
-      setSuccess(true);
+      }, idempotencyKey.current);
+      const result = await waitForPayment(submitted);
+      if (result.status === 'COMPLETED') {
+        setSuccess(true);
+      } else if (result.status === 'FAILED') {
+        // A declined attempt is final for its key; the next click is a new attempt
+        idempotencyKey.current = null;
+        setError(result.failureReason || 'Payment failed. Please try again.');
+      } else {
+        setError('Payment is still processing. Please check again shortly.');
+      }
     } catch (err) {
       setError('Payment failed. Please try again.');
     } finally {
@@ -415,6 +427,7 @@ function Payment() {
                 whileHover="whileHover"
                 whileTap="whileTap"
                 onClick={handlePay}
+                disabled={loading}
                 className="bg-gradient-to-r from-red-700 to-red-800 text-white px-4 py-3 rounded-lg shadow-lg hover:from-red-800 hover:to-red-900 transition w-full flex items-center justify-center"
               >
                 <span>Pay ${finalAmount.toFixed(2)}</span>
@@ -0,0 +1,66 @@
+package com.hotelbooking.loadtest;
+
+import java.io.File;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/** Runs the packaged backend with the "embedded" profile for the duration of a load test. */
+class BackendProcess implements AutoCloseable {
+
+    private final Process process;
+    private final Path log;
+
+    private BackendProcess(Process process, Path log) {
+        this.process = process;
+        this.log = log;
+    }
+
+    static BackendProcess start(String jar, int port, Path log) throws Exception {
+        if (!new File(jar).isFile()) {
+            throw new IllegalArgumentException("Backend jar not found: " + jar + " (run mvn package first)");
+        }
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        Process process = new ProcessBuilder(List.of(java, "-jar", jar,
+                "--spring.profiles.active=embedded", "--server.port=" + port, "--management.server.port=0"))
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        BackendProcess backend = new BackendProcess(process, log);
+        Runtime.getRuntime().addShutdownHook(new Thread(backend::close));
+        return backend;
+    }
+
+    /**
+     * Polls until {@code probe} answers 200. Tomcat accepts requests before the embedded seeder has
+     * run, so callers probe something that only succeeds on seeded data (a login).
+     */
+    void awaitReady(HttpRequest probe, Duration timeout) throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Backend exited with " + process.exitValue() + "; see " + log);
+            }
+            try {
+                if (client.send(probe, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (Exception e) {
+                // not listening yet
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException("Backend not ready after " + timeout.toSeconds() + " s; see " + log);
+    }
+
+    @Override
+    public void close() {
+        if (process.isAlive()) {
+            process.destroy();
+        }
+    }
+}
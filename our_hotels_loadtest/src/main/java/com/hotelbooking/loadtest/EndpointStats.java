@@ -0,0 +1,86 @@
+package com.hotelbooking.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Latencies and outcomes for one endpoint. Every sample is kept (a few hundred thousand longs
+ * at most for a typical run), so percentiles are exact rather than bucketed.
+ */
+class EndpointStats {
+
+    private final String name;
+    private final ReentrantLock lock = new ReentrantLock();
+    private long[] latencies = new long[1024];
+    private int count;
+    private long ok;
+    private long conflicts;
+    private final Map<String, Long> errors = new TreeMap<>();
+
+    EndpointStats(String name) {
+        this.name = name;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    /** {@code outcome} is "ok", "conflict", an HTTP status code, or an exception class name. */
+    void record(long latencyNanos, String outcome) {
+        lock.lock();
+        try {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latencyNanos;
+            switch (outcome) {
+                case "ok" -> ok++;
+                case "conflict" -> conflicts++;
+                default -> errors.merge(outcome, 1L, Long::sum);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    Summary summarize(double seconds) {
+        long[] sorted;
+        long errorCount;
+        Map<String, Long> errorsByOutcome;
+        long okCount;
+        long conflictCount;
+        lock.lock();
+        try {
+            sorted = Arrays.copyOf(latencies, count);
+            errorCount = errors.values().stream().mapToLong(Long::longValue).sum();
+            errorsByOutcome = new LinkedHashMap<>(errors);
+            okCount = ok;
+            conflictCount = conflicts;
+        } finally {
+            lock.unlock();
+        }
+        Arrays.sort(sorted);
+        return new Summary(name, sorted.length, okCount, conflictCount, errorCount,
+                sorted.length == 0 ? 0 : (double) errorCount / sorted.length,
+                sorted.length / seconds,
+                millis(sorted, 0.50), millis(sorted, 0.90), millis(sorted, 0.99), millis(sorted, 0.999),
+                sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6,
+                errorsByOutcome);
+    }
+
+    private static double millis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1e6;
+    }
+
+    record Summary(String endpoint, long requests, long ok, long conflicts, long errors, double errorRate,
+                   double throughput, double p50Ms, double p90Ms, double p99Ms, double p999Ms, double maxMs,
+                   Map<String, Long> errorsByOutcome) {
+    }
+}
@@ -0,0 +1,411 @@
+package com.hotelbooking.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays a mix of search, hotel detail, booking, payment and report traffic against a running backend.
+ *
+ * Arrivals are open-loop: request start times follow a Poisson process at the configured rate and
+ * do not wait for earlier responses, and every latency is measured from the scheduled start. A
+ * stalled server therefore shows up as queueing delay in the percentiles instead of as a quietly
+ * lower request rate (coordinated omission). Each arrival runs on its own virtual thread.
+ *
+ * Options (--key=value):
+ *   base-url        backend to drive (default http://localhost:1805)
+ *   start-backend   path to the backend jar; starts it with the embedded profile on --port first
+ *   port            port for --start-backend (default 18050)
+ *   rate            arrivals per second (default 50)
+ *   duration        measured seconds (default 60)
+ *   warmup          seconds of traffic before measuring (default 10)
+ *   mix             scenario weights (default search=40,detail=30,book=15,payment=10,report=5)
+ *   users           loadtest-user-N accounts to log in (default 50, as seeded by the embedded profile)
+ *   password        password of the seeded accounts (default loadtest)
+ *   max-in-flight   arrivals beyond this many concurrent scenarios are dropped and counted as errors (default 2000)
+ *   max-error-rate  fail when the overall error rate is higher (default 0.01)
+ *   max-p99-ms      fail when any endpoint's p99 is higher (default: no limit)
+ *   out             JSON result file (default load-result.json)
+ *
+ * Exits with status 1 when a threshold is exceeded. Booking conflicts ("Room is already booked")
+ * are an expected outcome of random dates and are counted separately, not as errors.
+ */
+public class LoadGenerator {
+
+    private static final String ADMIN_EMAIL = "loadtest-admin@ourhotels.test";
+    private static final String USER_EMAIL_FORMAT = "loadtest-user-%d@ourhotels.test";
+    private static final String[] LOCATIONS = {"Goa", "Mumbai", "Delhi", "Bengaluru", "Jaipur", "Chennai", "Kolkata", "Hyderabad"};
+    private static final String[] SORTS = {"price", "price_desc", "rating", "name"};
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<String, String> options;
+    private final String baseUrl;
+    private final ScenarioMix mix;
+    private final HttpClient client;
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+
+    private String adminToken;
+    private final List<String> userTokens = new ArrayList<>();
+    private final List<Long> hotelIds = new ArrayList<>();
+    private final List<Long> roomIds = new ArrayList<>();
+
+    // Scheduled start of the warm-up/measure boundary; results from earlier arrivals are discarded
+    private volatile long measureFrom;
+
+    LoadGenerator(Map<String, String> options, String baseUrl) {
+        this.options = options;
+        this.baseUrl = baseUrl;
+        this.mix = ScenarioMix.parse(options.getOrDefault("mix", "search=40,detail=30,book=15,payment=10,report=5"));
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String jar = options.get("start-backend");
+        BackendProcess backend = null;
+        String baseUrl = options.getOrDefault("base-url", "http://localhost:1805");
+        if (jar != null && !jar.isBlank()) {
+            int port = Integer.parseInt(options.getOrDefault("port", "18050"));
+            Path log = Path.of(options.getOrDefault("out", "load-result.json")).toAbsolutePath().resolveSibling("backend.log");
+            System.out.println("Starting " + jar + " on port " + port + " (log: " + log + ")");
+            backend = BackendProcess.start(jar, port, log);
+            baseUrl = "http://localhost:" + port;
+            String credentials = "{\"email\":\"" + ADMIN_EMAIL + "\",\"password\":\""
+                    + options.getOrDefault("password", "loadtest") + "\"}";
+            backend.awaitReady(HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                    .timeout(Duration.ofSeconds(5))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(credentials))
+                    .build(), Duration.ofMinutes(3));
+        }
+        int status;
+        try {
+            status = new LoadGenerator(options, baseUrl).run();
+        } finally {
+            if (backend != null) {
+                backend.close();
+            }
+        }
+        System.exit(status);
+    }
+
+    static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.isBlank()) {
+                continue;
+            }
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value, got " + arg);
+            }
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return options;
+    }
+
+    int run() throws Exception {
+        double rate = Double.parseDouble(options.getOrDefault("rate", "50"));
+        long durationSeconds = Long.parseLong(options.getOrDefault("duration", "60"));
+        long warmupSeconds = Long.parseLong(options.getOrDefault("warmup", "10"));
+        int maxInFlight = Integer.parseInt(options.getOrDefault("max-in-flight", "2000"));
+
+        setUp();
+        System.out.printf("Driving %s at %.1f req/s for %d s (+%d s warm-up), mix %s%n",
+                baseUrl, rate, durationSeconds, warmupSeconds, mix);
+
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        long start = System.nanoTime();
+        measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        try (ExecutorService arrivals = Executors.newVirtualThreadPerTaskExecutor()) {
+            long scheduled = start;
+            while (true) {
+                // Exponential inter-arrival times give a Poisson arrival process
+                scheduled += (long) (-Math.log(1 - random.nextDouble()) / rate * 1e9);
+                if (scheduled >= end) {
+                    break;
+                }
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                String scenario = mix.next(random);
+                long intended = scheduled;
+                if (!inFlight.tryAcquire()) {
+                    record(endpointOf(scenario), intended, intended, "dropped");
+                    continue;
+                }
+                arrivals.submit(() -> {
+                    try {
+                        runScenario(scenario, intended);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        return report(durationSeconds, rate);
+    }
+
+    // ---------- setup ----------
+
+    private void setUp() throws Exception {
+        String password = options.getOrDefault("password", "loadtest");
+        adminToken = login(ADMIN_EMAIL, password);
+        int users = Integer.parseInt(options.getOrDefault("users", "50"));
+        for (int u = 1; u <= users; u++) {
+            userTokens.add(login(String.format(USER_EMAIL_FORMAT, u), password));
+        }
+
+        String cursor = null;
+        do {
+            JsonNode page = getJson("/api/hotels/search?size=100" + (cursor == null ? "" : "&cursor=" + encode(cursor)));
+            page.path("items").forEach(item -> hotelIds.add(item.path("hotelId").asLong()));
+            cursor = page.path("nextCursor").isTextual() ? page.path("nextCursor").asText() : null;
+        } while (cursor != null);
+        for (Long hotelId : hotelIds) {
+            getJson("/api/hotels/" + hotelId + "/rooms").forEach(room -> roomIds.add(room.path("roomId").asLong()));
+        }
+        if (hotelIds.isEmpty() || ((mix.includes("book") || mix.includes("payment")) && roomIds.isEmpty())) {
+            throw new IllegalStateException("No hotels or rooms at " + baseUrl + "; run the backend with the embedded profile");
+        }
+        System.out.printf("Logged in %d users, found %d hotels and %d rooms%n", userTokens.size(), hotelIds.size(), roomIds.size());
+    }
+
+    private String login(String email, String password) throws Exception {
+        HttpResponse<String> response = send(post("/api/auth/login", Map.of("email", email, "password", password), null));
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed for " + email + ": HTTP " + response.statusCode());
+        }
+        return mapper.readTree(response.body()).path("token").asText();
+    }
+
+    private JsonNode getJson(String path) throws Exception {
+        HttpResponse<String> response = send(get(path, null));
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET " + path + " returned HTTP " + response.statusCode());
+        }
+        return mapper.readTree(response.body());
+    }
+
+    // ---------- scenarios ----------
+
+    private static String endpointOf(String scenario) {
+        return switch (scenario) {
+            case "search" -> "GET /api/hotels/search";
+            case "detail" -> "GET /api/hotels/{id}";
+            case "book", "payment" -> "POST /api/bookings";
+            case "report" -> "GET /api/admin/reports/*";
+            default -> throw new IllegalArgumentException(scenario);
+        };
+    }
+
+    private void runScenario(String scenario, long intended) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch (scenario) {
+            case "search" -> {
+                StringBuilder path = new StringBuilder("/api/hotels/search?size=20")
+                        .append("&location=").append(LOCATIONS[random.nextInt(LOCATIONS.length)])
+                        .append("&sort=").append(SORTS[random.nextInt(SORTS.length)]);
+                if (random.nextInt(3) == 0) {
+                    LocalDate checkIn = LocalDate.now().plusDays(1 + random.nextInt(180));
+                    path.append("&checkIn=").append(checkIn).append("&checkOut=").append(checkIn.plusDays(1 + random.nextInt(4)));
+                }
+                call("GET /api/hotels/search", intended, get(path.toString(), null));
+            }
+            case "detail" -> {
+                long hotelId = hotelIds.get(random.nextInt(hotelIds.size()));
+                if (call("GET /api/hotels/{id}", intended, get("/api/hotels/" + hotelId, null)) != null) {
+                    call("GET /api/hotels/{id}/rooms", System.nanoTime(), get("/api/hotels/" + hotelId + "/rooms", null));
+                }
+            }
+            case "book" -> book(intended, random, randomUser(random));
+            case "payment" -> {
+                // Only the guest who booked may pay for it
+                String guest = randomUser(random);
+                JsonNode booking = book(intended, random, guest);
+                if (booking != null) {
+                    Map<String, Object> payment = Map.of(
+                            "bookingId", booking.path("bookingId").asLong(),
+                            "amount", booking.path("totalPrice").asDouble());
+                    call("POST /api/payments", System.nanoTime(), post("/api/payments", payment, guest));
+                }
+            }
+            case "report" -> {
+                LocalDate from = LocalDate.now().plusDays(random.nextInt(330));
+                String kind = random.nextBoolean() ? "revenue" : "occupancy";
+                call("GET /api/admin/reports/*", intended, get("/api/admin/reports/" + kind
+                        + "?startDate=" + from + "&endDate=" + from.plusDays(30), adminToken));
+            }
+            default -> throw new IllegalArgumentException(scenario);
+        }
+    }
+
+    private JsonNode book(long intended, ThreadLocalRandom random, String token) {
+        LocalDate checkIn = LocalDate.now().plusDays(1 + random.nextInt(365));
+        Map<String, Object> body = Map.of(
+                "roomId", roomIds.get(random.nextInt(roomIds.size())),
+                "checkInDate", checkIn.toString(),
+                "checkOutDate", checkIn.plusDays(1 + random.nextInt(4)).toString());
+        return call("POST /api/bookings", intended, post("/api/bookings", body, token));
+    }
+
+    private String randomUser(ThreadLocalRandom random) {
+        return userTokens.isEmpty() ? adminToken : userTokens.get(random.nextInt(userTokens.size()));
+    }
+
+    /** Sends one request and records it; returns the parsed body of a successful response, else null. */
+    private JsonNode call(String endpoint, long intended, HttpRequest request) {
+        String outcome;
+        JsonNode body = null;
+        try {
+            HttpResponse<String> response = send(request);
+            int status = response.statusCode();
+            if (status >= 200 && status < 300) {
+                outcome = "ok";
+                body = response.body().isEmpty() ? mapper.nullNode() : mapper.readTree(response.body());
+            } else if (response.body().contains("already booked")) {
+                outcome = "conflict";
+            } else {
+                outcome = "HTTP " + status;
+            }
+        } catch (Exception e) {
+            outcome = e.getClass().getSimpleName();
+        }
+        record(endpoint, intended, System.nanoTime(), outcome);
+        return body;
+    }
+
+    private void record(String endpoint, long intended, long finished, String outcome) {
+        if (intended < measureFrom) {
+            return;
+        }
+        stats.computeIfAbsent(endpoint, EndpointStats::new).record(finished - intended, outcome);
+    }
+
+    // ---------- http ----------
+
+    private HttpRequest get(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT).GET();
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private HttpRequest post(String path, Object body, String token) {
+        try {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(body)));
+            if (token != null) {
+                builder.header("Authorization", "Bearer " + token);
+            }
+            return builder.build();
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Cannot serialize request body", e);
+        }
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    // ---------- report ----------
+
+    private int report(long durationSeconds, double rate) throws Exception {
+        List<EndpointStats.Summary> summaries = stats.values().stream()
+                .map(s -> s.summarize(durationSeconds))
+                .sorted((a, b) -> a.endpoint().compareTo(b.endpoint()))
+                .toList();
+
+        System.out.printf("%n%-30s %8s %8s %8s %9s %9s %9s %9s %7s %9s%n",
+                "endpoint", "requests", "req/s", "conflict", "p50 ms", "p90 ms", "p99 ms", "max ms", "errors", "error %");
+        long requests = 0;
+        long errors = 0;
+        for (EndpointStats.Summary s : summaries) {
+            System.out.printf("%-30s %8d %8.1f %8d %9.1f %9.1f %9.1f %9.1f %7d %8.2f%%%n",
+                    s.endpoint(), s.requests(), s.throughput(), s.conflicts(), s.p50Ms(), s.p90Ms(), s.p99Ms(),
+                    s.maxMs(), s.errors(), s.errorRate() * 100);
+            s.errorsByOutcome().forEach((outcome, count) -> System.out.printf("%32s %s x%d%n", "", outcome, count));
+            requests += s.requests();
+            errors += s.errors();
+        }
+
+        List<String> violations = new ArrayList<>();
+        double maxErrorRate = Double.parseDouble(options.getOrDefault("max-error-rate", "0.01"));
+        double errorRate = requests == 0 ? 0 : (double) errors / requests;
+        if (requests == 0) {
+            violations.add("no requests were measured");
+        } else if (errorRate > maxErrorRate) {
+            violations.add(String.format("error rate %.4f exceeds %.4f", errorRate, maxErrorRate));
+        }
+        if (options.containsKey("max-p99-ms")) {
+            double maxP99 = Double.parseDouble(options.get("max-p99-ms"));
+            for (EndpointStats.Summary s : summaries) {
+                if (s.p99Ms() > maxP99) {
+                    violations.add(String.format("%s p99 %.1f ms exceeds %.1f ms", s.endpoint(), s.p99Ms(), maxP99));
+                }
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("baseUrl", baseUrl);
+        result.put("targetRate", rate);
+        result.put("durationSeconds", durationSeconds);
+        result.put("mix", mix.toString());
+        result.put("requests", requests);
+        result.put("errorRate", errorRate);
+        result.put("endpoints", summaries);
+        result.put("violations", violations);
+        Path out = Path.of(options.getOrDefault("out", "load-result.json"));
+        if (out.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(out.toAbsolutePath().getParent());
+        }
+        mapper.enable(SerializationFeature.INDENT_OUTPUT).writeValue(out.toFile(), result);
+        System.out.println("\nResults written to " + out.toAbsolutePath());
+
+        if (violations.isEmpty()) {
+            System.out.println("All thresholds met");
+            return 0;
+        }
+        violations.forEach(v -> System.out.println("THRESHOLD EXCEEDED: " + v));
+        return 1;
+    }
+}
@@ -0,0 +1,69 @@
+package com.hotelbooking.loadtest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.random.RandomGenerator;
+
+/** Weighted choice between scenarios, parsed from e.g. "search=40,detail=30,book=15,payment=10,report=5". */
+class ScenarioMix {
+
+    static final Set<String> SCENARIOS = Set.of("search", "detail", "book", "payment", "report");
+
+    private final Map<String, Integer> weights;
+    private final List<String> names = new ArrayList<>();
+    private final int[] cumulative;
+
+    private ScenarioMix(Map<String, Integer> weights) {
+        this.weights = weights;
+        this.cumulative = new int[weights.size()];
+        int total = 0;
+        for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+            total += entry.getValue();
+            cumulative[names.size()] = total;
+            names.add(entry.getKey());
+        }
+    }
+
+    static ScenarioMix parse(String spec) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String part : spec.split(",")) {
+            String[] pair = part.trim().split("=");
+            if (pair.length != 2 || !SCENARIOS.contains(pair[0])) {
+                throw new IllegalArgumentException("Bad mix entry '" + part + "', expected one of " + SCENARIOS + "=weight");
+            }
+            int weight = Integer.parseInt(pair[1]);
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight for " + pair[0]);
+            }
+            if (weight > 0) {
+                weights.put(pair[0], weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Mix has no scenario with a positive weight: " + spec);
+        }
+        return new ScenarioMix(weights);
+    }
+
+    String next(RandomGenerator random) {
+        int pick = random.nextInt(cumulative[cumulative.length - 1]);
+        for (int i = 0; i < cumulative.length; i++) {
+            if (pick < cumulative[i]) {
+                return names.get(i);
+            }
+        }
+        throw new IllegalStateException("unreachable");
+    }
+
+    boolean includes(String scenario) {
+        return weights.containsKey(scenario);
+    }
+
+    @Override
+    public String toString() {
+        return weights.toString();
+    }
+}